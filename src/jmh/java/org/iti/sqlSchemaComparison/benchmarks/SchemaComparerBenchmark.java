@@ -0,0 +1,117 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.iti.sqlSchemaComparison.SqlSchemaComparer;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchema;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaGenerator;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaMutation;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaMutation.Kind;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SqlSchemaComparer} for schemas of about 100 to 50k vertices
+ * that differ by a number of modifications of one kind. Both schemas are
+ * cloned before each invocation, so that cached fingerprints do not hide
+ * the comparison cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaComparerBenchmark {
+
+	private static final long SEED = 42;
+
+	/**
+	 * The average number of vertices per table of the default generator
+	 * settings, used to derive the table count from the vertex count.
+	 */
+	private static final int VERTICES_PER_TABLE = 17;
+
+	private static final String NO_MUTATION = "NONE";
+
+	@Param({ "100", "1000", "10000", "50000" })
+	public int vertexCount;
+
+	@Param({ NO_MUTATION, "ADD_TABLE", "RENAME_COLUMN", "MOVE_COLUMN", "CHANGE_COLUMN_TYPE", "ADD_FOREIGN_KEY", "DROP_FOREIGN_KEY" })
+	public String mutation;
+
+	@Param({ "10" })
+	public int modificationCount;
+
+	private IndexedSqlSchema originalSchema1;
+
+	private IndexedSqlSchema originalSchema2;
+
+	private DirectedGraph<IStructureElement, DefaultEdge> schema1;
+
+	private DirectedGraph<IStructureElement, DefaultEdge> schema2;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SyntheticSchemaGenerator generator = new SyntheticSchemaGenerator()
+				.setTableCount(Math.max(1, vertexCount / VERTICES_PER_TABLE));
+		SyntheticSchemaMutation script = new SyntheticSchemaMutation();
+
+		if (!mutation.equals(NO_MUTATION))
+			script.add(Kind.valueOf(mutation), modificationCount);
+
+		SyntheticSchema schema = generator.generate(SEED);
+
+		originalSchema1 = (IndexedSqlSchema) schema.createSqlSchema();
+		originalSchema2 = (IndexedSqlSchema) generator.mutate(schema, script, SEED + 1).createSqlSchema();
+	}
+
+	@Setup(Level.Invocation)
+	public void cloneSchemas() {
+		schema1 = (IndexedSqlSchema) originalSchema1.clone();
+		schema2 = (IndexedSqlSchema) originalSchema2.clone();
+	}
+
+	@Benchmark
+	public SqlSchemaComparer compare() throws StructureGraphComparisonException {
+		return new SqlSchemaComparer(schema1, schema2);
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchema;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaGenerator;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaGenerator.ForeignKeyShape;
+import org.iti.sqlSchemaComparison.frontends.database.H2SchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.technologies.JPASchemaFrontend;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the schema introspection of the SQLite, H2 and JPA frontends.
+ * All frontends read the same generated schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaFrontendBenchmark {
+
+	private static final long SEED = 42;
+
+	@Param({ "10", "100", "1000", "10000" })
+	public int tableCount;
+
+	@Param({ "RANDOM" })
+	public ForeignKeyShape foreignKeyShape;
+
+	@Param({ "0.5" })
+	public double foreignKeyDensity;
+
+	private File directory;
+
+	private SqliteSchemaFrontend sqliteFrontend;
+
+	private H2SchemaFrontend h2Frontend;
+
+	private JPASchemaFrontend jpaFrontend;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, SQLException {
+		SyntheticSchema schema = new SyntheticSchemaGenerator()
+				.setTableCount(tableCount)
+				.setForeignKeys(foreignKeyShape, foreignKeyDensity)
+				.generate(SEED);
+
+		directory = Files.createTempDirectory("schema-frontend-benchmark").toFile();
+
+		File sqliteDatabase = new File(directory, "schema.sqlite");
+		File h2Database = new File(directory, "schema");
+		File jpaSources = new File(directory, "jpa");
+
+		schema.writeSqliteDatabase(sqliteDatabase);
+		schema.writeH2Database(h2Database);
+		schema.writeJpaSources(jpaSources);
+
+		sqliteFrontend = new SqliteSchemaFrontend(sqliteDatabase.getPath());
+		h2Frontend = new H2SchemaFrontend(h2Database.getAbsolutePath());
+		jpaFrontend = new JPASchemaFrontend(jpaSources.getPath());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		SyntheticSchema.delete(directory);
+	}
+
+	@Benchmark
+	public DirectedGraph<IStructureElement, DefaultEdge> sqlite() {
+		return sqliteFrontend.createSqlSchema();
+	}
+
+	@Benchmark
+	public DirectedGraph<IStructureElement, DefaultEdge> h2() {
+		return h2Frontend.createSqlSchema();
+	}
+
+	@Benchmark
+	public DirectedGraph<IStructureElement, DefaultEdge> jpa() {
+		return jpaFrontend.createSqlSchema();
+	}
+
+}
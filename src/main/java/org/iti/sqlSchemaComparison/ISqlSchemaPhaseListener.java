@@ -0,0 +1,40 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+/**
+ * Receives the timings of the phases of a schema comparison, from opening
+ * the database connection to rendering the report. Phases of concurrently
+ * loaded or compared schemas are reported from the worker threads, so
+ * implementations must be thread-safe.
+ */
+public interface ISqlSchemaPhaseListener {
+
+	void phaseStarted(SqlSchemaPhase phase);
+
+	/**
+	 * Called when a phase has finished. The element count is the number of
+	 * elements processed by the phase, see {@link SqlSchemaPhase}.
+	 */
+	void phaseFinished(SqlSchemaPhase phase, long durationNanos, long elementCount);
+}
@@ -0,0 +1,46 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import java.io.IOException;
+
+/**
+ * Receives the results of a streaming statement log validation as soon as
+ * each distinct statement has been validated. Implementations are called
+ * from the validation worker threads and must be thread-safe.
+ */
+public interface ISqlStatementValidationListener {
+
+	void statementValidated(String statement, long statementNumber,
+			SqlStatementExpectationValidationResult result) throws IOException;
+
+	void statementFailed(String statement, long statementNumber, String error) throws IOException;
+
+	/**
+	 * Called after all statements have been validated. The distinct statement
+	 * count is the number of validated statements, see
+	 * {@link SqlStatementBatchValidator}.
+	 */
+	void validationFinished(long statementCount, long distinctStatementCount,
+			long invalidStatementCount, long failedStatementCount) throws IOException;
+}
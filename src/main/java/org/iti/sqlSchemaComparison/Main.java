@@ -21,13 +21,31 @@
 
 package org.iti.sqlSchemaComparison;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.gibello.zql.ParseException;
 import org.iti.sqlSchemaComparison.frontends.ISqlSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.SqlSchemaFrontendFactory;
+import org.iti.sqlSchemaComparison.frontends.SqlSchemaGraphCache;
 import org.iti.sqlSchemaComparison.frontends.SqlStatementFrontend;
-import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.SqlStatementLogReader;
+import org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotFrontend;
+import org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotStore;
+import org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotStoreFrontend;
+import org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotWriter;
+import org.iti.sqlSchemaComparison.server.SqlSchemaComparisonServer;
 import org.iti.structureGraph.comparison.StructureGraphComparisonException;
 import org.iti.structureGraph.nodes.IStructureElement;
 import org.jgrapht.DirectedGraph;
@@ -47,7 +65,56 @@ public class Main {
 				required=false)
 		private String statement;
 
-		@Argument(usage="One ore more SQLite files - If a statement and more than one SQLite file are given, the first" +
+		@Option(name="-statements",
+				usage="File with statements (separated by semicolons or line breaks) to validate against a schema " +
+						"(at least one database must be passed)",
+				required=false)
+		private String statementLog;
+
+		@Option(name="-matrix",
+				usage="Compare all pairs of databases instead of consecutive ones and print a drift matrix",
+				required=false)
+		private boolean matrix = false;
+
+		@Option(name="-snapshot",
+				usage="Write the schema of the passed database to a binary schema snapshot file (" +
+						SqlSchemaSnapshotFrontend.FILE_EXTENSION + ") or append it to a snapshot store (" +
+						SqlSchemaSnapshotStore.FILE_EXTENSION + "#version)",
+				required=false)
+		private String snapshot;
+
+		@Option(name="-format",
+				usage="Output format of schema comparisons (TEXT, JSON with one document per comparison or NDJSON " +
+						"with one line per modification) and statement files (TEXT, JSON with one document per schema, " +
+						"NDJSON with one line per statement or CSV with one row per finding)",
+				required=false)
+		private OutputFormat format = OutputFormat.TEXT;
+
+		@Option(name="-server",
+				usage="Start a local HTTP server on the passed port (0 for any free port) that keeps loaded schemas " +
+						"warm and answers /compare and /validate requests",
+				required=false)
+		private Integer serverPort;
+
+		@Option(name="-root",
+				usage="Directory the schema references of server requests are restricted to (defaults to the " +
+						"working directory)",
+				required=false)
+		private String serverRoot = ".";
+
+		@Option(name="-stats",
+				usage="Print the time spent in each phase of the schema comparisons (database access, structure graph " +
+						"construction and comparison, post-processing and report rendering) to the error stream",
+				required=false)
+		private boolean stats = false;
+
+		@Option(name="-workers",
+				usage="Number of worker threads used to load and compare database schemas or to validate the statements " +
+						"of a statement file",
+				required=false)
+		private int workers = Runtime.getRuntime().availableProcessors();
+
+		@Argument(usage="One ore more SQLite files, schema snapshots or schema versions of a snapshot store - If a statement and more than one SQLite file are given, the first" +
 				"SQLite file is treated as the statement's original (working) database schema.",
 			  required=false,
 			  multiValued=true)
@@ -62,17 +129,63 @@ public class Main {
 		try {
 			parser.parseArgument(args);
 
-			if (option.statement == null && option.databases == null)
+			if (option.serverPort != null
+					&& (option.statement != null || option.statementLog != null || option.matrix
+						|| option.snapshot != null || option.databases != null || option.format != OutputFormat.TEXT))
+				throw new CmdLineException(parser, "Server: The server cannot be combined with other options or databases!");
+
+			if (option.stats
+					&& (option.serverPort != null || option.statement != null || option.statementLog != null
+						|| option.matrix || option.snapshot != null))
+				throw new CmdLineException(parser, "Statistics: Phase statistics are only available for schema comparisons!");
+
+			if (option.serverPort == null && !".".equals(option.serverRoot))
+				throw new CmdLineException(parser, "Server: A root directory can only be passed to the server!");
+
+			if (option.serverPort != null && (option.serverPort < 0 || option.serverPort > 65535))
+				throw new CmdLineException(parser, "Server: Invalid port!");
+
+			if (option.statement == null && option.statementLog == null && option.databases == null
+					&& option.serverPort == null)
 				throw new CmdLineException(parser, "No arguments passed!");
 
+			if (option.statement != null && option.statementLog != null)
+				throw new CmdLineException(parser, "Statement Validation: Either a statement or a statement file may be passed!");
+
+			if (option.statementLog != null
+					&& (option.databases == null || option.databases.size() == 0))
+				throw new CmdLineException(parser, "Statement Log Validation: No database passed!");
+
+			if (option.workers < 1)
+				throw new CmdLineException(parser, "Number of workers must be positive!");
+
 			if ((option.statement != null && option.statement != "")
 					&& (option.databases == null || option.databases.size() == 0))
 				throw new CmdLineException(parser, "Statement Validation: No database passed!");
 
-			if ((option.statement == null || option.statement == "")
+			if (option.format != OutputFormat.TEXT
+					&& (option.statement != null || option.matrix || option.snapshot != null))
+				throw new CmdLineException(parser, "Output format: Only schema comparisons and statement files support other formats than TEXT!");
+
+			if (option.format == OutputFormat.CSV && option.statementLog == null)
+				throw new CmdLineException(parser, "Output format: Only statement files can be written as CSV!");
+
+			if (option.snapshot != null
+					&& (option.statement != null || option.statementLog != null || option.matrix))
+				throw new CmdLineException(parser, "Snapshot: A snapshot cannot be combined with statements or a drift matrix!");
+
+			if (option.snapshot != null
+					&& (option.databases == null || option.databases.size() != 1))
+				throw new CmdLineException(parser, "Snapshot: Exactly one database must be passed!");
+
+			if ((option.statement == null || option.statement == "") && option.statementLog == null
+					&& option.snapshot == null && option.serverPort == null
 					&& (option.databases == null || option.databases.size() <= 1))
 				throw new CmdLineException(parser, "Schema Comparison: Not enough databases passed!");
 
+			if (option.matrix && (option.statement != null || option.statementLog != null))
+				throw new CmdLineException(parser, "Schema Comparison: A drift matrix cannot be computed for statements!");
+
 		} catch (CmdLineException e) {
 			System.err.println(e.getMessage());
 			System.err.println();
@@ -84,13 +197,71 @@ public class Main {
             return;
 		}
 
-		if (option.statement == null || option.statement == "") {
-			compareDatabaseSchemas(option.databases);
+		if (option.serverPort != null) {
+			startServer(option.serverPort, option.workers, option.serverRoot);
+		} else if (option.snapshot != null) {
+			writeDatabaseSchemaSnapshot(option.databases.get(0), option.snapshot);
+		} else if (option.statementLog != null) {
+			compareDatabaseStatementLog(option.statementLog, option.databases, option.workers, option.format);
+		} else if (option.matrix) {
+			compareAllDatabaseSchemas(option.databases, option.workers);
+		} else if (option.statement == null || option.statement == "") {
+			SqlSchemaPhaseStatistics statistics = option.stats ? new SqlSchemaPhaseStatistics() : null;
+
+			compareDatabaseSchemas(option.databases, option.workers, option.format, statistics);
+
+			if (statistics != null) {
+				System.err.println();
+				System.err.print(statistics.toString());
+			}
 		} else {
 			compareDatabaseStatement(option.statement, option.databases);
 		}
 	}
 
+	private static void startServer(int port, int workers, String root) {
+		try {
+			final SqlSchemaComparisonServer server = new SqlSchemaComparisonServer(port, workers, root);
+
+			Runtime.getRuntime().addShutdownHook(new Thread() {
+
+				@Override
+				public void run() {
+					server.close();
+				}
+			});
+
+			server.start();
+
+			System.out.println("Listening on http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort() + "/");
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+		} catch (IOException e) {
+			e.printStackTrace(System.err);
+		}
+	}
+
+	private static void writeDatabaseSchemaSnapshot(String databaseFilePath, String snapshotFilePath) {
+		DirectedGraph<IStructureElement, DefaultEdge> schema = SqlSchemaFrontendFactory.createSchemaFrontend(databaseFilePath).createSqlSchema();
+
+		try {
+			if (SqlSchemaSnapshotStoreFrontend.isStoreReference(snapshotFilePath)) {
+				SqlSchemaSnapshotStore store = new SqlSchemaSnapshotStore(
+						SqlSchemaSnapshotStoreFrontend.getStoreFilePath(snapshotFilePath), true);
+
+				try {
+					store.append(SqlSchemaSnapshotStoreFrontend.getVersion(snapshotFilePath), schema);
+				} finally {
+					store.close();
+				}
+			} else {
+				new SqlSchemaSnapshotWriter(schema).write(snapshotFilePath);
+			}
+		} catch (IOException e) {
+			e.printStackTrace(System.err);
+		}
+	}
+
 	private static void compareDatabaseStatement(String statement,
 			List<String> databases) throws UnsupportedEncodingException, ParseException {
 		DirectedGraph<IStructureElement, DefaultEdge> baseSchema = getBaseSchema(databases);
@@ -107,7 +278,7 @@ public class Main {
 		if (databases.size() > 1) {
 			String baseDatabaseFilePath = databases.remove(0);
 
-			ISqlSchemaFrontend baseFrontend = new SqliteSchemaFrontend(baseDatabaseFilePath);
+			ISqlSchemaFrontend baseFrontend = SqlSchemaFrontendFactory.createSchemaFrontend(baseDatabaseFilePath);
 
 			baseSchema = baseFrontend.createSqlSchema();
 		}
@@ -122,7 +293,7 @@ public class Main {
 		if (databases.size() > 0) {
 			String databaseFilePath = databases.remove(0);
 
-			ISqlSchemaFrontend frontend = new SqliteSchemaFrontend(databaseFilePath);
+			ISqlSchemaFrontend frontend = SqlSchemaFrontendFactory.createSchemaFrontend(databaseFilePath);
 
 			DirectedGraph<IStructureElement, DefaultEdge> schema = frontend.createSqlSchema();
 
@@ -136,32 +307,146 @@ public class Main {
 		}
 	}
 
-	private static void compareDatabaseSchemas(List<String> databases) throws StructureGraphComparisonException {
-		if (databases.size() > 1) {
-			String baseDatabaseFilePath = databases.remove(0);
-			String nextDatabaseFilePath = databases.get(0);
+	private static void compareDatabaseStatementLog(String statementLog, List<String> databases, int workers,
+			OutputFormat format) {
+		DirectedGraph<IStructureElement, DefaultEdge> baseSchema = getBaseSchema(databases);
+
+		for (String databaseFilePath : databases) {
+			ISqlSchemaFrontend frontend = SqlSchemaFrontendFactory.createSchemaFrontend(databaseFilePath);
+
+			DirectedGraph<IStructureElement, DefaultEdge> schema = frontend.createSqlSchema();
+
+			SqlStatementBatchValidator validator = new SqlStatementBatchValidator(schema, baseSchema, workers);
 
-			ISqlSchemaFrontend frontend1 = new SqliteSchemaFrontend(baseDatabaseFilePath);
-			ISqlSchemaFrontend frontend2 = new SqliteSchemaFrontend(nextDatabaseFilePath);
+			try {
+				SqlStatementLogReader reader = new SqlStatementLogReader(
+						Files.newBufferedReader(Paths.get(statementLog), StandardCharsets.UTF_8));
 
-			DirectedGraph<IStructureElement, DefaultEdge> schema1 = frontend1.createSqlSchema();
-			DirectedGraph<IStructureElement, DefaultEdge> schema2 = frontend2.createSqlSchema();
+				try {
+					if (format == OutputFormat.TEXT) {
+						System.out.println(String.format("[%s] <=> [%s]", statementLog, databaseFilePath));
+						System.out.println();
+					}
 
-			SqlSchemaComparer comparer = new SqlSchemaComparer(schema1, schema2);
+					validator.validate(reader, new SqlStatementValidationReportWriter(System.out, format));
 
-			System.out.println(String.format("[%s] <=> [%s]", baseDatabaseFilePath, nextDatabaseFilePath));
-			System.out.println();
+					if (format == OutputFormat.TEXT)
+						System.out.println();
+				} finally {
+					reader.close();
+				}
+			} catch (IOException e) {
+				e.printStackTrace(System.err);
+			}
+		}
+	}
+
+	private static void compareDatabaseSchemas(List<String> databases, int workers,
+			OutputFormat format, final ISqlSchemaPhaseListener listener) throws StructureGraphComparisonException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, databases.size()));
+		SqlSchemaComparisonResultWriter writer = new SqlSchemaComparisonResultWriter(System.out, format);
+		SqlSchemaPhaseStopwatch stopwatch = new SqlSchemaPhaseStopwatch(listener);
+
+		try {
+			List<Future<DirectedGraph<IStructureElement, DefaultEdge>>> schemas = loadDatabaseSchemas(databases, executor,
+					new SqlSchemaGraphCache(), listener);
+			List<Future<SqlSchemaComparisonResult>> comparisons = new ArrayList<>();
+
+			for (int i = 1; i < databases.size(); i++) {
+				final Future<DirectedGraph<IStructureElement, DefaultEdge>> schema1 = schemas.get(i - 1);
+				final Future<DirectedGraph<IStructureElement, DefaultEdge>> schema2 = schemas.get(i);
+
+				comparisons.add(executor.submit(new Callable<SqlSchemaComparisonResult>() {
+
+					@Override
+					public SqlSchemaComparisonResult call() throws Exception {
+						return new SqlSchemaComparer(schema1.get(), schema2.get(), listener).comparisonResult;
+					}
+				}));
+			}
+
+			for (int i = 0; i < comparisons.size(); i++) {
+				SqlSchemaComparisonResult result = getComparisonResult(comparisons.get(i));
+
+				stopwatch.start(SqlSchemaPhase.REPORT_RENDERING);
+				writer.write(databases.get(i), databases.get(i + 1), result);
+				writer.flush();
+				stopwatch.stop(result.getModifications().size());
+			}
+		} catch (IOException e) {
+			e.printStackTrace(System.err);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void compareAllDatabaseSchemas(List<String> databases, int workers) throws StructureGraphComparisonException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, databases.size()));
+		List<DirectedGraph<IStructureElement, DefaultEdge>> schemas = new ArrayList<>();
+
+		try {
+			for (Future<DirectedGraph<IStructureElement, DefaultEdge>> schema : loadDatabaseSchemas(databases, executor, new SqlSchemaGraphCache(), null))
+				schemas.add(getSchema(schema));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		SqlSchemaDriftMatrix matrix = new SqlSchemaDriftMatrix(databases, schemas, workers);
+
+		System.out.println(matrix.toString());
+	}
+
+	private static List<Future<DirectedGraph<IStructureElement, DefaultEdge>>> loadDatabaseSchemas(
+			List<String> databases, ExecutorService executor, final SqlSchemaGraphCache cache,
+			final ISqlSchemaPhaseListener listener) {
+		List<Future<DirectedGraph<IStructureElement, DefaultEdge>>> schemas = new ArrayList<>();
+
+		for (final String databaseFilePath : databases) {
+			schemas.add(executor.submit(new Callable<DirectedGraph<IStructureElement, DefaultEdge>>() {
+
+				@Override
+				public DirectedGraph<IStructureElement, DefaultEdge> call() {
+					ISqlSchemaFrontend frontend = SqlSchemaFrontendFactory.createSchemaFrontend(databaseFilePath, cache, listener);
+
+					return frontend.createSqlSchema();
+				}
+			}));
+		}
+
+		return schemas;
+	}
+
+	private static DirectedGraph<IStructureElement, DefaultEdge> getSchema(
+			Future<DirectedGraph<IStructureElement, DefaultEdge>> schema) {
+		try {
+			return schema.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException("Loading of database schemas has been interrupted!", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static SqlSchemaComparisonResult getComparisonResult(Future<SqlSchemaComparisonResult> comparison) throws StructureGraphComparisonException {
+		try {
+			return comparison.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 
-			if (comparer.isIsomorphic())
-				System.out.println(String.format("Schemas [%s] and [%s] are isomorphic!", baseDatabaseFilePath, nextDatabaseFilePath));
-			else
-				System.out.println(comparer.comparisonResult.toString());
+			throw new IllegalStateException("Schema comparison has been interrupted!", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof StructureGraphComparisonException)
+				throw (StructureGraphComparisonException) e.getCause();
 
-			System.out.println();
-			System.out.println(new String(new char[80]).replace('\0', '='));
-			System.out.println();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
 
-			compareDatabaseSchemas(databases);
+			throw new IllegalStateException(e.getCause());
 		}
 	}
 
@@ -26,12 +26,11 @@ import java.util.Map.Entry;
 
 import org.iti.sqlSchemaComparison.edge.IForeignKeyRelationEdge;
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedStructureGraph;
 import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
 import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
 import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnConstraintVertex;
 import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnTypeVertex;
-import org.iti.structureGraph.IStructureGraph;
-import org.iti.structureGraph.StructureGraph;
 import org.iti.structureGraph.comparison.IStructureGraphComparer;
 import org.iti.structureGraph.comparison.StructureGraphComparer;
 import org.iti.structureGraph.comparison.StructureGraphComparisonException;
@@ -45,29 +44,76 @@ import org.jgrapht.graph.DefaultEdge;
 
 public class SqlSchemaComparer {
 
-	private static final IStructureGraphComparer comparer = new StructureGraphComparer();
+	private IndexedStructureGraph graph1;
+	private IndexedStructureGraph graph2;
 
-	private StructureGraph graph1;
-	private StructureGraph graph2;
+	private SqlSchemaFingerprint fingerprint1;
+	private SqlSchemaFingerprint fingerprint2;
 
 	public SqlSchemaComparisonResult comparisonResult = new SqlSchemaComparisonResult();
 
 	public boolean isIsomorphic() {
-		return comparisonResult.getModifications().size() == 0;
+		return fingerprint1.equals(fingerprint2) || comparisonResult.getModifications().size() == 0;
 	}
 
+	public SqlSchemaFingerprint getFingerprint1() {
+		return fingerprint1;
+	}
+
+	public SqlSchemaFingerprint getFingerprint2() {
+		return fingerprint2;
+	}
+
+	/**
+	 * Compares both schemas. The structure graph comparison is skipped if
+	 * the fingerprints of both schemas are equal, as the schemas cannot
+	 * differ in that case.
+	 */
 	public SqlSchemaComparer(DirectedGraph<IStructureElement, DefaultEdge> schema1,
 			DirectedGraph<IStructureElement, DefaultEdge> schema2) throws StructureGraphComparisonException {
-		graph1 = new StructureGraph(schema1);
-		graph2 = new StructureGraph(schema2);
-
-		StructureGraphComparisonResult result = comparer.compare(graph1, graph2);
+		this(schema1, schema2, null);
+	}
 
+	/**
+	 * Compares both schemas and reports the timing of each comparison phase
+	 * to the passed listener, which may be {@code null}.
+	 */
+	public SqlSchemaComparer(DirectedGraph<IStructureElement, DefaultEdge> schema1,
+			DirectedGraph<IStructureElement, DefaultEdge> schema2,
+			ISqlSchemaPhaseListener listener) throws StructureGraphComparisonException {
+		SqlSchemaPhaseStopwatch stopwatch = new SqlSchemaPhaseStopwatch(listener);
+		long vertexCount = schema1.vertexSet().size() + schema2.vertexSet().size();
+
+		stopwatch.start(SqlSchemaPhase.SCHEMA_FINGERPRINT);
+		fingerprint1 = SqlSchemaFingerprint.of(schema1);
+		fingerprint2 = SqlSchemaFingerprint.of(schema2);
+		stopwatch.stop(vertexCount);
+
+		if (fingerprint1.equals(fingerprint2))
+			return;
+
+		stopwatch.start(SqlSchemaPhase.STRUCTURE_GRAPH_CONSTRUCTION);
+		graph1 = new IndexedStructureGraph(schema1);
+		graph2 = new IndexedStructureGraph(schema2);
+		stopwatch.stop(vertexCount);
+
+		stopwatch.start(SqlSchemaPhase.STRUCTURE_GRAPH_COMPARISON);
+		IStructureGraphComparer comparer = new StructureGraphComparer();
+		StructureGraphComparisonResult result = comparer.compare(graph1.getDifferenceView(graph2), graph2.getDifferenceView(graph1));
+		stopwatch.stop(result.getNodeModifications().size() + result.getPathModifications().size());
+
+		stopwatch.start(SqlSchemaPhase.MODIFICATION_MAPPING);
 		setSqlSchemaComparisonResult(result);
+		stopwatch.stop(comparisonResult.getModifications().size());
 
-		checkTypeOfRenamedColumns(result);
+		stopwatch.start(SqlSchemaPhase.RENAMED_COLUMN_TYPE_CHECK);
+		int checkedColumns = checkTypeOfRenamedColumns(result);
+		stopwatch.stop(checkedColumns);
 
+		stopwatch.start(SqlSchemaPhase.FOREIGN_KEY_CHANGE_EXTRACTION);
 		setForeignKeyChanges(result);
+		stopwatch.stop(comparisonResult.getAddedForeignKeyRelations().size()
+				+ comparisonResult.getRemovedForeignKeyRelations().size());
 	}
 
 	private void setForeignKeyChanges(StructureGraphComparisonResult result) {
@@ -108,7 +154,9 @@ public class SqlSchemaComparer {
 		}
 	}
 
-	private void checkTypeOfRenamedColumns(StructureGraphComparisonResult result) {
+	private int checkTypeOfRenamedColumns(StructureGraphComparisonResult result) {
+		int checkedColumns = 0;
+
 		for (Entry<String, IStructureModification> entry : result.getNodeModifications().entrySet()) {
 			ISqlElement current = (ISqlElement) graph2.getStructureElement(entry.getKey());
 
@@ -120,6 +168,8 @@ public class SqlSchemaComparer {
 					ISqlElement original = (ISqlElement) graph1.getStructureElement(originalIdentifier);
 
 					if (original != null) {
+						checkedColumns++;
+
 						ColumnTypeVertex currentColumnType = (ColumnTypeVertex)getColumnType(graph2, current);
 						ColumnTypeVertex originalColumnType = (ColumnTypeVertex)getColumnType(graph1, original);
 
@@ -148,15 +198,13 @@ public class SqlSchemaComparer {
 				}
 			}
 		}
-	}
 
-	private ISqlElement getColumnType(IStructureGraph graph, ISqlElement column) {
-		List<IStructureElement> children = graph.getStructureElements(graph.getPath(column), false);
-
-		for (IStructureElement child : children) {
-			IStructureElement parent = graph.getParent(child);
+		return checkedColumns;
+	}
 
-			if (child instanceof ColumnTypeVertex && parent == column) {
+	private ISqlElement getColumnType(IndexedStructureGraph graph, ISqlElement column) {
+		for (IStructureElement child : graph.getChildren(column)) {
+			if (child instanceof ColumnTypeVertex) {
 				return (ISqlElement) child;
 			}
 		}
@@ -165,13 +213,7 @@ public class SqlSchemaComparer {
 	}
 
 	private SchemaModification getModification(ISqlElement element) {
-		for (Entry<ISqlElement, SchemaModification> entry : comparisonResult.getModifications().entrySet()) {
-			if (entry.getKey().equals(element)) {
-				return entry.getValue();
-			}
-		}
-
-		return null;
+		return comparisonResult.getModifications().get(element);
 	}
 
 	private ISqlElement getCurrentSqlElement(String identifier, Type type) {
@@ -21,6 +21,7 @@
 
 package org.iti.sqlSchemaComparison;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -73,11 +74,29 @@ public class SqlSchemaComparisonResult implements Serializable {
 
 	@Override
 	public String toString() {
-		String output = "";
-		String result = "";
+		StringBuilder output = new StringBuilder();
 
-		output += "Schema Comparison Result\n";
-		output += "------------------------\n";
+		try {
+			writeTo(output);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return output.toString();
+	}
+
+	/**
+	 * Writes the human-readable report to the given output without building
+	 * it in memory first.
+	 */
+	public void writeTo(Appendable output) throws IOException {
+		output.append("Schema Comparison Result\n");
+		output.append("------------------------\n");
+
+		if (modifications.isEmpty() && addedForeignKeyRelations.isEmpty() && removedForeignKeyRelations.isEmpty()) {
+			output.append("Schemas are isomorphic!");
+			return;
+		}
 
 		for (Entry<ISqlElement, SchemaModification> entry : modifications.entrySet()) {
 			switch (entry.getValue()) {
@@ -85,58 +104,44 @@ public class SqlSchemaComparisonResult implements Serializable {
 				case DELETE_TABLE:
 				case RENAME_TABLE:
 				case DELETE_AFTER_RENAME_TABLE:
-					result += "\n";
-					result += "----------------------\n";
-					result += "| TABLE MODIFICATION |\n";
-					result += "----------------------";
+					output.append("\n");
+					output.append("----------------------\n");
+					output.append("| TABLE MODIFICATION |\n");
+					output.append("----------------------");
 					break;
 
 				case CREATE_COLUMN:
 				case DELETE_COLUMN:
 				case RENAME_COLUMN:
 				case MOVE_COLUMN:
-					result += "\n";
-					result += "------------------------\n";
-					result += "| COLUMN MODIFICATIONS |\n";
-					result += "------------------------";
+					output.append("\n");
+					output.append("------------------------\n");
+					output.append("| COLUMN MODIFICATIONS |\n");
+					output.append("------------------------");
 					break;
 
 				default:
 					break;
 			}
 
-			result += String.format("\n%s | %s", entry.getValue().toString(), entry.getKey().getName());
+			output.append("\n").append(entry.getValue().toString()).append(" | ").append(entry.getKey().getName());
 		}
 
-		result += toResultString("CREATED FOREIGN REFERENCES", addedForeignKeyRelations);
-		result += toResultString("REMOVED FOREIGN REFERENCES", removedForeignKeyRelations);
-
-		if (result.length() == 0)
-			output += "Schemas are isomorphic!";
-		else
-			output += result;
-
-		return output;
+		writeTo(output, "CREATED FOREIGN REFERENCES", addedForeignKeyRelations);
+		writeTo(output, "REMOVED FOREIGN REFERENCES", removedForeignKeyRelations);
 	}
 
-	private String toResultString(String title, List<IForeignKeyRelationEdge> elements) {
-		String output = "";
-		String result = "";
+	private void writeTo(Appendable output, String title, List<IForeignKeyRelationEdge> elements) throws IOException {
+		if (elements.isEmpty())
+			return;
 
-		if (!elements.isEmpty()) {
-			for (IForeignKeyRelationEdge r : elements)
-				result += String.format("\n%s -> %s", r.getReferencingColumn(), r.getForeignKeyColumn());
-		}
-
-		if (result.length() > 0) {
-			output += "\n";
-			output += "-----------------------------\n";
-			output += "| " + title + " |\n";
-			output += "-----------------------------";
-			output += result;
-		}
+		output.append("\n");
+		output.append("-----------------------------\n");
+		output.append("| " + title + " |\n");
+		output.append("-----------------------------");
 
-		return output;
+		for (IForeignKeyRelationEdge r : elements)
+			output.append("\n").append(String.valueOf(r.getReferencingColumn())).append(" -> ").append(String.valueOf(r.getForeignKeyColumn()));
 	}
 
 }
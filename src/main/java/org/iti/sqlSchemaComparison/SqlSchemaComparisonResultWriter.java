@@ -0,0 +1,268 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.iti.sqlSchemaComparison.edge.IForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+
+/**
+ * Streams schema comparison results to a writer. Besides the text report,
+ * results can be written as one JSON document per comparison or as NDJSON
+ * with one line per modification and foreign key change followed by a
+ * summary line. Nothing but the current record is held in memory.
+ */
+public class SqlSchemaComparisonResultWriter implements Flushable {
+
+	private static final String SEPARATOR = new String(new char[80]).replace('\0', '=');
+
+	private final Writer writer;
+
+	private final OutputFormat format;
+
+	public SqlSchemaComparisonResultWriter(OutputStream outputStream, OutputFormat format) {
+		this(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)), format);
+	}
+
+	public SqlSchemaComparisonResultWriter(Writer writer, OutputFormat format) {
+		if (writer == null || format == null)
+			throw new IllegalArgumentException("Writer and format must not be null!");
+
+		if (format == OutputFormat.CSV)
+			throw new IllegalArgumentException("Schema comparison results cannot be written as " + format + "!");
+
+		this.writer = writer;
+		this.format = format;
+	}
+
+	public OutputFormat getFormat() {
+		return format;
+	}
+
+	/**
+	 * Writes the result of comparing the schemas with the given names. The
+	 * names may be {@code null} if the schemas are anonymous.
+	 */
+	public void write(String schema1, String schema2, SqlSchemaComparisonResult result) throws IOException {
+		switch (format) {
+		case JSON:
+			writeJson(schema1, schema2, result);
+			break;
+
+		case NDJSON:
+			writeNdjson(schema1, schema2, result);
+			break;
+
+		default:
+			writeText(schema1, schema2, result);
+			break;
+		}
+	}
+
+	public void write(SqlSchemaComparisonResult result) throws IOException {
+		write(null, null, result);
+	}
+
+	private void writeText(String schema1, String schema2, SqlSchemaComparisonResult result) throws IOException {
+		String lineSeparator = System.lineSeparator();
+
+		if (schema1 != null || schema2 != null) {
+			writer.write(String.format("[%s] <=> [%s]%n%n", schema1, schema2));
+
+			if (result.getModifications().isEmpty())
+				writer.write(String.format("Schemas [%s] and [%s] are isomorphic!%n", schema1, schema2));
+			else
+				writeTextResult(result);
+
+			writer.write(lineSeparator);
+			writer.write(SEPARATOR);
+			writer.write(lineSeparator);
+			writer.write(lineSeparator);
+		} else {
+			writeTextResult(result);
+		}
+	}
+
+	private void writeTextResult(SqlSchemaComparisonResult result) throws IOException {
+		result.writeTo(writer);
+		writer.write(System.lineSeparator());
+	}
+
+	private void writeJson(String schema1, String schema2, SqlSchemaComparisonResult result) throws IOException {
+		writer.write('{');
+		writeSchemaNames(schema1, schema2);
+		writeName("isomorphic");
+		writer.write(Boolean.toString(result.getModifications().isEmpty()));
+		writer.write(',');
+		writeName("modifications");
+		writer.write('[');
+
+		boolean first = true;
+
+		for (Entry<ISqlElement, SchemaModification> entry : result.getModifications().entrySet()) {
+			if (!first)
+				writer.write(',');
+
+			writer.write('{');
+			writeModification(entry);
+			writer.write('}');
+
+			first = false;
+		}
+
+		writer.write("],");
+		writeName("addedForeignKeyRelations");
+		writeForeignKeyRelations(result.getAddedForeignKeyRelations());
+		writer.write(',');
+		writeName("removedForeignKeyRelations");
+		writeForeignKeyRelations(result.getRemovedForeignKeyRelations());
+		writer.write('}');
+		writer.write('\n');
+	}
+
+	private void writeForeignKeyRelations(List<IForeignKeyRelationEdge> relations) throws IOException {
+		writer.write('[');
+
+		boolean first = true;
+
+		for (IForeignKeyRelationEdge relation : relations) {
+			if (!first)
+				writer.write(',');
+
+			writer.write('{');
+			writeForeignKeyRelation(relation);
+			writer.write('}');
+
+			first = false;
+		}
+
+		writer.write(']');
+	}
+
+	private void writeNdjson(String schema1, String schema2, SqlSchemaComparisonResult result) throws IOException {
+		for (Entry<ISqlElement, SchemaModification> entry : result.getModifications().entrySet()) {
+			writeNdjsonRecordStart(schema1, schema2, "modification");
+			writeModification(entry);
+			writer.write("}\n");
+		}
+
+		for (IForeignKeyRelationEdge relation : result.getAddedForeignKeyRelations()) {
+			writeNdjsonRecordStart(schema1, schema2, "addedForeignKeyRelation");
+			writeForeignKeyRelation(relation);
+			writer.write("}\n");
+		}
+
+		for (IForeignKeyRelationEdge relation : result.getRemovedForeignKeyRelations()) {
+			writeNdjsonRecordStart(schema1, schema2, "removedForeignKeyRelation");
+			writeForeignKeyRelation(relation);
+			writer.write("}\n");
+		}
+
+		writeNdjsonRecordStart(schema1, schema2, "summary");
+		writeName("isomorphic");
+		writer.write(Boolean.toString(result.getModifications().isEmpty()));
+		writer.write(',');
+		writeName("modifications");
+		writer.write(Integer.toString(result.getModifications().size()));
+		writer.write(',');
+		writeName("addedForeignKeyRelations");
+		writer.write(Integer.toString(result.getAddedForeignKeyRelations().size()));
+		writer.write(',');
+		writeName("removedForeignKeyRelations");
+		writer.write(Integer.toString(result.getRemovedForeignKeyRelations().size()));
+		writer.write("}\n");
+	}
+
+	private void writeNdjsonRecordStart(String schema1, String schema2, String record) throws IOException {
+		writer.write('{');
+		writeSchemaNames(schema1, schema2);
+		writeField("record", record);
+		writer.write(',');
+	}
+
+	private void writeSchemaNames(String schema1, String schema2) throws IOException {
+		if (schema1 != null) {
+			writeField("schema1", schema1);
+			writer.write(',');
+		}
+
+		if (schema2 != null) {
+			writeField("schema2", schema2);
+			writer.write(',');
+		}
+	}
+
+	private void writeModification(Entry<ISqlElement, SchemaModification> entry) throws IOException {
+		ISqlElement element = entry.getKey();
+
+		writeField("modification", entry.getValue().name());
+		writer.write(',');
+
+		if (element instanceof SqlColumnVertex) {
+			writeField("table", ((SqlColumnVertex) element).getTable());
+			writer.write(',');
+		}
+
+		writeField("element", element.getName());
+	}
+
+	private void writeForeignKeyRelation(IForeignKeyRelationEdge relation) throws IOException {
+		writeField("referencingTable", relation.getReferencingColumn().getTable());
+		writer.write(',');
+		writeField("referencingColumn", relation.getReferencingColumn().getName());
+		writer.write(',');
+		writeField("foreignKeyTable", relation.getForeignKeyTable().getName());
+		writer.write(',');
+		writeField("foreignKeyColumn", relation.getForeignKeyColumn().getName());
+	}
+
+	private void writeField(String name, String value) throws IOException {
+		writeName(name);
+		writeString(value);
+	}
+
+	private void writeName(String name) throws IOException {
+		writeString(name);
+		writer.write(':');
+	}
+
+	private void writeString(String value) throws IOException {
+		OutputEncoder.writeJsonString(writer, value);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.iti.sqlSchemaComparison.edge.IForeignKeyRelationEdge;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+
+/**
+ * Compares two schemas by their {@link SqlSchemaTableDigests} first. Only the
+ * tables whose digests differ and the tables they share a foreign key with
+ * are handed to a {@link SqlSchemaComparer}, so the cost of a comparison
+ * depends on the size of the change instead of the size of the schemas.
+ * Elements that do not belong to any table are always compared.
+ */
+public class SqlSchemaDigestComparer {
+
+	private final SqlSchemaTableDigests digests1;
+	private final SqlSchemaTableDigests digests2;
+
+	private final Set<String> changedTables;
+
+	private final Set<String> comparedTables;
+
+	private final SqlSchemaComparisonResult comparisonResult;
+
+	public SqlSchemaDigestComparer(DirectedGraph<IStructureElement, DefaultEdge> schema1,
+			DirectedGraph<IStructureElement, DefaultEdge> schema2) throws StructureGraphComparisonException {
+		digests1 = SqlSchemaTableDigests.of(schema1);
+		digests2 = SqlSchemaTableDigests.of(schema2);
+
+		changedTables = Collections.unmodifiableSet(digests1.getChangedTables(digests2));
+
+		Set<String> tables = new TreeSet<>(changedTables);
+
+		addForeignKeyNeighbours(schema1, digests1, tables);
+		addForeignKeyNeighbours(schema2, digests2, tables);
+
+		comparedTables = Collections.unmodifiableSet(tables);
+
+		if (changedTables.isEmpty()) {
+			comparisonResult = new SqlSchemaComparisonResult();
+		} else {
+			SqlSchemaComparer comparer = new SqlSchemaComparer(getSubgraph(schema1, digests1), getSubgraph(schema2, digests2));
+
+			comparisonResult = comparer.comparisonResult;
+		}
+	}
+
+	private void addForeignKeyNeighbours(DirectedGraph<IStructureElement, DefaultEdge> schema,
+			SqlSchemaTableDigests digests, Set<String> tables) {
+		for (DefaultEdge edge : schema.edgeSet()) {
+			if (!(edge instanceof IForeignKeyRelationEdge))
+				continue;
+
+			String referencingTable = digests.getTable(schema.getEdgeSource(edge));
+			String referencedTable = digests.getTable(schema.getEdgeTarget(edge));
+
+			if (referencingTable == null || referencedTable == null)
+				continue;
+
+			if (changedTables.contains(referencingTable))
+				tables.add(referencedTable);
+			else if (changedTables.contains(referencedTable))
+				tables.add(referencingTable);
+		}
+	}
+
+	private DirectedGraph<IStructureElement, DefaultEdge> getSubgraph(DirectedGraph<IStructureElement, DefaultEdge> schema,
+			SqlSchemaTableDigests digests) {
+		DirectedGraph<IStructureElement, DefaultEdge> subgraph = new SimpleDirectedGraph<IStructureElement, DefaultEdge>(DefaultEdge.class);
+
+		for (IStructureElement vertex : schema.vertexSet()) {
+			String table = digests.getTable(vertex);
+
+			if (table == null || comparedTables.contains(table))
+				subgraph.addVertex(vertex);
+		}
+
+		for (DefaultEdge edge : schema.edgeSet()) {
+			IStructureElement source = schema.getEdgeSource(edge);
+			IStructureElement target = schema.getEdgeTarget(edge);
+
+			if (subgraph.containsVertex(source) && subgraph.containsVertex(target))
+				subgraph.addEdge(source, target, edge);
+		}
+
+		return subgraph;
+	}
+
+	public SqlSchemaTableDigests getDigests1() {
+		return digests1;
+	}
+
+	public SqlSchemaTableDigests getDigests2() {
+		return digests2;
+	}
+
+	public Set<String> getChangedTables() {
+		return changedTables;
+	}
+
+	public Set<String> getComparedTables() {
+		return comparedTables;
+	}
+
+	public SqlSchemaComparisonResult getComparisonResult() {
+		return comparisonResult;
+	}
+
+	public boolean isIsomorphic() {
+		return changedTables.isEmpty() || comparisonResult.getModifications().size() == 0;
+	}
+
+}
@@ -0,0 +1,239 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * The drift between all pairs of a list of schemas. Schemas with equal
+ * {@link SqlSchemaFingerprint}s form a schema class and only one schema of
+ * every class pair is compared. The comparison of two classes is done once,
+ * from the class of the earlier schema to the class of the later one, and
+ * used for both directions.
+ */
+public class SqlSchemaDriftMatrix {
+
+	private List<String> schemaNames;
+
+	private int[] schemaClasses;
+
+	private List<List<Integer>> schemasOfClass = new ArrayList<>();
+
+	private SqlSchemaComparisonResult[][] classComparisonResults;
+
+	public SqlSchemaDriftMatrix(List<String> schemaNames,
+			List<DirectedGraph<IStructureElement, DefaultEdge>> schemas,
+			int workerCount) throws StructureGraphComparisonException {
+		if (schemaNames.size() != schemas.size())
+			throw new IllegalArgumentException("Number of schema names and schemas must be equal!");
+
+		if (workerCount < 1)
+			throw new IllegalArgumentException("Number of schema comparison workers must be positive!");
+
+		this.schemaNames = new ArrayList<>(schemaNames);
+		this.schemaClasses = new int[schemas.size()];
+
+		Map<SqlSchemaFingerprint, Integer> classes = new LinkedHashMap<>();
+		List<DirectedGraph<IStructureElement, DefaultEdge>> classSchemas = new ArrayList<>();
+
+		for (int i = 0; i < schemas.size(); i++) {
+			SqlSchemaFingerprint fingerprint = SqlSchemaFingerprint.of(schemas.get(i));
+			Integer schemaClass = classes.get(fingerprint);
+
+			if (schemaClass == null) {
+				schemaClass = classes.size();
+				classes.put(fingerprint, schemaClass);
+				classSchemas.add(schemas.get(i));
+				schemasOfClass.add(new ArrayList<Integer>());
+			}
+
+			schemaClasses[i] = schemaClass;
+			schemasOfClass.get(schemaClass).add(i);
+		}
+
+		compareClasses(classSchemas, workerCount);
+	}
+
+	private void compareClasses(final List<DirectedGraph<IStructureElement, DefaultEdge>> classSchemas,
+			int workerCount) throws StructureGraphComparisonException {
+		int classCount = classSchemas.size();
+
+		classComparisonResults = new SqlSchemaComparisonResult[classCount][classCount];
+
+		if (classCount < 2)
+			return;
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(workerCount, getComparisonCount()));
+
+		try {
+			List<Future<SqlSchemaComparisonResult>> comparisons = new ArrayList<>();
+
+			for (int i = 0; i < classCount; i++) {
+				for (int j = i + 1; j < classCount; j++) {
+					final DirectedGraph<IStructureElement, DefaultEdge> schema1 = classSchemas.get(i);
+					final DirectedGraph<IStructureElement, DefaultEdge> schema2 = classSchemas.get(j);
+
+					comparisons.add(executor.submit(new Callable<SqlSchemaComparisonResult>() {
+
+						@Override
+						public SqlSchemaComparisonResult call() throws StructureGraphComparisonException {
+							return new SqlSchemaComparer(schema1, schema2).comparisonResult;
+						}
+					}));
+				}
+			}
+
+			int comparison = 0;
+
+			for (int i = 0; i < classCount; i++) {
+				for (int j = i + 1; j < classCount; j++) {
+					classComparisonResults[i][j] = getComparisonResult(comparisons.get(comparison++));
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private SqlSchemaComparisonResult getComparisonResult(Future<SqlSchemaComparisonResult> comparison)
+			throws StructureGraphComparisonException {
+		try {
+			return comparison.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException("Schema comparison has been interrupted!", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof StructureGraphComparisonException)
+				throw (StructureGraphComparisonException) e.getCause();
+
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	public int getSchemaCount() {
+		return schemaClasses.length;
+	}
+
+	public int getSchemaClassCount() {
+		return schemasOfClass.size();
+	}
+
+	public int getComparisonCount() {
+		return getSchemaClassCount() * (getSchemaClassCount() - 1) / 2;
+	}
+
+	public int getSchemaClass(int schema) {
+		return schemaClasses[schema];
+	}
+
+	public List<Integer> getSchemasOfClass(int schemaClass) {
+		return Collections.unmodifiableList(schemasOfClass.get(schemaClass));
+	}
+
+	/**
+	 * Returns the comparison result of the classes of both schemas or
+	 * {@code null} if both schemas belong to the same class. The result is
+	 * independent of the order of the arguments: it always describes the
+	 * modifications from the class which occurs first in the list of schemas
+	 * to the class which occurs later.
+	 */
+	public SqlSchemaComparisonResult getComparisonResult(int schema1, int schema2) {
+		int class1 = schemaClasses[schema1];
+		int class2 = schemaClasses[schema2];
+
+		return classComparisonResults[Math.min(class1, class2)][Math.max(class1, class2)];
+	}
+
+	public int getDrift(int schema1, int schema2) {
+		return getDrift(getComparisonResult(schema1, schema2));
+	}
+
+	private int getDrift(SqlSchemaComparisonResult result) {
+		if (result == null)
+			return 0;
+
+		return result.getModifications().size()
+				+ result.getAddedForeignKeyRelations().size()
+				+ result.getRemovedForeignKeyRelations().size();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder output = new StringBuilder();
+		int classCount = getSchemaClassCount();
+
+		output.append("Schema Drift Matrix\n");
+		output.append("-------------------\n");
+		output.append(String.format("Schemas: %d (classes: %d, comparisons: %d)\n",
+				getSchemaCount(), classCount, getComparisonCount()));
+
+		for (int i = 0; i < classCount; i++) {
+			output.append(String.format("\n[C%d]", i + 1));
+
+			for (int schema : schemasOfClass.get(i))
+				output.append(String.format("\n%s", schemaNames.get(schema)));
+
+			output.append("\n");
+		}
+
+		output.append("\n");
+		output.append(String.format("%6s", ""));
+
+		for (int j = 0; j < classCount; j++)
+			output.append(String.format("%8s", "C" + (j + 1)));
+
+		for (int i = 0; i < classCount; i++) {
+			output.append(String.format("\n%6s", "C" + (i + 1)));
+
+			for (int j = 0; j < classCount; j++)
+				output.append(String.format("%8d", getDrift(classComparisonResults[Math.min(i, j)][Math.max(i, j)])));
+		}
+
+		for (int i = 0; i < classCount; i++) {
+			for (int j = i + 1; j < classCount; j++) {
+				output.append(String.format("\n\n[C%d] <=> [C%d]\n\n", i + 1, j + 1));
+				output.append(classComparisonResults[i][j].toString());
+			}
+		}
+
+		return output.toString();
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * A digest of the structure of a schema graph. The fingerprint is computed
+ * from the sorted descriptions of all vertices and edges, so it does not
+ * depend on the order in which a frontend created the graph. Schemas with
+ * equal fingerprints have the same tables, columns, types, constraints and
+ * foreign keys.
+ * <p>
+ * Fingerprints of an {@link IndexedSqlSchema} are cached until the schema is
+ * modified, so comparing an unchanged indexed schema again costs a single
+ * digest compare.
+ */
+public final class SqlSchemaFingerprint {
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+
+	private static final Map<IndexedSqlSchema, CachedFingerprint> cache = new WeakHashMap<>();
+
+	private final byte[] digest;
+
+	private SqlSchemaFingerprint(byte[] digest) {
+		this.digest = digest;
+	}
+
+	public static SqlSchemaFingerprint of(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		if (!(schema instanceof IndexedSqlSchema))
+			return compute(schema);
+
+		IndexedSqlSchema indexedSchema = (IndexedSqlSchema) schema;
+		int modificationCount = indexedSchema.getModificationCount();
+		CachedFingerprint cached;
+
+		synchronized (cache) {
+			cached = cache.get(indexedSchema);
+		}
+
+		if (cached != null && cached.modificationCount == modificationCount)
+			return cached.fingerprint;
+
+		SqlSchemaFingerprint fingerprint = compute(schema);
+
+		synchronized (cache) {
+			cache.put(indexedSchema, new CachedFingerprint(modificationCount, fingerprint));
+		}
+
+		return fingerprint;
+	}
+
+	private static SqlSchemaFingerprint compute(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		List<String> descriptions = new ArrayList<>(schema.vertexSet().size() + schema.edgeSet().size());
+
+		for (IStructureElement vertex : schema.vertexSet())
+			descriptions.add(describe(vertex));
+
+		for (DefaultEdge edge : schema.edgeSet())
+			descriptions.add(describe(schema, edge));
+
+		return of(descriptions);
+	}
+
+	static SqlSchemaFingerprint of(List<String> descriptions) {
+		Collections.sort(descriptions);
+
+		MessageDigest messageDigest = getMessageDigest();
+
+		for (String description : descriptions) {
+			messageDigest.update(description.getBytes(StandardCharsets.UTF_8));
+			messageDigest.update((byte) '\n');
+		}
+
+		return new SqlSchemaFingerprint(messageDigest.digest());
+	}
+
+	static String describe(DirectedGraph<IStructureElement, DefaultEdge> schema, DefaultEdge edge) {
+		return describe(schema.getEdgeSource(edge)) + " -" + edge.getClass().getSimpleName() + "-> "
+				+ describe(schema.getEdgeTarget(edge));
+	}
+
+	static String describe(IStructureElement vertex) {
+		if (vertex instanceof SqlColumnVertex) {
+			SqlColumnVertex column = (SqlColumnVertex) vertex;
+
+			return "SqlColumnVertex(" + column.getTable() + "." + column.getName()
+					+ (column.isMandatory() ? ", mandatory" : "") + ")";
+		}
+
+		if (vertex instanceof ISqlElement)
+			return vertex.getClass().getSimpleName() + "(" + ((ISqlElement) vertex).getName() + ")";
+
+		return vertex.getClass().getSimpleName() + "(" + vertex + ")";
+	}
+
+	private static MessageDigest getMessageDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof SqlSchemaFingerprint && Arrays.equals(digest, ((SqlSchemaFingerprint) o).digest);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(digest);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(digest.length * 2);
+
+		for (byte b : digest)
+			builder.append(String.format("%02x", b));
+
+		return builder.toString();
+	}
+
+	private static class CachedFingerprint {
+
+		private final int modificationCount;
+
+		private final SqlSchemaFingerprint fingerprint;
+
+		public CachedFingerprint(int modificationCount, SqlSchemaFingerprint fingerprint) {
+			this.modificationCount = modificationCount;
+			this.fingerprint = fingerprint;
+		}
+	}
+
+}
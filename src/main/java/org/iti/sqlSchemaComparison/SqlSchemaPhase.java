@@ -0,0 +1,64 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+/**
+ * The phases of a schema comparison reported to an
+ * {@link ISqlSchemaPhaseListener}, together with the elements they count.
+ */
+public enum SqlSchemaPhase {
+	/** Opening the database connection; counts connections. */
+	CONNECTION_OPEN("Connection open"),
+	/**
+	 * Listing the tables of the database; counts tables. Frontends that list
+	 * the tables together with their columns only report the column load.
+	 */
+	TABLE_LISTING("Table listing"),
+	/** Loading columns, column types and constraints; counts columns. */
+	COLUMN_LOAD("Column load"),
+	/** Loading foreign key relations; counts foreign keys. */
+	FOREIGN_KEY_LOAD("Foreign key load"),
+	/** Fingerprinting both schemas; counts schema vertices. */
+	SCHEMA_FINGERPRINT("Schema fingerprint"),
+	/** Building the structure graphs of both schemas; counts schema vertices. */
+	STRUCTURE_GRAPH_CONSTRUCTION("Structure graph construction"),
+	/** Comparing the structure graphs; counts node and path modifications. */
+	STRUCTURE_GRAPH_COMPARISON("Structure graph comparison"),
+	/** Mapping node modifications to schema modifications; counts modifications. */
+	MODIFICATION_MAPPING("Modification mapping"),
+	/** Checking the column types of renamed and moved columns; counts checked columns. */
+	RENAMED_COLUMN_TYPE_CHECK("Renamed column type check"),
+	/** Extracting added and removed foreign keys; counts foreign key changes. */
+	FOREIGN_KEY_CHANGE_EXTRACTION("Foreign key change extraction"),
+	/** Rendering the comparison report; counts modifications. */
+	REPORT_RENDERING("Report rendering");
+
+	private String description;
+
+	private SqlSchemaPhase(String description) {
+		this.description = description;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+}
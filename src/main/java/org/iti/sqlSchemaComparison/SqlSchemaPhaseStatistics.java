@@ -0,0 +1,145 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sums up the reported phases of one or more schema comparisons. Phases of
+ * concurrent comparisons are summed up as well, so the total may exceed the
+ * wall-clock time of a parallel run.
+ */
+public class SqlSchemaPhaseStatistics implements ISqlSchemaPhaseListener {
+
+	private static final double NANOS_PER_MILLISECOND = 1000000.0;
+
+	private static final String ROW_FORMAT = "%-32s %8s %14s %12s %8s %12s%n";
+
+	public static class PhaseStatistics {
+
+		private long calls = 0;
+
+		private long totalNanos = 0;
+
+		private long maximalNanos = 0;
+
+		private long elementCount = 0;
+
+		public long getCalls() {
+			return calls;
+		}
+
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		public long getMaximalNanos() {
+			return maximalNanos;
+		}
+
+		public long getElementCount() {
+			return elementCount;
+		}
+	}
+
+	private final Map<SqlSchemaPhase, PhaseStatistics> statistics = new EnumMap<>(SqlSchemaPhase.class);
+
+	@Override
+	public void phaseStarted(SqlSchemaPhase phase) { }
+
+	@Override
+	public synchronized void phaseFinished(SqlSchemaPhase phase, long durationNanos, long elementCount) {
+		PhaseStatistics phaseStatistics = statistics.get(phase);
+
+		if (phaseStatistics == null) {
+			phaseStatistics = new PhaseStatistics();
+			statistics.put(phase, phaseStatistics);
+		}
+
+		phaseStatistics.calls++;
+		phaseStatistics.totalNanos += durationNanos;
+		phaseStatistics.maximalNanos = Math.max(phaseStatistics.maximalNanos, durationNanos);
+		phaseStatistics.elementCount += elementCount;
+	}
+
+	/**
+	 * Returns a copy of the statistics of the passed phase or {@code null}
+	 * if the phase has not been reported.
+	 */
+	public synchronized PhaseStatistics getStatistics(SqlSchemaPhase phase) {
+		PhaseStatistics phaseStatistics = statistics.get(phase);
+
+		if (phaseStatistics == null)
+			return null;
+
+		PhaseStatistics copy = new PhaseStatistics();
+
+		copy.calls = phaseStatistics.calls;
+		copy.totalNanos = phaseStatistics.totalNanos;
+		copy.maximalNanos = phaseStatistics.maximalNanos;
+		copy.elementCount = phaseStatistics.elementCount;
+
+		return copy;
+	}
+
+	public synchronized long getTotalNanos() {
+		long totalNanos = 0;
+
+		for (PhaseStatistics phaseStatistics : statistics.values())
+			totalNanos += phaseStatistics.totalNanos;
+
+		return totalNanos;
+	}
+
+	/**
+	 * Returns the breakdown of all reported phases in pipeline order.
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder();
+		long totalNanos = getTotalNanos();
+
+		sb.append(String.format(Locale.ROOT, ROW_FORMAT, "Phase", "Calls", "Total [ms]", "Max [ms]", "Share", "Elements"));
+
+		for (Map.Entry<SqlSchemaPhase, PhaseStatistics> entry : statistics.entrySet()) {
+			PhaseStatistics phaseStatistics = entry.getValue();
+
+			sb.append(String.format(Locale.ROOT, ROW_FORMAT,
+					entry.getKey().getDescription(),
+					phaseStatistics.calls,
+					formatMilliseconds(phaseStatistics.totalNanos),
+					formatMilliseconds(phaseStatistics.maximalNanos),
+					String.format(Locale.ROOT, "%.1f%%", totalNanos == 0 ? 0.0 : 100.0 * phaseStatistics.totalNanos / totalNanos),
+					phaseStatistics.elementCount));
+		}
+
+		sb.append(String.format(Locale.ROOT, ROW_FORMAT, "Total", "", formatMilliseconds(totalNanos), "", "", ""));
+
+		return sb.toString();
+	}
+
+	private static String formatMilliseconds(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLISECOND);
+	}
+}
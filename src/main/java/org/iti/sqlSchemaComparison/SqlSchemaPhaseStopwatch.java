@@ -0,0 +1,70 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+/**
+ * Times consecutive phases for an optional {@link ISqlSchemaPhaseListener}.
+ * Without a listener, starting and stopping a phase does nothing. A
+ * stopwatch times one phase at a time and must not be shared between
+ * threads.
+ */
+public class SqlSchemaPhaseStopwatch {
+
+	private final ISqlSchemaPhaseListener listener;
+
+	private SqlSchemaPhase phase = null;
+
+	private long startTime = 0;
+
+	public SqlSchemaPhaseStopwatch(ISqlSchemaPhaseListener listener) {
+		this.listener = listener;
+	}
+
+	public void start(SqlSchemaPhase phase) {
+		if (listener == null)
+			return;
+
+		this.phase = phase;
+
+		listener.phaseStarted(phase);
+
+		startTime = System.nanoTime();
+	}
+
+	/**
+	 * Stops the current phase and reports it with the passed element count.
+	 */
+	public void stop(long elementCount) {
+		if (listener == null)
+			return;
+
+		if (phase == null)
+			throw new IllegalStateException("No phase has been started!");
+
+		long duration = System.nanoTime() - startTime;
+		SqlSchemaPhase finishedPhase = phase;
+
+		phase = null;
+
+		listener.phaseFinished(finishedPhase, duration, elementCount);
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.iti.sqlSchemaComparison.edge.ITableHasColumnEdge;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Per-table digests of a schema graph. The digest of a table covers the table
+ * name and its columns together with their types, constraints and outgoing
+ * foreign keys. The root digest is computed from the table digests, so two
+ * schemas can be checked for equality first and diffed table by table second.
+ */
+public final class SqlSchemaTableDigests {
+
+	private final Map<String, SqlSchemaFingerprint> tableDigests;
+
+	private final Map<IStructureElement, String> tablesByElement;
+
+	private final SqlSchemaFingerprint rootDigest;
+
+	private SqlSchemaTableDigests(Map<String, SqlSchemaFingerprint> tableDigests,
+			Map<IStructureElement, String> tablesByElement) {
+		this.tableDigests = Collections.unmodifiableMap(tableDigests);
+		this.tablesByElement = tablesByElement;
+
+		List<String> descriptions = new ArrayList<>(tableDigests.size());
+
+		for (Entry<String, SqlSchemaFingerprint> entry : tableDigests.entrySet())
+			descriptions.add(entry.getKey() + "=" + entry.getValue());
+
+		this.rootDigest = SqlSchemaFingerprint.of(descriptions);
+	}
+
+	public static SqlSchemaTableDigests of(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		Map<IStructureElement, String> tablesByElement = getTablesByElement(schema);
+		Map<String, List<String>> descriptionsByTable = new HashMap<>();
+
+		for (IStructureElement vertex : schema.vertexSet()) {
+			String table = tablesByElement.get(vertex);
+
+			if (table != null)
+				getOrCreate(descriptionsByTable, table).add(SqlSchemaFingerprint.describe(vertex));
+		}
+
+		for (DefaultEdge edge : schema.edgeSet()) {
+			String table = tablesByElement.get(schema.getEdgeSource(edge));
+
+			if (table != null)
+				getOrCreate(descriptionsByTable, table).add(SqlSchemaFingerprint.describe(schema, edge));
+		}
+
+		Map<String, SqlSchemaFingerprint> tableDigests = new TreeMap<>();
+
+		for (Entry<String, List<String>> entry : descriptionsByTable.entrySet())
+			tableDigests.put(entry.getKey(), SqlSchemaFingerprint.of(entry.getValue()));
+
+		return new SqlSchemaTableDigests(tableDigests, tablesByElement);
+	}
+
+	private static Map<IStructureElement, String> getTablesByElement(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		Map<IStructureElement, String> tablesByElement = new HashMap<>();
+
+		for (IStructureElement vertex : schema.vertexSet()) {
+			if (vertex instanceof SqlTableVertex)
+				tablesByElement.put(vertex, ((SqlTableVertex) vertex).getName());
+		}
+
+		for (DefaultEdge edge : schema.edgeSet()) {
+			IStructureElement source = schema.getEdgeSource(edge);
+
+			if (edge instanceof ITableHasColumnEdge && source instanceof SqlTableVertex)
+				tablesByElement.put(schema.getEdgeTarget(edge), ((SqlTableVertex) source).getName());
+		}
+
+		for (DefaultEdge edge : schema.edgeSet()) {
+			IStructureElement source = schema.getEdgeSource(edge);
+			IStructureElement target = schema.getEdgeTarget(edge);
+
+			if (source instanceof SqlColumnVertex && !(target instanceof SqlColumnVertex)
+					&& tablesByElement.containsKey(source))
+				tablesByElement.put(target, tablesByElement.get(source));
+		}
+
+		return tablesByElement;
+	}
+
+	private static List<String> getOrCreate(Map<String, List<String>> map, String key) {
+		List<String> descriptions = map.get(key);
+
+		if (descriptions == null) {
+			descriptions = new ArrayList<>();
+			map.put(key, descriptions);
+		}
+
+		return descriptions;
+	}
+
+	public SqlSchemaFingerprint getRootDigest() {
+		return rootDigest;
+	}
+
+	public Map<String, SqlSchemaFingerprint> getTableDigests() {
+		return tableDigests;
+	}
+
+	public SqlSchemaFingerprint getTableDigest(String table) {
+		return tableDigests.get(table);
+	}
+
+	/**
+	 * Returns the name of the table that owns the given table, column, type
+	 * or constraint vertex, or {@code null} if the element does not belong to
+	 * a table.
+	 */
+	public String getTable(IStructureElement element) {
+		return tablesByElement.get(element);
+	}
+
+	/**
+	 * Returns the sorted names of all tables that exist in only one of both
+	 * schemas or whose digests differ.
+	 */
+	public Set<String> getChangedTables(SqlSchemaTableDigests other) {
+		Set<String> changedTables = new TreeSet<>();
+
+		if (rootDigest.equals(other.rootDigest))
+			return changedTables;
+
+		for (Entry<String, SqlSchemaFingerprint> entry : tableDigests.entrySet()) {
+			if (!entry.getValue().equals(other.tableDigests.get(entry.getKey())))
+				changedTables.add(entry.getKey());
+		}
+
+		for (String table : other.tableDigests.keySet()) {
+			if (!tableDigests.containsKey(table))
+				changedTables.add(table);
+		}
+
+		return changedTables;
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class SqlStatementBatchValidationResult {
+
+	public static class StatementResult {
+
+		private String statement;
+
+		public String getStatement() {
+			return statement;
+		}
+
+		private long firstOccurrence;
+
+		public long getFirstOccurrence() {
+			return firstOccurrence;
+		}
+
+		private long occurrences = 1;
+
+		public long getOccurrences() {
+			return occurrences;
+		}
+
+		void addOccurrence() {
+			occurrences++;
+		}
+
+		private SqlStatementExpectationValidationResult result = null;
+
+		public SqlStatementExpectationValidationResult getResult() {
+			return result;
+		}
+
+		void setResult(SqlStatementExpectationValidationResult result) {
+			this.result = result;
+		}
+
+		private String error = null;
+
+		public String getError() {
+			return error;
+		}
+
+		void setError(String error) {
+			this.error = error;
+		}
+
+		public boolean isStatementValid() {
+			return result != null && result.isStatementValid();
+		}
+
+		StatementResult(String statement, long firstOccurrence) {
+			this.statement = statement;
+			this.firstOccurrence = firstOccurrence;
+		}
+	}
+
+	private long statementCount;
+
+	public long getStatementCount() {
+		return statementCount;
+	}
+
+	private int distinctStatementCount;
+
+	public int getDistinctStatementCount() {
+		return distinctStatementCount;
+	}
+
+	private List<StatementResult> invalidStatements = new ArrayList<>();
+
+	public List<StatementResult> getInvalidStatements() {
+		return invalidStatements;
+	}
+
+	private List<StatementResult> failedStatements = new ArrayList<>();
+
+	public List<StatementResult> getFailedStatements() {
+		return failedStatements;
+	}
+
+	public boolean areStatementsValid() {
+		return invalidStatements.isEmpty() && failedStatements.isEmpty();
+	}
+
+	public SqlStatementBatchValidationResult(long statementCount, Collection<StatementResult> statements) {
+		this.statementCount = statementCount;
+		this.distinctStatementCount = statements.size();
+
+		for (StatementResult statement : statements) {
+			if (statement.getError() != null)
+				failedStatements.add(statement);
+			else if (!statement.isStatementValid())
+				invalidStatements.add(statement);
+		}
+
+		Collections.sort(invalidStatements, BY_FIRST_OCCURRENCE);
+		Collections.sort(failedStatements, BY_FIRST_OCCURRENCE);
+	}
+
+	private static final Comparator<StatementResult> BY_FIRST_OCCURRENCE = new Comparator<StatementResult>() {
+
+		@Override
+		public int compare(StatementResult o1, StatementResult o2) {
+			return Long.compare(o1.getFirstOccurrence(), o2.getFirstOccurrence());
+		}
+	};
+
+	@Override
+	public String toString() {
+		StringBuilder output = new StringBuilder();
+
+		output.append("Statement Log Validation Result\n");
+		output.append("-------------------------------\n");
+		output.append(String.format("Statements: %d (distinct: %d, invalid: %d, failed: %d)\n",
+				statementCount, distinctStatementCount, invalidStatements.size(), failedStatements.size()));
+
+		for (StatementResult statement : invalidStatements) {
+			output.append("\n");
+			output.append(String.format("> %s [#%d, %dx]\n\n", statement.getStatement(),
+					statement.getFirstOccurrence(), statement.getOccurrences()));
+			output.append(statement.getResult().toString());
+			output.append("\n");
+		}
+
+		for (StatementResult statement : failedStatements) {
+			output.append("\n");
+			output.append(String.format("> %s [#%d, %dx]\n\n", statement.getStatement(),
+					statement.getFirstOccurrence(), statement.getOccurrences()));
+			output.append(String.format("Statement could not be validated: %s\n", statement.getError()));
+		}
+
+		if (areStatementsValid())
+			output.append("\nAll statements are valid!");
+
+		return output.toString();
+	}
+
+}
@@ -0,0 +1,243 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.gibello.zql.TokenMgrError;
+import org.iti.sqlSchemaComparison.SqlStatementBatchValidationResult.StatementResult;
+import org.iti.sqlSchemaComparison.frontends.ISqlQueryFrontend;
+import org.iti.sqlSchemaComparison.frontends.SqlStatementLogReader;
+import org.iti.sqlSchemaComparison.frontends.SqlStatementSchemaCache;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Validates all statements of a query log against a schema. The log is
+ * streamed, identical statements are validated only once, statements which
+ * only differ in their literals share their parsed schema and the
+ * validations run on a bounded pool of worker threads.
+ * <p>
+ * Results are either collected into a {@link SqlStatementBatchValidationResult}
+ * or passed to an {@link ISqlStatementValidationListener} as soon as each
+ * statement has been validated. The latter only remembers the texts of the
+ * most recently seen distinct statements, so memory neither grows with the
+ * number of findings nor with the number of distinct statements. A
+ * statement that reappears after it has left this window is validated and
+ * reported again.
+ */
+public class SqlStatementBatchValidator {
+
+	public static final int DEFAULT_DISTINCT_STATEMENT_WINDOW = 65536;
+
+	private static final int QUEUED_STATEMENTS_PER_WORKER = 16;
+
+	private final SqlStatementExpectationValidator validator;
+
+	private final SqlStatementSchemaCache statementCache;
+
+	public SqlStatementSchemaCache getStatementCache() {
+		return statementCache;
+	}
+
+	private final int workerCount;
+
+	private final int distinctStatementWindow;
+
+	public SqlStatementBatchValidator(DirectedGraph<IStructureElement, DefaultEdge> schema,
+			DirectedGraph<IStructureElement, DefaultEdge> baseSchema,
+			int workerCount) {
+		this(schema, baseSchema, workerCount, DEFAULT_DISTINCT_STATEMENT_WINDOW);
+	}
+
+	/**
+	 * Creates a validator whose streaming validation remembers at most the
+	 * passed number of distinct statements to skip their repetitions.
+	 */
+	public SqlStatementBatchValidator(DirectedGraph<IStructureElement, DefaultEdge> schema,
+			DirectedGraph<IStructureElement, DefaultEdge> baseSchema,
+			int workerCount, int distinctStatementWindow) {
+		if (schema == null)
+			throw new NullPointerException("Schema must not be null!");
+
+		if (workerCount < 1)
+			throw new IllegalArgumentException("Number of statement validation workers must be positive!");
+
+		if (distinctStatementWindow < 1)
+			throw new IllegalArgumentException("Window of distinct statements must be positive!");
+
+		this.validator = new SqlStatementExpectationValidator(schema);
+		this.statementCache = new SqlStatementSchemaCache(baseSchema);
+		this.workerCount = workerCount;
+		this.distinctStatementWindow = distinctStatementWindow;
+	}
+
+	public SqlStatementBatchValidationResult validate(SqlStatementLogReader reader) throws IOException {
+		Map<String, StatementResult> statements = new HashMap<>();
+		ThreadPoolExecutor executor = createExecutor();
+		long statementCount = 0;
+
+		try {
+			String statement;
+
+			while ((statement = reader.readStatement()) != null) {
+				StatementResult result = statements.get(statement);
+
+				statementCount++;
+
+				if (result != null) {
+					result.addOccurrence();
+					continue;
+				}
+
+				final StatementResult newResult = new StatementResult(statement, statementCount);
+
+				statements.put(statement, newResult);
+
+				executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						validate(newResult);
+					}
+				});
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		awaitTermination(executor);
+
+		return new SqlStatementBatchValidationResult(statementCount, statements.values());
+	}
+
+	public void validate(SqlStatementLogReader reader, final ISqlStatementValidationListener listener) throws IOException {
+		Set<String> statements = createDistinctStatementWindow();
+		ThreadPoolExecutor executor = createExecutor();
+		final AtomicLong invalidStatementCount = new AtomicLong();
+		final AtomicLong failedStatementCount = new AtomicLong();
+		final AtomicReference<IOException> listenerException = new AtomicReference<>();
+		long statementCount = 0;
+		long distinctStatementCount = 0;
+
+		try {
+			String statement;
+
+			while ((statement = reader.readStatement()) != null && listenerException.get() == null) {
+				statementCount++;
+
+				if (!statements.add(statement))
+					continue;
+
+				distinctStatementCount++;
+
+				final StatementResult result = new StatementResult(statement, statementCount);
+
+				executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						validate(result);
+
+						try {
+							if (result.getError() != null) {
+								failedStatementCount.incrementAndGet();
+								listener.statementFailed(result.getStatement(), result.getFirstOccurrence(), result.getError());
+							} else {
+								if (!result.isStatementValid())
+									invalidStatementCount.incrementAndGet();
+
+								listener.statementValidated(result.getStatement(), result.getFirstOccurrence(), result.getResult());
+							}
+						} catch (IOException e) {
+							listenerException.compareAndSet(null, e);
+						}
+					}
+				});
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		awaitTermination(executor);
+
+		if (listenerException.get() != null)
+			throw listenerException.get();
+
+		listener.validationFinished(statementCount, distinctStatementCount, invalidStatementCount.get(), failedStatementCount.get());
+	}
+
+	private Set<String> createDistinctStatementWindow() {
+		return Collections.newSetFromMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = -4983371525637104728L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > distinctStatementWindow;
+			}
+		});
+	}
+
+	private ThreadPoolExecutor createExecutor() {
+		return new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(workerCount * QUEUED_STATEMENTS_PER_WORKER),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	private void awaitTermination(ThreadPoolExecutor executor) throws IOException {
+		try {
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS)) { }
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+
+			throw new IOException("Statement validation has been interrupted!", e);
+		}
+	}
+
+	private void validate(StatementResult result) {
+		try {
+			ISqlQueryFrontend frontend = statementCache.getFrontend(result.getStatement());
+			DirectedGraph<IStructureElement, DefaultEdge> statementSchema = frontend.createSqlSchema();
+
+			if (statementSchema == null)
+				result.setError("Statement type is not supported!");
+			else
+				result.setResult(validator.computeGraphMatching(statementSchema, frontend.getQueryType()));
+		} catch (Exception | TokenMgrError e) {
+			result.setError(String.valueOf(e.getMessage()).trim());
+		}
+	}
+
+}
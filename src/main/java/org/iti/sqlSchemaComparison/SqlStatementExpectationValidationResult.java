@@ -21,10 +21,12 @@
 
 package org.iti.sqlSchemaComparison;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
 
@@ -68,53 +70,60 @@ public class SqlStatementExpectationValidationResult {
 	
 	@Override
 	public String toString() {
-		String output = "";
-		String result = "";
-		
-		output += "Statement Comparison Result\n";
-		output += "---------------------------\n";
-		
-		result += toResultString("MISSING TABLES", missingTables);
-		result += toResultString("MISSING COLUMNS", missingColumns);
-		result += toResultString("MISSING BUT REACHABLE COLUMNS", missingButReachableColumns);
-		
-		if (result.length() == 0)
-			output += "Statement is valid!";
-		else
-			output += result;
-		
-		return output;
-	}
+		StringBuilder output = new StringBuilder();
 
-	private String toResultString(String title, List<ISqlElement> elements) {
-		String result = "";
-		
-		if (!elements.isEmpty()) {
-			result += "\n";
-			result += "------------------\n";
-			result += "| " + title + " |\n";
-			result += "------------------\n";
-			for (ISqlElement t : elements)
-				result += String.format("%s\n", t);
+		try {
+			writeTo(output);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
 		}
-		
-		return result;
+
+		return output.toString();
 	}
-	
-	private String toResultString(String title, Map<ISqlElement, List<List<ISqlElement>>> elements) {
-		String result = "";
-		
-		if (!elements.isEmpty()) {
-			result += "\n";
-			result += "---------------------------------\n";
-			result += "| " + title + " |\n";
-			result += "---------------------------------\n";
-			for (ISqlElement c : elements.keySet())
-				for (List<ISqlElement> p : elements.get(c))
-					result += String.format("%s: %s\n", c, p);
+
+	/**
+	 * Writes the human-readable report to the given output without building
+	 * it in memory first.
+	 */
+	public void writeTo(Appendable output) throws IOException {
+		output.append("Statement Comparison Result\n");
+		output.append("---------------------------\n");
+
+		if (isStatementValid()) {
+			output.append("Statement is valid!");
+			return;
 		}
-		
-		return result;
+
+		writeTo(output, "MISSING TABLES", missingTables);
+		writeTo(output, "MISSING COLUMNS", missingColumns);
+		writeTo(output, "MISSING BUT REACHABLE COLUMNS", missingButReachableColumns);
 	}
-	
+
+	private void writeTo(Appendable output, String title, List<ISqlElement> elements) throws IOException {
+		if (elements.isEmpty())
+			return;
+
+		output.append("\n");
+		output.append("------------------\n");
+		output.append("| " + title + " |\n");
+		output.append("------------------\n");
+
+		for (ISqlElement t : elements)
+			output.append(String.valueOf(t)).append("\n");
+	}
+
+	private void writeTo(Appendable output, String title, Map<ISqlElement, List<List<ISqlElement>>> elements) throws IOException {
+		if (elements.isEmpty())
+			return;
+
+		output.append("\n");
+		output.append("---------------------------------\n");
+		output.append("| " + title + " |\n");
+		output.append("---------------------------------\n");
+
+		for (Entry<ISqlElement, List<List<ISqlElement>>> c : elements.entrySet())
+			for (List<ISqlElement> p : c.getValue())
+				output.append(String.valueOf(c.getKey())).append(": ").append(String.valueOf(p)).append("\n");
+	}
+
 }
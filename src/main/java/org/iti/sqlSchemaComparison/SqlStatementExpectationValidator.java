@@ -31,12 +31,14 @@ import java.util.Set;
 import org.iti.sqlSchemaComparison.frontends.ISqlQueryFrontend.QueryType;
 import org.iti.sqlSchemaComparison.reachability.ISqlElementReachabilityChecker;
 import org.iti.sqlSchemaComparison.reachability.SqlColumnReachableChecker;
+import org.iti.sqlSchemaComparison.reachability.SqlForeignKeyReachabilityIndex;
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedStatementStructureGraphComparer;
+import org.iti.sqlSchemaComparison.vertex.IndexedStructureGraph;
 import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
 import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.sqlSchemaComparison.vertex.SqlSchemaIndex;
 import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
-import org.iti.structureGraph.StructureGraph;
-import org.iti.structureGraph.comparison.StatementStructureGraphComparer;
 import org.iti.structureGraph.comparison.StructureGraphComparisonException;
 import org.iti.structureGraph.comparison.result.StructureGraphComparisonResult;
 import org.iti.structureGraph.comparison.result.Type;
@@ -44,12 +46,24 @@ import org.iti.structureGraph.nodes.IStructureElement;
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 
+/**
+ * Validates statements against a schema. The structure graph, the lookup
+ * index and the reachability index of the schema are built once on
+ * construction, so a validator may be shared between threads as long as the
+ * schema is not modified afterwards.
+ */
 public class SqlStatementExpectationValidator {
 
-	private DirectedGraph<IStructureElement, DefaultEdge> schema;
+	private final IndexedStructureGraph schemaGraph;
+
+	private final SqlSchemaIndex schemaIndex;
+
+	private final SqlForeignKeyReachabilityIndex reachabilityIndex;
 
 	public SqlStatementExpectationValidator(DirectedGraph<IStructureElement, DefaultEdge> schema) {
-		this.schema = schema;
+		this.schemaGraph = new IndexedStructureGraph(schema);
+		this.schemaIndex = new SqlSchemaIndex(schema);
+		this.reachabilityIndex = new SqlForeignKeyReachabilityIndex(schema);
 	}
 
 	public SqlStatementExpectationValidationResult computeGraphMatching(DirectedGraph<IStructureElement, DefaultEdge> statement) {
@@ -58,9 +72,8 @@ public class SqlStatementExpectationValidator {
 
 	public SqlStatementExpectationValidationResult computeGraphMatching(
 			DirectedGraph<IStructureElement, DefaultEdge> statement, QueryType queryType) {
-		StructureGraph schemaGraph = new StructureGraph(schema);
-		StructureGraph expectedSchemaGraph = new StructureGraph(statement);
-		StatementStructureGraphComparer comparer = new StatementStructureGraphComparer();
+		IndexedStructureGraph expectedSchemaGraph = new IndexedStructureGraph(statement);
+		IndexedStatementStructureGraphComparer comparer = new IndexedStatementStructureGraphComparer();
 
         StructureGraphComparisonResult result = null;
 		try {
@@ -101,14 +114,14 @@ public class SqlStatementExpectationValidator {
 		Set<ISqlElement> expectedTables = SqlElementFactory.getSqlElementsOfType(SqlTableVertex.class, expectedSchema.vertexSet());
 
 		for (ISqlElement column : missingColumns) {
-			List<ISqlElement> matchingColumns = SqlElementFactory.getMatchingSqlColumns(column.getName(), schema.vertexSet(), false);
+			Set<ISqlElement> matchingColumns = schemaIndex.getColumnsByName(column.getName());
 
 			for (ISqlElement matchingColumn : matchingColumns) {
 				for (ISqlElement table : expectedTables) {
-					ISqlElement schemaTable = SqlElementFactory.getMatchingSqlElement(table, schema.vertexSet());
+					ISqlElement schemaTable = schemaIndex.getTable(table.getName());
 
 					if (schemaTable != null) {
-						ISqlElementReachabilityChecker checker = new SqlColumnReachableChecker(schema, schemaTable, matchingColumn);
+						ISqlElementReachabilityChecker checker = new SqlColumnReachableChecker(reachabilityIndex, schemaTable, matchingColumn);
 
 						if (checker.isReachable()) {
 							if (!reachableColumns.containsKey(column))
@@ -0,0 +1,318 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+
+/**
+ * Writes the findings of a streaming statement log validation as text, as a
+ * single JSON document holding the statements and the summary, as NDJSON with
+ * one object per line or as CSV with one row per missing table, missing
+ * column, reachable column path and failed statement. Only invalid and failed
+ * statements are written; every record is flushed as soon as its statement
+ * has been validated, also inside the JSON document.
+ */
+public class SqlStatementValidationReportWriter implements ISqlStatementValidationListener, Flushable {
+
+	private static final String CSV_HEADER = "statement_number,statement,finding,element,detail\n";
+
+	private final Writer writer;
+
+	private final OutputFormat format;
+
+	private boolean headerWritten = false;
+
+	private boolean recordWritten = false;
+
+	public SqlStatementValidationReportWriter(OutputStream outputStream, OutputFormat format) {
+		this(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)), format);
+	}
+
+	public SqlStatementValidationReportWriter(Writer writer, OutputFormat format) {
+		if (writer == null || format == null)
+			throw new IllegalArgumentException("Writer and format must not be null!");
+
+		this.writer = writer;
+		this.format = format;
+	}
+
+	public OutputFormat getFormat() {
+		return format;
+	}
+
+	@Override
+	public synchronized void statementValidated(String statement, long statementNumber,
+			SqlStatementExpectationValidationResult result) throws IOException {
+		if (result.isStatementValid())
+			return;
+
+		writeHeader();
+
+		switch (format) {
+		case JSON:
+		case NDJSON:
+			writeJsonStart("statement", statement, statementNumber);
+			writer.write(',');
+			writeJsonName("missingTables");
+			writeJsonElements(result.getMissingTables());
+			writer.write(',');
+			writeJsonName("missingColumns");
+			writeJsonElements(result.getMissingColumns());
+			writer.write(',');
+			writeJsonName("missingButReachableColumns");
+			writeJsonReachableColumns(result);
+			writeJsonEnd();
+			break;
+
+		case CSV:
+			for (ISqlElement table : result.getMissingTables())
+				writeCsvRow(statementNumber, statement, "MISSING_TABLE", getName(table), null);
+
+			for (ISqlElement column : result.getMissingColumns())
+				writeCsvRow(statementNumber, statement, "MISSING_COLUMN", getName(column), null);
+
+			for (Entry<ISqlElement, List<List<ISqlElement>>> entry : result.getMissingButReachableColumns().entrySet())
+				for (List<ISqlElement> path : entry.getValue())
+					writeCsvRow(statementNumber, statement, "MISSING_BUT_REACHABLE_COLUMN", getName(entry.getKey()), getPath(path));
+			break;
+
+		default:
+			writer.write(String.format("\n> %s [#%d]\n\n", statement, statementNumber));
+			result.writeTo(writer);
+			writer.write("\n");
+			break;
+		}
+
+		writer.flush();
+	}
+
+	@Override
+	public synchronized void statementFailed(String statement, long statementNumber, String error) throws IOException {
+		writeHeader();
+
+		switch (format) {
+		case JSON:
+		case NDJSON:
+			writeJsonStart("error", statement, statementNumber);
+			writer.write(',');
+			writeJsonName("error");
+			OutputEncoder.writeJsonString(writer, error);
+			writeJsonEnd();
+			break;
+
+		case CSV:
+			writeCsvRow(statementNumber, statement, "ERROR", null, error);
+			break;
+
+		default:
+			writer.write(String.format("\n> %s [#%d]\n\n", statement, statementNumber));
+			writer.write(String.format("Statement could not be validated: %s\n", error));
+			break;
+		}
+
+		writer.flush();
+	}
+
+	@Override
+	public synchronized void validationFinished(long statementCount, long distinctStatementCount,
+			long invalidStatementCount, long failedStatementCount) throws IOException {
+		writeHeader();
+
+		switch (format) {
+		case JSON:
+			writer.write("],");
+			writeJsonName("summary");
+			writer.write('{');
+			writeJsonSummary(statementCount, distinctStatementCount, invalidStatementCount, failedStatementCount);
+			writer.write("}}\n");
+			break;
+
+		case NDJSON:
+			writer.write('{');
+			writeJsonName("record");
+			OutputEncoder.writeJsonString(writer, "summary");
+			writer.write(',');
+			writeJsonSummary(statementCount, distinctStatementCount, invalidStatementCount, failedStatementCount);
+			writer.write("}\n");
+			break;
+
+		case CSV:
+			break;
+
+		default:
+			writer.write(String.format("\nStatements: %d (validated: %d, invalid: %d, failed: %d)\n",
+					statementCount, distinctStatementCount, invalidStatementCount, failedStatementCount));
+
+			if (invalidStatementCount == 0 && failedStatementCount == 0)
+				writer.write("\nAll statements are valid!\n");
+			break;
+		}
+
+		writer.flush();
+	}
+
+	private void writeHeader() throws IOException {
+		if (headerWritten)
+			return;
+
+		if (format == OutputFormat.CSV) {
+			writer.write(CSV_HEADER);
+		} else if (format == OutputFormat.JSON) {
+			writer.write('{');
+			writeJsonName("statements");
+			writer.write('[');
+		} else if (format == OutputFormat.TEXT) {
+			writer.write("Statement Log Validation Result\n");
+			writer.write("-------------------------------\n");
+		}
+
+		headerWritten = true;
+	}
+
+	private void writeJsonStart(String record, String statement, long statementNumber) throws IOException {
+		if (format == OutputFormat.JSON && recordWritten)
+			writer.write(',');
+
+		writer.write('{');
+		writeJsonName("record");
+		OutputEncoder.writeJsonString(writer, record);
+		writer.write(',');
+		writeJsonName("statementNumber");
+		writer.write(Long.toString(statementNumber));
+		writer.write(',');
+		writeJsonName("statement");
+		OutputEncoder.writeJsonString(writer, statement);
+	}
+
+	private void writeJsonEnd() throws IOException {
+		writer.write('}');
+
+		if (format == OutputFormat.NDJSON)
+			writer.write('\n');
+
+		recordWritten = true;
+	}
+
+	private void writeJsonSummary(long statementCount, long validatedStatementCount,
+			long invalidStatementCount, long failedStatementCount) throws IOException {
+		writer.write(String.format("\"statements\":%d,\"validatedStatements\":%d,\"invalidStatements\":%d,\"failedStatements\":%d",
+				statementCount, validatedStatementCount, invalidStatementCount, failedStatementCount));
+	}
+
+	private void writeJsonName(String name) throws IOException {
+		OutputEncoder.writeJsonString(writer, name);
+		writer.write(':');
+	}
+
+	private void writeJsonElements(List<ISqlElement> elements) throws IOException {
+		writer.write('[');
+
+		for (int i = 0; i < elements.size(); i++) {
+			if (i > 0)
+				writer.write(',');
+
+			OutputEncoder.writeJsonString(writer, getName(elements.get(i)));
+		}
+
+		writer.write(']');
+	}
+
+	private void writeJsonReachableColumns(SqlStatementExpectationValidationResult result) throws IOException {
+		boolean first = true;
+
+		writer.write('[');
+
+		for (Entry<ISqlElement, List<List<ISqlElement>>> entry : result.getMissingButReachableColumns().entrySet()) {
+			for (List<ISqlElement> path : entry.getValue()) {
+				if (!first)
+					writer.write(',');
+
+				writer.write('{');
+				writeJsonName("column");
+				OutputEncoder.writeJsonString(writer, getName(entry.getKey()));
+				writer.write(',');
+				writeJsonName("path");
+				writeJsonElements(path);
+				writer.write('}');
+
+				first = false;
+			}
+		}
+
+		writer.write(']');
+	}
+
+	private void writeCsvRow(long statementNumber, String statement, String finding, String element, String detail) throws IOException {
+		writer.write(Long.toString(statementNumber));
+		writer.write(',');
+		OutputEncoder.writeCsvField(writer, statement);
+		writer.write(',');
+		writer.write(finding);
+		writer.write(',');
+		OutputEncoder.writeCsvField(writer, element);
+		writer.write(',');
+		OutputEncoder.writeCsvField(writer, detail);
+		writer.write('\n');
+	}
+
+	private String getPath(List<ISqlElement> path) {
+		StringBuilder builder = new StringBuilder();
+
+		for (ISqlElement element : path) {
+			if (builder.length() > 0)
+				builder.append(" -> ");
+
+			builder.append(getName(element));
+		}
+
+		return builder.toString();
+	}
+
+	private String getName(ISqlElement element) {
+		if (element instanceof SqlColumnVertex) {
+			String table = ((SqlColumnVertex) element).getTable();
+
+			if (table != null && !table.isEmpty())
+				return table + "." + element.getName();
+		}
+
+		return element.getName();
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		writer.flush();
+	}
+
+}
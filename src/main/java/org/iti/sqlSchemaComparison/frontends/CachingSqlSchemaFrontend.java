@@ -0,0 +1,63 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends;
+
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Decorates a file based schema frontend with a {@link SqlSchemaGraphCache}.
+ * The returned schemas are shared and frozen; clone them before modifying.
+ */
+public class CachingSqlSchemaFrontend implements ISqlSchemaFrontend {
+
+	private final ISqlSchemaFrontend frontend;
+
+	private final String filePath;
+
+	private final String qualifier;
+
+	private final SqlSchemaGraphCache cache;
+
+	public CachingSqlSchemaFrontend(ISqlSchemaFrontend frontend, String filePath, SqlSchemaGraphCache cache) {
+		this(frontend, filePath, "", cache);
+	}
+
+	public CachingSqlSchemaFrontend(ISqlSchemaFrontend frontend, String filePath, String qualifier,
+			SqlSchemaGraphCache cache) {
+		if (frontend == null || cache == null)
+			throw new NullPointerException();
+
+		this.frontend = frontend;
+		this.filePath = filePath;
+		this.qualifier = qualifier == null ? "" : qualifier;
+		this.cache = cache;
+	}
+
+	@Override
+	public DirectedGraph<IStructureElement, DefaultEdge> createSqlSchema() {
+		return cache.getSqlSchema(filePath, qualifier, frontend);
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends;
+
+import org.iti.sqlSchemaComparison.ISqlSchemaPhaseListener;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotFrontend;
+import org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotStoreFrontend;
+
+/**
+ * Selects the schema frontend for a schema reference: a version of a
+ * snapshot store ({@code archive.sqlstore#version}), a snapshot file or,
+ * otherwise, a SQLite database file.
+ */
+public class SqlSchemaFrontendFactory {
+
+	private SqlSchemaFrontendFactory() { }
+
+	public static ISqlSchemaFrontend createSchemaFrontend(String reference) {
+		return createSchemaFrontend(reference, (ISqlSchemaPhaseListener) null);
+	}
+
+	/**
+	 * Creates the schema frontend for a schema reference. Database frontends
+	 * report their loading phases to the passed listener, which may be
+	 * {@code null}; snapshots are read without reporting any phases.
+	 */
+	public static ISqlSchemaFrontend createSchemaFrontend(String reference, ISqlSchemaPhaseListener listener) {
+		if (SqlSchemaSnapshotStoreFrontend.isStoreReference(reference))
+			return new SqlSchemaSnapshotStoreFrontend(reference);
+
+		if (SqlSchemaSnapshotFrontend.isSnapshotFile(reference))
+			return new SqlSchemaSnapshotFrontend(reference);
+
+		return new SqliteSchemaFrontend(reference, true, listener);
+	}
+
+	/**
+	 * Creates the schema frontend for a schema reference whose schemas are
+	 * taken from the passed cache as long as the referenced file does not
+	 * change.
+	 */
+	public static ISqlSchemaFrontend createSchemaFrontend(String reference, SqlSchemaGraphCache cache) {
+		return createSchemaFrontend(reference, cache, null);
+	}
+
+	/**
+	 * Creates the caching schema frontend for a schema reference. Only cache
+	 * misses report their loading phases to the passed listener.
+	 */
+	public static ISqlSchemaFrontend createSchemaFrontend(String reference, SqlSchemaGraphCache cache,
+			ISqlSchemaPhaseListener listener) {
+		ISqlSchemaFrontend frontend = createSchemaFrontend(reference, listener);
+
+		if (SqlSchemaSnapshotStoreFrontend.isStoreReference(reference))
+			return new CachingSqlSchemaFrontend(frontend, SqlSchemaSnapshotStoreFrontend.getStoreFilePath(reference),
+					SqlSchemaSnapshotStoreFrontend.VERSION_SEPARATOR + SqlSchemaSnapshotStoreFrontend.getVersion(reference), cache);
+
+		return new CachingSqlSchemaFrontend(frontend, reference, cache);
+	}
+
+}
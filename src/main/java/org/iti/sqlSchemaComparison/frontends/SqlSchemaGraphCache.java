@@ -0,0 +1,342 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Caches schema graphs by the identity of the file they were read from: its
+ * canonical path, size, modification time and, for SQLite databases, the
+ * {@code schema_version} pragma. The latter also catches schema changes
+ * that are still in the write-ahead log or that happened within the
+ * timestamp resolution of the file system.
+ * <p>
+ * Cached graphs are frozen {@link IndexedSqlSchema}s shared by all callers.
+ * The least recently used graphs are evicted once the cache holds more than
+ * the maximum number of graphs or exceeds the maximum estimated memory.
+ */
+public class SqlSchemaGraphCache {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+	public static final long DEFAULT_MAXIMUM_MEMORY = 256L * 1024 * 1024;
+
+	private static final long ESTIMATED_VERTEX_MEMORY = 320;
+
+	private static final long ESTIMATED_EDGE_MEMORY = 160;
+
+	private static final byte[] SQLITE_HEADER = "SQLite format 3\0".getBytes(StandardCharsets.US_ASCII);
+
+	private static final String QUERY_SCHEMA_VERSION = "PRAGMA schema_version;";
+
+	private static final String H2_FILE_EXTENSION = ".mv.db";
+
+	private static class FileIdentity {
+
+		private final long size;
+
+		private final long lastModified;
+
+		private final long schemaVersion;
+
+		public FileIdentity(long size, long lastModified, long schemaVersion) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.schemaVersion = schemaVersion;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof FileIdentity))
+				return false;
+
+			FileIdentity other = (FileIdentity) o;
+
+			return size == other.size && lastModified == other.lastModified && schemaVersion == other.schemaVersion;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(new long[] { size, lastModified, schemaVersion });
+		}
+	}
+
+	private static class CachedSchema {
+
+		private final FileIdentity identity;
+
+		private final IndexedSqlSchema schema;
+
+		private final long estimatedMemory;
+
+		public CachedSchema(FileIdentity identity, IndexedSqlSchema schema) {
+			this.identity = identity;
+			this.schema = schema;
+			this.estimatedMemory = estimateMemory(schema);
+		}
+	}
+
+	private final int maximumSize;
+
+	private final long maximumMemory;
+
+	private final Map<String, CachedSchema> schemas = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+
+	private long estimatedMemory = 0;
+
+	private long hitCount = 0;
+
+	private long missCount = 0;
+
+	public SqlSchemaGraphCache() {
+		this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_MEMORY);
+	}
+
+	public SqlSchemaGraphCache(int maximumSize, long maximumMemory) {
+		if (maximumSize < 1)
+			throw new IllegalArgumentException("Maximum cache size must be positive!");
+
+		if (maximumMemory < 1)
+			throw new IllegalArgumentException("Maximum cache memory must be positive!");
+
+		this.maximumSize = maximumSize;
+		this.maximumMemory = maximumMemory;
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	public long getMaximumMemory() {
+		return maximumMemory;
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized int size() {
+		return schemas.size();
+	}
+
+	public synchronized long getEstimatedMemory() {
+		return estimatedMemory;
+	}
+
+	public synchronized void clear() {
+		schemas.clear();
+		locks.clear();
+		estimatedMemory = 0;
+	}
+
+	/**
+	 * Returns the cached schema of the passed file or creates it with the
+	 * passed frontend if the file changed since it was cached. The qualifier
+	 * distinguishes several schemas read from the same file, e.g. the
+	 * versions of a snapshot store. If the file does not exist the frontend
+	 * is called directly, so that it can report the error in its own way.
+	 */
+	public DirectedGraph<IStructureElement, DefaultEdge> getSqlSchema(String filePath, String qualifier,
+			ISqlSchemaFrontend frontend) {
+		File file = getFile(filePath);
+
+		if (file == null)
+			return frontend.createSqlSchema();
+
+		String key;
+
+		try {
+			key = file.getCanonicalPath() + qualifier;
+		} catch (IOException e) {
+			return frontend.createSqlSchema();
+		}
+
+		Object lock = locks.get(key);
+
+		if (lock == null) {
+			Object newLock = new Object();
+
+			lock = locks.putIfAbsent(key, newLock);
+
+			if (lock == null)
+				lock = newLock;
+		}
+
+		synchronized (lock) {
+			FileIdentity identity = getFileIdentity(file);
+			CachedSchema cachedSchema = get(key);
+
+			if (cachedSchema != null && cachedSchema.identity.equals(identity)) {
+				synchronized (this) {
+					hitCount++;
+				}
+
+				return cachedSchema.schema;
+			}
+
+			synchronized (this) {
+				missCount++;
+			}
+
+			DirectedGraph<IStructureElement, DefaultEdge> schema = frontend.createSqlSchema();
+
+			if (schema == null)
+				return null;
+
+			IndexedSqlSchema indexedSchema = schema instanceof IndexedSqlSchema
+					? (IndexedSqlSchema) schema
+					: new IndexedSqlSchema(schema);
+
+			indexedSchema.freeze();
+
+			// the file may have changed while it was read
+			if (identity.equals(getFileIdentity(file)))
+				put(key, new CachedSchema(identity, indexedSchema));
+
+			return indexedSchema;
+		}
+	}
+
+	public static long estimateMemory(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		return schema.vertexSet().size() * ESTIMATED_VERTEX_MEMORY + schema.edgeSet().size() * ESTIMATED_EDGE_MEMORY;
+	}
+
+	private synchronized CachedSchema get(String key) {
+		return schemas.get(key);
+	}
+
+	private synchronized void put(String key, CachedSchema cachedSchema) {
+		CachedSchema previous = schemas.put(key, cachedSchema);
+
+		if (previous != null)
+			estimatedMemory -= previous.estimatedMemory;
+
+		estimatedMemory += cachedSchema.estimatedMemory;
+
+		Iterator<Map.Entry<String, CachedSchema>> eldest = schemas.entrySet().iterator();
+
+		// the schema just added is never evicted, even if it exceeds the memory limit on its own
+		while (schemas.size() > 1 && (schemas.size() > maximumSize || estimatedMemory > maximumMemory)) {
+			Map.Entry<String, CachedSchema> entry = eldest.next();
+
+			estimatedMemory -= entry.getValue().estimatedMemory;
+			eldest.remove();
+		}
+	}
+
+	private static File getFile(String filePath) {
+		if (filePath == null || filePath.isEmpty())
+			return null;
+
+		File file = new File(filePath);
+
+		if (file.isFile())
+			return file;
+
+		// H2 database paths are passed without their file extension
+		file = new File(filePath + H2_FILE_EXTENSION);
+
+		if (file.isFile())
+			return file;
+
+		return null;
+	}
+
+	private static FileIdentity getFileIdentity(File file) {
+		return new FileIdentity(file.length(), file.lastModified(), getSqliteSchemaVersion(file));
+	}
+
+	private static long getSqliteSchemaVersion(File file) {
+		if (!isSqliteFile(file))
+			return -1;
+
+		try {
+			Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getPath());
+
+			try {
+				Statement stm = connection.createStatement();
+
+				try {
+					ResultSet result = stm.executeQuery(QUERY_SCHEMA_VERSION);
+
+					return result.next() ? result.getLong(1) : -1;
+				} finally {
+					stm.close();
+				}
+			} finally {
+				connection.close();
+			}
+		} catch (SQLException e) {
+			return -1;
+		}
+	}
+
+	private static boolean isSqliteFile(File file) {
+		byte[] header = new byte[SQLITE_HEADER.length];
+
+		try {
+			InputStream in = new FileInputStream(file);
+
+			try {
+				int offset = 0;
+				int count;
+
+				while (offset < header.length && (count = in.read(header, offset, header.length - offset)) >= 0)
+					offset += count;
+
+				return offset == header.length && Arrays.equals(header, SQLITE_HEADER);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+}
@@ -35,6 +35,7 @@ import org.gibello.zql.ZStatement;
 import org.gibello.zql.ZqlParser;
 import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
 import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
 import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
 import org.iti.sqlSchemaComparison.vertex.SqlElementType;
@@ -42,7 +43,6 @@ import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
 import org.iti.structureGraph.nodes.IStructureElement;
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.SimpleDirectedGraph;
 
 public class SqlStatementFrontend implements ISqlQueryFrontend {
 
@@ -88,8 +88,7 @@ public class SqlStatementFrontend implements ISqlQueryFrontend {
 	}
 
 	private DirectedGraph<IStructureElement, DefaultEdge> createGraphFromQuery(ZQuery query) {
-		DirectedGraph<IStructureElement, DefaultEdge> schema = new SimpleDirectedGraph<IStructureElement, DefaultEdge>(
-				DefaultEdge.class);
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new IndexedSqlSchema();
 
 		createTables(query, schema);
 
@@ -0,0 +1,92 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.frontends;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads statements one by one from a query log. Statements are separated by
+ * semicolons or line breaks outside of string literals. Every statement is
+ * returned with collapsed whitespace and a terminating semicolon, so equal
+ * statements yield equal strings.
+ */
+public class SqlStatementLogReader implements Closeable {
+
+	private static final char STATEMENT_DELIMITER = ';';
+
+	private static final char QUOTE = '\'';
+
+	private BufferedReader reader;
+
+	public SqlStatementLogReader(Reader reader) {
+		if (reader instanceof BufferedReader)
+			this.reader = (BufferedReader) reader;
+		else
+			this.reader = new BufferedReader(reader);
+	}
+
+	public String readStatement() throws IOException {
+		StringBuilder statement = new StringBuilder();
+		boolean quoted = false;
+		boolean whitespace = false;
+		int c;
+
+		while ((c = reader.read()) != -1) {
+			if (!quoted && (c == STATEMENT_DELIMITER || c == '\n' || c == '\r')) {
+				if (statement.length() > 0)
+					return toStatement(statement);
+
+				whitespace = false;
+				continue;
+			}
+
+			if (c == QUOTE)
+				quoted = !quoted;
+
+			if (!quoted && Character.isWhitespace(c)) {
+				whitespace = statement.length() > 0;
+				continue;
+			}
+
+			if (whitespace)
+				statement.append(' ');
+
+			statement.append((char) c);
+			whitespace = false;
+		}
+
+		return (statement.length() > 0) ? toStatement(statement) : null;
+	}
+
+	private String toStatement(StringBuilder statement) {
+		return statement.append(STATEMENT_DELIMITER).toString();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
@@ -0,0 +1,264 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.frontends;
+
+import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gibello.zql.ParseException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Bounded LRU cache of the expected schemas of statements. Statements are
+ * keyed by their text with string and numeric literals replaced, so
+ * statements that only differ in their literals are parsed once, even if
+ * they are requested concurrently. The cached schemas are shared and must
+ * not be modified.
+ */
+public class SqlStatementSchemaCache {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+	private static final String LITERAL = "?";
+
+	private static class CachedStatement implements ISqlQueryFrontend {
+
+		private DirectedGraph<IStructureElement, DefaultEdge> schema;
+
+		private QueryType queryType;
+
+		public CachedStatement(DirectedGraph<IStructureElement, DefaultEdge> schema, QueryType queryType) {
+			this.schema = schema;
+			this.queryType = queryType;
+		}
+
+		@Override
+		public DirectedGraph<IStructureElement, DefaultEdge> createSqlSchema() {
+			return schema;
+		}
+
+		@Override
+		public QueryType getQueryType() {
+			return queryType;
+		}
+	}
+
+	private final DirectedGraph<IStructureElement, DefaultEdge> databaseSchema;
+
+	private final Map<String, FutureTask<CachedStatement>> statements;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	public synchronized int size() {
+		return statements.size();
+	}
+
+	/**
+	 * Drops all cached statements. Statements which are being parsed are
+	 * still returned to the threads waiting for them.
+	 */
+	public synchronized void clear() {
+		statements.clear();
+	}
+
+	public SqlStatementSchemaCache(DirectedGraph<IStructureElement, DefaultEdge> databaseSchema) {
+		this(databaseSchema, DEFAULT_MAXIMUM_SIZE);
+	}
+
+	public SqlStatementSchemaCache(DirectedGraph<IStructureElement, DefaultEdge> databaseSchema, final int maximumSize) {
+		if (maximumSize < 1)
+			throw new IllegalArgumentException("Maximum size of statement cache must be positive!");
+
+		this.databaseSchema = databaseSchema;
+		this.statements = new LinkedHashMap<String, FutureTask<CachedStatement>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 6925417431337413734L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, FutureTask<CachedStatement>> eldest) {
+				return size() > maximumSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached frontend of the passed statement. On a miss, the
+	 * statement is parsed by the calling thread while concurrent requests
+	 * for the same key wait for its result. Statements that cannot be parsed
+	 * are not cached.
+	 */
+	public ISqlQueryFrontend getFrontend(final String statement) throws ParseException, UnsupportedEncodingException {
+		String key = normalize(statement);
+		FutureTask<CachedStatement> cachedStatement;
+		boolean miss = false;
+
+		synchronized (this) {
+			cachedStatement = statements.get(key);
+
+			if (cachedStatement == null) {
+				cachedStatement = new FutureTask<>(new Callable<CachedStatement>() {
+
+					@Override
+					public CachedStatement call() throws Exception {
+						SqlStatementFrontend frontend = new SqlStatementFrontend(statement, databaseSchema);
+
+						return new CachedStatement(frontend.createSqlSchema(), frontend.getQueryType());
+					}
+				});
+				statements.put(key, cachedStatement);
+				miss = true;
+			}
+		}
+
+		if (miss) {
+			missCount.incrementAndGet();
+			cachedStatement.run();
+		} else {
+			hitCount.incrementAndGet();
+		}
+
+		try {
+			return getCachedStatement(cachedStatement);
+		} catch (ParseException | UnsupportedEncodingException | RuntimeException e) {
+			synchronized (this) {
+				if (statements.get(key) == cachedStatement)
+					statements.remove(key);
+			}
+
+			throw e;
+		}
+	}
+
+	private CachedStatement getCachedStatement(FutureTask<CachedStatement> cachedStatement)
+			throws ParseException, UnsupportedEncodingException {
+		boolean interrupted = false;
+
+		try {
+			while (true) {
+				try {
+					return cachedStatement.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof ParseException)
+				throw (ParseException) e.getCause();
+
+			if (e.getCause() instanceof UnsupportedEncodingException)
+				throw (UnsupportedEncodingException) e.getCause();
+
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	public static String normalize(String statement) {
+		StringBuilder normalizedStatement = new StringBuilder(statement.length());
+		int length = statement.length();
+		int i = 0;
+
+		while (i < length) {
+			char c = statement.charAt(i);
+
+			if (c == '\'') {
+				i = skipStringLiteral(statement, i);
+				normalizedStatement.append(LITERAL);
+			} else if (Character.isDigit(c) && !isIdentifierPart(normalizedStatement)) {
+				i = skipNumericLiteral(statement, i);
+				normalizedStatement.append(LITERAL);
+			} else if (Character.isWhitespace(c)) {
+				while (i < length && Character.isWhitespace(statement.charAt(i)))
+					i++;
+
+				if (normalizedStatement.length() > 0 && i < length)
+					normalizedStatement.append(' ');
+			} else {
+				normalizedStatement.append(c);
+				i++;
+			}
+		}
+
+		return normalizedStatement.toString();
+	}
+
+	private static int skipStringLiteral(String statement, int start) {
+		int i = start + 1;
+
+		while (i < statement.length()) {
+			if (statement.charAt(i) == '\'') {
+				if (i + 1 < statement.length() && statement.charAt(i + 1) == '\'')
+					i += 2;
+				else
+					return i + 1;
+			} else {
+				i++;
+			}
+		}
+
+		return i;
+	}
+
+	private static int skipNumericLiteral(String statement, int start) {
+		int i = start;
+
+		while (i < statement.length() && (Character.isLetterOrDigit(statement.charAt(i)) || statement.charAt(i) == '.'))
+			i++;
+
+		return i;
+	}
+
+	private static boolean isIdentifierPart(StringBuilder normalizedStatement) {
+		if (normalizedStatement.length() == 0)
+			return false;
+
+		char c = normalizedStatement.charAt(normalizedStatement.length() - 1);
+
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+	}
+
+}
@@ -31,21 +31,27 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.h2.jdbc.JdbcSQLException;
+import org.iti.sqlSchemaComparison.ISqlSchemaPhaseListener;
+import org.iti.sqlSchemaComparison.SqlSchemaPhase;
+import org.iti.sqlSchemaComparison.SqlSchemaPhaseStopwatch;
 import org.iti.sqlSchemaComparison.edge.ColumnHasConstraint;
 import org.iti.sqlSchemaComparison.edge.ColumnHasType;
 import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
 import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
 import org.iti.sqlSchemaComparison.frontends.ISqlSchemaFrontend;
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
 import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
 import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
 import org.iti.sqlSchemaComparison.vertex.SqlElementType;
+import org.iti.sqlSchemaComparison.vertex.SqlSchemaIndex;
 import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
 import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnConstraintVertex;
 import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnTypeVertex;
@@ -53,11 +59,11 @@ import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint.Constraint
 import org.iti.structureGraph.nodes.IStructureElement;
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.SimpleDirectedGraph;
 
 public class H2SchemaFrontend implements ISqlSchemaFrontend {
 
 	private enum ColumnSchema {
+		TABLE(1),
 		NAME(2),
 		TYPE(3),
 		NOT_NULL(4),
@@ -76,20 +82,23 @@ public class H2SchemaFrontend implements ISqlSchemaFrontend {
 	}
 
 	private static final String QUERY_TABLES = "SELECT table_name FROM information_schema.tables WHERE table_type='TABLE' ORDER BY table_name;";
-	private static final String QUERY_TABLE_SCHEMA = "SELECT table_name, column_name, type_name, is_nullable, column_default FROM information_schema.columns WHERE table_name = ?;";
-	private static final String QUERY_PRIMARY_KEY_COLUMN = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.CONSTRAINTS "
-                                                           + "WHERE CONSTRAINT_TYPE = 'PRIMARY KEY' "
-                                                           + "AND TABLE_NAME = ? "
-                                                           + "AND COLUMN_LIST = ?;";
-	private static final String QUERY_TABLE_SCHEMA_FOREIGN_KEYS = "SELECT SQL FROM INFORMATION_SCHEMA.CONSTRAINTS "
-                                                                  + "WHERE CONSTRAINT_TYPE = 'REFERENTIAL' "
-                                                                  + "AND TABLE_NAME = ? "
-                                                                  + "AND COLUMN_LIST = ?;";
+	private static final String QUERY_COLUMNS = "SELECT c.table_name, c.column_name, c.type_name, c.is_nullable, c.column_default "
+                                               + "FROM information_schema.columns c JOIN information_schema.tables t "
+                                               + "ON c.table_schema = t.table_schema AND c.table_name = t.table_name "
+                                               + "WHERE t.table_type = 'TABLE' "
+                                               + "ORDER BY c.table_name, c.ordinal_position;";
+	private static final String QUERY_PRIMARY_KEY_COLUMNS = "SELECT TABLE_NAME, COLUMN_LIST FROM INFORMATION_SCHEMA.CONSTRAINTS "
+                                                            + "WHERE CONSTRAINT_TYPE IN ('PRIMARY KEY', 'PRIMARY_KEY');";
+	private static final String QUERY_FOREIGN_KEYS = "SELECT FKTABLE_NAME, FKCOLUMN_NAME, PKTABLE_NAME, PKCOLUMN_NAME "
+                                                     + "FROM INFORMATION_SCHEMA.CROSS_REFERENCES "
+                                                     + "ORDER BY FKTABLE_NAME, FK_NAME, ORDINAL_POSITION;";
 
 	private PreparedStatement queryTables = null;
 
 	private String filePath;
 
+	private ISqlSchemaPhaseListener listener = null;
+
 	@Override
 	public DirectedGraph<IStructureElement, DefaultEdge> createSqlSchema() {
 		DirectedGraph<IStructureElement, DefaultEdge> schema = null;
@@ -105,20 +114,41 @@ public class H2SchemaFrontend implements ISqlSchemaFrontend {
 	}
 
 	private DirectedGraph<IStructureElement, DefaultEdge> tryCreateSqlSchema() throws SQLException {
-		DirectedGraph<IStructureElement, DefaultEdge> schema = new SimpleDirectedGraph<IStructureElement, DefaultEdge>(DefaultEdge.class);
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new IndexedSqlSchema();
+		SqlSchemaPhaseStopwatch stopwatch = new SqlSchemaPhaseStopwatch(listener);
 		Connection connection = null;
 
 		try {
+			stopwatch.start(SqlSchemaPhase.CONNECTION_OPEN);
 			connection = getH2Connection();
+			stopwatch.stop(1);
+
+			stopwatch.start(SqlSchemaPhase.TABLE_LISTING);
 			queryTables = connection.prepareStatement(QUERY_TABLES);
 
 			List<String> tables = getH2Tables();
+			Map<String, ISqlElement> tableVertices = new HashMap<>();
+
+			for (String tableName : tables) {
+				ISqlElement table = SqlElementFactory.createSqlElement(SqlElementType.Table, tableName);
 
-			for (String table : tables) {
-				createTableSchema(connection, schema, table);
+				schema.addVertex(table);
+				tableVertices.put(tableName, table);
 			}
 
+			stopwatch.stop(tables.size());
+
+			stopwatch.start(SqlSchemaPhase.COLUMN_LOAD);
+			Set<String> primaryKeyColumns = getPrimaryKeyColumns(connection);
+
+			int columnCount = createColumns(connection, schema, tableVertices, primaryKeyColumns);
+			stopwatch.stop(columnCount);
+
+			int edgeCount = schema.edgeSet().size();
+
+			stopwatch.start(SqlSchemaPhase.FOREIGN_KEY_LOAD);
 			createForeignKeyRelation(connection, schema);
+			stopwatch.stop(schema.edgeSet().size() - edgeCount);
 
 		} catch (ClassNotFoundException e) {
 			// TODO Auto-generated catch block
@@ -158,32 +188,56 @@ public class H2SchemaFrontend implements ISqlSchemaFrontend {
 		return tables;
 	}
 
-	private void createTableSchema(Connection connection, DirectedGraph<IStructureElement, DefaultEdge> schema,
-			String tableName) throws SQLException {
-		ISqlElement table = SqlElementFactory.createSqlElement(SqlElementType.Table, tableName);
-		schema.addVertex(table);
+	private Set<String> getPrimaryKeyColumns(Connection connection) throws SQLException {
+		Set<String> primaryKeyColumns = new HashSet<>();
+		PreparedStatement stm = connection.prepareStatement(QUERY_PRIMARY_KEY_COLUMNS);
 
-		PreparedStatement stm = connection.prepareStatement(QUERY_TABLE_SCHEMA);
+		try {
+			ResultSet result = stm.executeQuery();
 
-		stm.setString(1, tableName);
+			while (result.next())
+				primaryKeyColumns.add(SqlSchemaIndex.getQualifiedName(result.getString(1), result.getString(2)));
+		} finally {
+			stm.close();
+		}
+
+		return primaryKeyColumns;
+	}
+
+	private int createColumns(Connection connection, DirectedGraph<IStructureElement, DefaultEdge> schema,
+			Map<String, ISqlElement> tables, Set<String> primaryKeyColumns) throws SQLException {
+		PreparedStatement stm = connection.prepareStatement(QUERY_COLUMNS);
+		int columnCount = 0;
 
-		ResultSet tableSchema = stm.executeQuery();
+		try {
+			ResultSet tableSchema = stm.executeQuery();
+
+			while (tableSchema.next()) {
+				ISqlElement table = tables.get(tableSchema.getString(ColumnSchema.TABLE.getValue()));
 
-		while (tableSchema.next()) {
-			createColumn(connection, schema, tableName, table, tableSchema);
+				if (table != null) {
+					createColumn(schema, table, tableSchema, primaryKeyColumns);
+					columnCount++;
+				}
+			}
+		} finally {
+			stm.close();
 		}
+
+		return columnCount;
 	}
 
-	private void createColumn(Connection connection, DirectedGraph<IStructureElement, DefaultEdge> schema,
-			String tableName, ISqlElement table, ResultSet tableSchema) throws SQLException {
+	private void createColumn(DirectedGraph<IStructureElement, DefaultEdge> schema,
+			ISqlElement table, ResultSet tableSchema, Set<String> primaryKeyColumns) throws SQLException {
 		String id = tableSchema.getString(ColumnSchema.NAME.getValue());
 		SqlColumnVertex column = new SqlColumnVertex(id, table.getName());
+		boolean primaryKey = primaryKeyColumns.contains(SqlSchemaIndex.getQualifiedName(table.getName(), id));
 
 		schema.addVertex(column);
 		schema.addEdge(table, column, new TableHasColumnEdge(table, column));
 
 		createColumnType(schema, tableSchema, id, column);
-		createColumnConstraints(connection, schema, tableName, tableSchema, id, column);
+		createColumnConstraints(schema, tableSchema, id, column, primaryKey);
 	}
 
 	private void createColumnType(DirectedGraph<IStructureElement, DefaultEdge> schema, ResultSet tableSchema,
@@ -195,8 +249,8 @@ public class H2SchemaFrontend implements ISqlSchemaFrontend {
 		schema.addEdge(column, columnType, new ColumnHasType());
 	}
 
-	private void createColumnConstraints(Connection connection, DirectedGraph<IStructureElement, DefaultEdge> schema,
-			String tableName, ResultSet tableSchema, String columnName, SqlColumnVertex column) throws SQLException {
+	private void createColumnConstraints(DirectedGraph<IStructureElement, DefaultEdge> schema,
+			ResultSet tableSchema, String columnName, SqlColumnVertex column, boolean primaryKey) throws SQLException {
 		if (tableSchema.getString(ColumnSchema.NOT_NULL.getValue()).equals("NO")) {
 			addColumnConstraint(new ColumnConstraintVertex(columnName, ConstraintType.NOT_NULL), schema, column);
 			column.setMandatory(true);
@@ -209,7 +263,7 @@ public class H2SchemaFrontend implements ISqlSchemaFrontend {
 			column.setMandatory(false);
 		}
 
-		if (isPrimaryKeyColumn(connection, tableName, columnName))
+		if (primaryKey)
 			addColumnConstraint(new ColumnConstraintVertex(columnName, ConstraintType.PRIMARY_KEY), schema, column);
 	}
 
@@ -219,61 +273,43 @@ public class H2SchemaFrontend implements ISqlSchemaFrontend {
 		schema.addEdge(column, columnConstraint, new ColumnHasConstraint());
 	}
 
-	private boolean isPrimaryKeyColumn(Connection connection, String tableName, String columnName) throws SQLException {
-		PreparedStatement stm = connection.prepareStatement(QUERY_PRIMARY_KEY_COLUMN);
-
-		stm.setString(1, tableName);
-		stm.setString(2, columnName);
-
-		ResultSet primaryKeyCount = stm.executeQuery();
-
-		return (primaryKeyCount.next()) ? primaryKeyCount.getInt(1) == 1 : false;
-	}
-
-	private static final String FOREIGN_KEY_REGEX = "REFERENCES \\w+\\.(?<table>\\w+)\\((?<column>\\w+)\\)";
-	private static final Pattern FOREIGN_KEY_PATTERN = Pattern.compile(FOREIGN_KEY_REGEX);
-
 	private void createForeignKeyRelation(Connection connection, DirectedGraph<IStructureElement, DefaultEdge> schema) throws SQLException {
-		Set<ISqlElement> tables = SqlElementFactory.getSqlElementsOfType(SqlTableVertex.class, schema.vertexSet());
-		PreparedStatement stm = connection.prepareStatement(QUERY_TABLE_SCHEMA_FOREIGN_KEYS);
-
-		for (ISqlElement table : tables) {
-			Set<ISqlElement> columns = ((SqlTableVertex) table).getColumns(schema);
+		PreparedStatement stm = connection.prepareStatement(QUERY_FOREIGN_KEYS);
 
-			for (ISqlElement column : columns) {
-				stm.setString(1, table.getName());
-				stm.setString(2, column.getName());
-
-				try {
-					ResultSet tableSchema = stm.executeQuery();
-
-					if (tableSchema.next()) {
-						String sql = tableSchema.getString(1);
-						Matcher matcher = FOREIGN_KEY_PATTERN.matcher(sql);
-
-						if (matcher.find()) {
-							String foreignTable = matcher.group("table");
-							String foreignColumn = foreignTable + "." + matcher.group("column");
-							String referencingColumnName = table.getName() + "." + column.getName();
+		try {
+			ResultSet foreignKeys = stm.executeQuery();
 
-							ISqlElement foreignKeyTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, foreignTable, schema.vertexSet());
-							ISqlElement foreignKeyColumn = SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, foreignColumn, schema.vertexSet());
-							ISqlElement referencingColumn = SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, referencingColumnName, schema.vertexSet());
+			while (foreignKeys.next()) {
+				String referencingColumnName = SqlSchemaIndex.getQualifiedName(foreignKeys.getString(1), foreignKeys.getString(2));
+				String foreignTable = foreignKeys.getString(3);
+				String foreignColumn = SqlSchemaIndex.getQualifiedName(foreignTable, foreignKeys.getString(4));
 
-							schema.addEdge(referencingColumn, foreignKeyColumn, new ForeignKeyRelationEdge(referencingColumn, foreignKeyTable, foreignKeyColumn));
-						}
-					}
-				} catch (Exception ex) {
+				ISqlElement foreignKeyTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, foreignTable, schema.vertexSet());
+				ISqlElement foreignKeyColumn = SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, foreignColumn, schema.vertexSet());
+				ISqlElement referencingColumn = SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, referencingColumnName, schema.vertexSet());
 
-				}
+				if (foreignKeyTable != null && foreignKeyColumn != null && referencingColumn != null)
+					schema.addEdge(referencingColumn, foreignKeyColumn, new ForeignKeyRelationEdge(referencingColumn, foreignKeyTable, foreignKeyColumn));
 			}
+		} finally {
+			stm.close();
 		}
 	}
 
 	public H2SchemaFrontend(String filePath) {
+		this(filePath, null);
+	}
+
+	/**
+	 * Creates a frontend that reports the timing of opening the connection
+	 * and loading tables, columns and foreign keys to the passed listener,
+	 * which may be {@code null}.
+	 */
+	public H2SchemaFrontend(String filePath, ISqlSchemaPhaseListener listener) {
 		if (filePath == null || filePath == "")
 			throw new InvalidPathException("", "Path to H2 database file must not be null or empty!");
 
 		this.filePath = filePath;
+		this.listener = listener;
 	}
 }
@@ -35,12 +35,16 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import org.iti.sqlSchemaComparison.ISqlSchemaPhaseListener;
+import org.iti.sqlSchemaComparison.SqlSchemaPhase;
+import org.iti.sqlSchemaComparison.SqlSchemaPhaseStopwatch;
 import org.iti.sqlSchemaComparison.edge.ColumnHasConstraint;
 import org.iti.sqlSchemaComparison.edge.ColumnHasType;
 import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
 import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
 import org.iti.sqlSchemaComparison.frontends.ISqlSchemaFrontend;
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
 import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
 import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
 import org.iti.sqlSchemaComparison.vertex.SqlElementType;
@@ -51,7 +55,6 @@ import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint.Constraint
 import org.iti.structureGraph.nodes.IStructureElement;
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.SimpleDirectedGraph;
 
 public class SqliteSchemaFrontend implements ISqlSchemaFrontend {
 
@@ -77,10 +80,24 @@ public class SqliteSchemaFrontend implements ISqlSchemaFrontend {
 	private static final String QUERY_TABLE_SCHEMA = "PRAGMA table_info(?)";
 	private static final String QUERY_TABLE_SCHEMA_FOREIGN_KEYS = "PRAGMA foreign_key_list(?)";
 
+	private static final int BULK_TABLE_NAME = 7;
+	private static final String QUERY_BULK_TABLE_SCHEMA = "SELECT p.cid, p.name, p.type, p.\"notnull\", p.dflt_value, p.pk, m.name "
+	                                                      + "FROM sqlite_master m JOIN pragma_table_info(m.name) p "
+	                                                      + "WHERE m.type='table' ORDER BY m.name, p.cid;";
+
+	private static final int BULK_FOREIGN_KEY_TABLE_NAME = 6;
+	private static final String QUERY_BULK_TABLE_SCHEMA_FOREIGN_KEYS = "SELECT f.id, f.seq, f.\"table\", f.\"from\", f.\"to\", m.name "
+	                                                                   + "FROM sqlite_master m JOIN pragma_foreign_key_list(m.name) f "
+	                                                                   + "WHERE m.type='table' ORDER BY m.name, f.id, f.seq;";
+
 	private PreparedStatement queryTables = null;
 
 	private String filePath;
 
+	private boolean bulkIntrospection = true;
+
+	private ISqlSchemaPhaseListener listener = null;
+
 	@Override
 	public DirectedGraph<IStructureElement, DefaultEdge> createSqlSchema() {
 		DirectedGraph<IStructureElement, DefaultEdge> schema = null;
@@ -96,20 +113,44 @@ public class SqliteSchemaFrontend implements ISqlSchemaFrontend {
 	}
 
 	private DirectedGraph<IStructureElement, DefaultEdge> tryCreateSqlSchema() throws SQLException {
-		DirectedGraph<IStructureElement, DefaultEdge> schema = new SimpleDirectedGraph<IStructureElement, DefaultEdge>(DefaultEdge.class);
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new IndexedSqlSchema();
+		SqlSchemaPhaseStopwatch stopwatch = new SqlSchemaPhaseStopwatch(listener);
 		Connection connection = null;
 
 		try {
+			stopwatch.start(SqlSchemaPhase.CONNECTION_OPEN);
 			connection = getSqliteConnection();
-			queryTables = connection.prepareStatement(QUERY_TABLES);
+			stopwatch.stop(1);
 
-			List<String> tables = getSqliteTables();
+			if (!bulkIntrospection || !tryCreateBulkSchema(connection, schema, stopwatch)) {
+				stopwatch.start(SqlSchemaPhase.TABLE_LISTING);
+				queryTables = connection.prepareStatement(QUERY_TABLES);
 
-			for (String table : tables) {
-				createTableSchema(connection, schema, table);
-			}
+				List<String> tables = getSqliteTables();
+				stopwatch.stop(tables.size());
+
+				Statement stm = connection.createStatement();
+
+				try {
+					int columnCount = 0;
 
-			createForeignKeyRelation(connection, schema);
+					stopwatch.start(SqlSchemaPhase.COLUMN_LOAD);
+
+					for (String table : tables) {
+						columnCount += createTableSchema(stm, schema, table);
+					}
+
+					stopwatch.stop(columnCount);
+
+					int edgeCount = schema.edgeSet().size();
+
+					stopwatch.start(SqlSchemaPhase.FOREIGN_KEY_LOAD);
+					createForeignKeyRelation(stm, schema);
+					stopwatch.stop(schema.edgeSet().size() - edgeCount);
+				} finally {
+					stm.close();
+				}
+			}
 
 		} finally {
 			if (connection != null)
@@ -140,18 +181,77 @@ public class SqliteSchemaFrontend implements ISqlSchemaFrontend {
 		return tables;
 	}
 
-	private void createTableSchema(Connection connection, DirectedGraph<IStructureElement, DefaultEdge> schema,
+	private boolean tryCreateBulkSchema(Connection connection, DirectedGraph<IStructureElement, DefaultEdge> schema,
+			SqlSchemaPhaseStopwatch stopwatch) throws SQLException {
+		Statement stm = connection.createStatement();
+
+		try {
+			ResultSet tableSchema;
+			int columnCount = 0;
+
+			stopwatch.start(SqlSchemaPhase.COLUMN_LOAD);
+
+			try {
+				tableSchema = stm.executeQuery(QUERY_BULK_TABLE_SCHEMA);
+			} catch (SQLException ex) {
+				// SQLite versions prior to 3.16 lack table-valued pragma functions
+				stopwatch.stop(0);
+
+				return false;
+			}
+
+			ISqlElement table = null;
+
+			while (tableSchema.next()) {
+				String tableName = tableSchema.getString(BULK_TABLE_NAME);
+
+				if (table == null || !table.getName().equals(tableName)) {
+					table = SqlElementFactory.createSqlElement(SqlElementType.Table, tableName);
+					schema.addVertex(table);
+				}
+
+				createColumn(schema, table, tableSchema);
+				columnCount++;
+			}
+
+			tableSchema.close();
+			stopwatch.stop(columnCount);
+
+			int edgeCount = schema.edgeSet().size();
+
+			stopwatch.start(SqlSchemaPhase.FOREIGN_KEY_LOAD);
+
+			ResultSet foreignKeys = stm.executeQuery(QUERY_BULK_TABLE_SCHEMA_FOREIGN_KEYS);
+
+			while (foreignKeys.next()) {
+				createForeignKey(schema, foreignKeys.getString(BULK_FOREIGN_KEY_TABLE_NAME), foreignKeys);
+			}
+
+			foreignKeys.close();
+			stopwatch.stop(schema.edgeSet().size() - edgeCount);
+		} finally {
+			stm.close();
+		}
+
+		return true;
+	}
+
+	private int createTableSchema(Statement stm, DirectedGraph<IStructureElement, DefaultEdge> schema,
 			String tableName) throws SQLException {
 		ISqlElement table = SqlElementFactory.createSqlElement(SqlElementType.Table, tableName);
 		schema.addVertex(table);
 
-		Statement stm = connection.createStatement();
-
 		ResultSet tableSchema = stm.executeQuery(QUERY_TABLE_SCHEMA.replaceAll("\\?", tableName));
+		int columnCount = 0;
 
 		while (tableSchema.next()) {
 			createColumn(schema, table, tableSchema);
+			columnCount++;
 		}
+
+		tableSchema.close();
+
+		return columnCount;
 	}
 
 	private void createColumn(DirectedGraph<IStructureElement, DefaultEdge> schema, ISqlElement table,
@@ -215,24 +315,15 @@ public class SqliteSchemaFrontend implements ISqlSchemaFrontend {
 		}
 	}
 
-	private void createForeignKeyRelation(Connection connection, DirectedGraph<IStructureElement, DefaultEdge> schema) throws SQLException {
+	private void createForeignKeyRelation(Statement stm, DirectedGraph<IStructureElement, DefaultEdge> schema) throws SQLException {
 		Set<ISqlElement> tables = SqlElementFactory.getSqlElementsOfType(SqlTableVertex.class, schema.vertexSet());
-		Statement stm = connection.createStatement();
 
 		for (ISqlElement table : tables) {
 			try {
 				ResultSet tableSchema = stm.executeQuery(QUERY_TABLE_SCHEMA_FOREIGN_KEYS.replaceAll("\\?", table.getName()));
 
 				while (tableSchema != null && tableSchema.next()) {
-					String foreignTable = tableSchema.getString(ForeignKeySchema.TABLE.getValue());
-					String foreignColumn = foreignTable + "." + tableSchema.getString(ForeignKeySchema.TO.getValue());
-					String referencingColumnName = table.getName() + "." + tableSchema.getString(ForeignKeySchema.FROM.getValue());
-
-					ISqlElement foreignKeyTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, foreignTable, schema.vertexSet());
-					ISqlElement foreignKeyColumn = SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, foreignColumn, schema.vertexSet());
-					ISqlElement referencingColumn = SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, referencingColumnName, schema.vertexSet());
-
-					schema.addEdge(referencingColumn, foreignKeyColumn, new ForeignKeyRelationEdge(referencingColumn, foreignKeyTable, foreignKeyColumn));
+					createForeignKey(schema, table.getName(), tableSchema);
 				}
 			} catch (Exception ex) {
 
@@ -240,10 +331,39 @@ public class SqliteSchemaFrontend implements ISqlSchemaFrontend {
 		}
 	}
 
+	private void createForeignKey(DirectedGraph<IStructureElement, DefaultEdge> schema, String tableName,
+			ResultSet tableSchema) throws SQLException {
+		String foreignTable = tableSchema.getString(ForeignKeySchema.TABLE.getValue());
+		String foreignColumn = foreignTable + "." + tableSchema.getString(ForeignKeySchema.TO.getValue());
+		String referencingColumnName = tableName + "." + tableSchema.getString(ForeignKeySchema.FROM.getValue());
+
+		ISqlElement foreignKeyTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, foreignTable, schema.vertexSet());
+		ISqlElement foreignKeyColumn = SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, foreignColumn, schema.vertexSet());
+		ISqlElement referencingColumn = SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, referencingColumnName, schema.vertexSet());
+
+		if (foreignKeyTable != null && foreignKeyColumn != null && referencingColumn != null)
+			schema.addEdge(referencingColumn, foreignKeyColumn, new ForeignKeyRelationEdge(referencingColumn, foreignKeyTable, foreignKeyColumn));
+	}
+
 	public SqliteSchemaFrontend(String filePath) {
+		this(filePath, true);
+	}
+
+	public SqliteSchemaFrontend(String filePath, boolean bulkIntrospection) {
+		this(filePath, bulkIntrospection, null);
+	}
+
+	/**
+	 * Creates a frontend that reports the timing of opening the connection
+	 * and loading tables, columns and foreign keys to the passed listener,
+	 * which may be {@code null}.
+	 */
+	public SqliteSchemaFrontend(String filePath, boolean bulkIntrospection, ISqlSchemaPhaseListener listener) {
 		if (filePath == null || filePath == "")
 			throw new InvalidPathException("", "Path to SQLite database file must not be null or empty!");
 
 		this.filePath = filePath;
+		this.bulkIntrospection = bulkIntrospection;
+		this.listener = listener;
 	}
 }
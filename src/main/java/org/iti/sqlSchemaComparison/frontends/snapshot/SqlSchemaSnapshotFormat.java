@@ -0,0 +1,103 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends.snapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Constants and variable-length integer coding of the binary schema snapshot
+ * format. A snapshot consists of
+ * <ul>
+ * <li>the magic bytes and the format version,</li>
+ * <li>a string table holding every name, type and expression once,</li>
+ * <li>the vertices, each a kind byte followed by string table indices, and</li>
+ * <li>the edges, each a kind byte followed by vertex indices.</li>
+ * </ul>
+ * All counts and indices are stored as unsigned LEB128 varints.
+ */
+final class SqlSchemaSnapshotFormat {
+
+	static final int MAGIC = 0x53515353;
+
+	static final int VERSION = 1;
+
+	static final byte TABLE_VERTEX = 0;
+	static final byte COLUMN_VERTEX = 1;
+	static final byte COLUMN_TYPE_VERTEX = 2;
+	static final byte COLUMN_CONSTRAINT_VERTEX = 3;
+
+	static final byte TABLE_HAS_COLUMN_EDGE = 0;
+	static final byte COLUMN_HAS_TYPE_EDGE = 1;
+	static final byte COLUMN_HAS_CONSTRAINT_EDGE = 2;
+	static final byte FOREIGN_KEY_RELATION_EDGE = 3;
+
+	static final int MANDATORY_COLUMN = 1;
+
+	private SqlSchemaSnapshotFormat() { }
+
+	static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		out.writeByte(value);
+	}
+
+	static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+
+			value |= (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0) {
+				if (value < 0)
+					break;
+
+				return value;
+			}
+		}
+
+		throw new IOException("Malformed variable-length integer in schema snapshot!");
+	}
+
+	/**
+	 * Reads a count or byte length which is at most the number of bytes left
+	 * in the snapshot, as every counted element takes at least one byte. The
+	 * snapshot must be fully buffered, so that {@link DataInputStream#available()}
+	 * is exact.
+	 */
+	static int readLength(DataInputStream in) throws IOException {
+		int length = readVarInt(in);
+
+		if (length > in.available())
+			throw new IOException("Length exceeds the remaining schema snapshot: " + length);
+
+		return length;
+	}
+
+}
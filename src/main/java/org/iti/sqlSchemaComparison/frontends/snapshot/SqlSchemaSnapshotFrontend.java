@@ -0,0 +1,214 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends.snapshot;
+
+import static org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotFormat.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.iti.sqlSchemaComparison.edge.ColumnHasConstraint;
+import org.iti.sqlSchemaComparison.edge.ColumnHasType;
+import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
+import org.iti.sqlSchemaComparison.frontends.ISqlSchemaFrontend;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.sqlSchemaComparison.vertex.SqlElementType;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnConstraintVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnTypeVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint.ConstraintType;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Reads a schema graph from a binary snapshot written by
+ * {@link SqlSchemaSnapshotWriter}.
+ */
+public class SqlSchemaSnapshotFrontend implements ISqlSchemaFrontend {
+
+	public static final String FILE_EXTENSION = ".sqlsnap";
+
+	private String filePath;
+
+	public SqlSchemaSnapshotFrontend(String filePath) {
+		if (filePath == null || filePath == "")
+			throw new InvalidPathException("", "Path to schema snapshot file must not be null or empty!");
+
+		this.filePath = filePath;
+	}
+
+	public static boolean isSnapshotFile(String filePath) {
+		return filePath != null && filePath.endsWith(FILE_EXTENSION);
+	}
+
+	@Override
+	public DirectedGraph<IStructureElement, DefaultEdge> createSqlSchema() {
+		Path path = Paths.get(filePath);
+
+		if (!Files.isRegularFile(path))
+			throw new IllegalArgumentException("Schema snapshot file does not exist!");
+
+		DirectedGraph<IStructureElement, DefaultEdge> schema = null;
+
+		try {
+			schema = read(new ByteArrayInputStream(Files.readAllBytes(path)));
+		} catch (IOException ex) {
+			ex.printStackTrace(System.err);
+		}
+
+		return schema;
+	}
+
+	static DirectedGraph<IStructureElement, DefaultEdge> read(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+
+		if (in.readInt() != MAGIC)
+			throw new IllegalArgumentException("File is not a schema snapshot!");
+
+		int version = readVarInt(in);
+
+		if (version != VERSION)
+			throw new IllegalArgumentException("Unsupported schema snapshot version: " + version);
+
+		String[] strings = new String[readLength(in)];
+
+		for (int i = 0; i < strings.length; i++) {
+			byte[] bytes = new byte[readLength(in)];
+
+			in.readFully(bytes);
+			strings[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new IndexedSqlSchema();
+		IStructureElement[] vertices = new IStructureElement[readLength(in)];
+
+		for (int i = 0; i < vertices.length; i++) {
+			vertices[i] = readVertex(in, strings);
+			schema.addVertex(vertices[i]);
+		}
+
+		int edgeCount = readLength(in);
+
+		for (int i = 0; i < edgeCount; i++)
+			readEdge(in, schema, vertices);
+
+		return schema;
+	}
+
+	private static IStructureElement readVertex(DataInputStream in, String[] strings) throws IOException {
+		byte kind = in.readByte();
+
+		switch (kind) {
+		case TABLE_VERTEX:
+			return SqlElementFactory.createSqlElement(SqlElementType.Table, readString(in, strings));
+
+		case COLUMN_VERTEX:
+			SqlColumnVertex column = new SqlColumnVertex(readString(in, strings), readString(in, strings));
+
+			column.setMandatory((readVarInt(in) & MANDATORY_COLUMN) != 0);
+
+			return column;
+
+		case COLUMN_TYPE_VERTEX:
+			return new ColumnTypeVertex(readString(in, strings), readString(in, strings));
+
+		case COLUMN_CONSTRAINT_VERTEX:
+			String columnName = readString(in, strings);
+			ConstraintType constraintType = readConstraintType(in, strings);
+
+			return new ColumnConstraintVertex(columnName, constraintType, readString(in, strings));
+
+		default:
+			throw new IOException("Unknown vertex kind in schema snapshot: " + kind);
+		}
+	}
+
+	private static ConstraintType readConstraintType(DataInputStream in, String[] strings) throws IOException {
+		String constraintType = readString(in, strings);
+
+		try {
+			return ConstraintType.valueOf(constraintType);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Unknown constraint type in schema snapshot: " + constraintType);
+		}
+	}
+
+	private static void readEdge(DataInputStream in, DirectedGraph<IStructureElement, DefaultEdge> schema,
+			IStructureElement[] vertices) throws IOException {
+		byte kind = in.readByte();
+		IStructureElement source = readVertexReference(in, vertices);
+		IStructureElement target = readVertexReference(in, vertices);
+
+		switch (kind) {
+		case TABLE_HAS_COLUMN_EDGE:
+			schema.addEdge(source, target, new TableHasColumnEdge(source, target));
+			break;
+
+		case COLUMN_HAS_TYPE_EDGE:
+			schema.addEdge(source, target, new ColumnHasType());
+			break;
+
+		case COLUMN_HAS_CONSTRAINT_EDGE:
+			schema.addEdge(source, target, new ColumnHasConstraint());
+			break;
+
+		case FOREIGN_KEY_RELATION_EDGE:
+			IStructureElement foreignKeyTable = readVertexReference(in, vertices);
+
+			schema.addEdge(source, target, new ForeignKeyRelationEdge(source, foreignKeyTable, target));
+			break;
+
+		default:
+			throw new IOException("Unknown edge kind in schema snapshot: " + kind);
+		}
+	}
+
+	private static IStructureElement readVertexReference(DataInputStream in, IStructureElement[] vertices) throws IOException {
+		int index = readVarInt(in);
+
+		if (index < 0 || index >= vertices.length)
+			throw new IOException("Invalid vertex index in schema snapshot: " + index);
+
+		return vertices[index];
+	}
+
+	private static String readString(DataInputStream in, String[] strings) throws IOException {
+		int index = readVarInt(in);
+
+		if (index < 0 || index >= strings.length)
+			throw new IOException("Invalid string index in schema snapshot: " + index);
+
+		return strings[index];
+	}
+
+}
@@ -0,0 +1,267 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * An append-only file holding many named schema snapshots. Opening a store
+ * only reads the record headers to build an in-memory index. Loading a
+ * version maps just the region of its snapshot and decodes it directly from
+ * the mapped pages, so the size of the archive does not matter.
+ * <p>
+ * A store file starts with a header (magic, format version) followed by
+ * records of the form
+ * {@code magic, name length, snapshot length, name (UTF-8), snapshot}.
+ * A final record that was only partially written is ignored when the store
+ * is opened and overwritten by the next append. Any other malformed record
+ * ends the index of a read-only store and prevents opening the store for
+ * writing, so that no valid records are overwritten.
+ */
+public class SqlSchemaSnapshotStore implements Closeable {
+
+	public static final String FILE_EXTENSION = ".sqlstore";
+
+	private static final int MAGIC = 0x53515354;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 8;
+
+	private static final int RECORD_MAGIC = 0x53515352;
+
+	private static final int RECORD_HEADER_SIZE = 12;
+
+	private final FileChannel channel;
+
+	private final boolean writable;
+
+	private final Map<String, Record> index = new HashMap<>();
+
+	private final List<String> versions = new ArrayList<>();
+
+	private long end;
+
+	public SqlSchemaSnapshotStore(String filePath, boolean writable) throws IOException {
+		Path path = Paths.get(filePath);
+
+		if (!writable && !Files.isRegularFile(path))
+			throw new IllegalArgumentException("Schema snapshot store file does not exist!");
+
+		this.writable = writable;
+
+		if (writable)
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		else
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+
+		try {
+			if (channel.size() == 0 && writable)
+				writeHeader();
+			else
+				readIndex();
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+
+			throw e;
+		}
+	}
+
+	private void writeHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.flip();
+
+		writeFully(header, 0);
+
+		end = HEADER_SIZE;
+	}
+
+	private void readIndex() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+		if (!readFully(header, 0) || header.getInt(0) != MAGIC)
+			throw new IllegalArgumentException("File is not a schema snapshot store!");
+
+		if (header.getInt(4) != VERSION)
+			throw new IllegalArgumentException("Unsupported schema snapshot store version: " + header.getInt(4));
+
+		long size = channel.size();
+		long position = HEADER_SIZE;
+		ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+
+		while (position + RECORD_HEADER_SIZE <= size) {
+			recordHeader.clear();
+
+			if (!readFully(recordHeader, position))
+				break;
+
+			int nameLength = recordHeader.getInt(4);
+			int snapshotLength = recordHeader.getInt(8);
+			long snapshotPosition = position + RECORD_HEADER_SIZE + nameLength;
+
+			if (recordHeader.getInt(0) != RECORD_MAGIC || nameLength < 0 || snapshotLength < 0) {
+				if (writable)
+					throw new IOException("Malformed record in schema snapshot store at position " + position + "!");
+
+				break;
+			}
+
+			if (snapshotPosition + snapshotLength > size)
+				break;
+
+			ByteBuffer name = ByteBuffer.allocate(nameLength);
+
+			if (!readFully(name, position + RECORD_HEADER_SIZE))
+				break;
+
+			addToIndex(new String(name.array(), StandardCharsets.UTF_8), new Record(snapshotPosition, snapshotLength));
+
+			position = snapshotPosition + snapshotLength;
+		}
+
+		end = position;
+	}
+
+	private void addToIndex(String version, Record record) {
+		if (index.put(version, record) == null)
+			versions.add(version);
+	}
+
+	public synchronized List<String> getVersions() {
+		return Collections.unmodifiableList(new ArrayList<>(versions));
+	}
+
+	public synchronized boolean contains(String version) {
+		return index.containsKey(version);
+	}
+
+	public synchronized int size() {
+		return versions.size();
+	}
+
+	/**
+	 * Appends the snapshot of a schema under the given version name. The
+	 * record is forced to disk before it is added to the index.
+	 */
+	public synchronized void append(String version, DirectedGraph<IStructureElement, DefaultEdge> schema) throws IOException {
+		if (!writable)
+			throw new IllegalStateException("Schema snapshot store has been opened read-only!");
+
+		if (version == null || version.isEmpty())
+			throw new IllegalArgumentException("Version must not be null or empty!");
+
+		if (index.containsKey(version))
+			throw new IllegalArgumentException("Schema snapshot store already contains version " + version + "!");
+
+		ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+
+		new SqlSchemaSnapshotWriter(schema).write(snapshot);
+
+		byte[] name = version.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + name.length + snapshot.size());
+
+		record.putInt(RECORD_MAGIC);
+		record.putInt(name.length);
+		record.putInt(snapshot.size());
+		record.put(name);
+		record.put(snapshot.toByteArray());
+		record.flip();
+
+		if (channel.size() > end)
+			channel.truncate(end);
+
+		writeFully(record, end);
+		channel.force(false);
+
+		addToIndex(version, new Record(end + RECORD_HEADER_SIZE + name.length, snapshot.size()));
+
+		end += RECORD_HEADER_SIZE + name.length + snapshot.size();
+	}
+
+	public synchronized DirectedGraph<IStructureElement, DefaultEdge> load(String version) throws IOException {
+		Record record = index.get(version);
+
+		if (record == null)
+			throw new IllegalArgumentException("Schema snapshot store does not contain version " + version + "!");
+
+		ByteBuffer snapshot = channel.map(MapMode.READ_ONLY, record.position, record.length);
+
+		return SqlSchemaSnapshotFrontend.read(new ByteBufferInputStream(snapshot));
+	}
+
+	private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int count = channel.read(buffer, position + buffer.position());
+
+			if (count < 0)
+				return false;
+		}
+
+		return true;
+	}
+
+	private void writeFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining())
+			channel.write(buffer, position + buffer.position());
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+
+	private static class Record {
+
+		private final long position;
+
+		private final int length;
+
+		public Record(long position, int length) {
+			this.position = position;
+			this.length = length;
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends.snapshot;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+
+import org.iti.sqlSchemaComparison.frontends.ISqlSchemaFrontend;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Loads one schema version from a {@link SqlSchemaSnapshotStore}. A version
+ * is referenced either by store path and version name or by a single
+ * reference of the form {@code archive.sqlstore#version}.
+ */
+public class SqlSchemaSnapshotStoreFrontend implements ISqlSchemaFrontend {
+
+	public static final char VERSION_SEPARATOR = '#';
+
+	private String storeFilePath;
+
+	private String version;
+
+	public SqlSchemaSnapshotStoreFrontend(String reference) {
+		this(getStoreFilePath(reference), getVersion(reference));
+	}
+
+	public SqlSchemaSnapshotStoreFrontend(String storeFilePath, String version) {
+		if (storeFilePath == null || storeFilePath == "")
+			throw new InvalidPathException("", "Path to schema snapshot store file must not be null or empty!");
+
+		if (version == null || version.isEmpty())
+			throw new IllegalArgumentException("Schema version must not be null or empty!");
+
+		this.storeFilePath = storeFilePath;
+		this.version = version;
+	}
+
+	public static boolean isStoreReference(String reference) {
+		return reference != null
+				&& reference.contains(SqlSchemaSnapshotStore.FILE_EXTENSION + VERSION_SEPARATOR);
+	}
+
+	public static String getStoreFilePath(String reference) {
+		int separator = getSeparatorIndex(reference);
+
+		return reference.substring(0, separator);
+	}
+
+	public static String getVersion(String reference) {
+		int separator = getSeparatorIndex(reference);
+
+		return reference.substring(separator + 1);
+	}
+
+	private static int getSeparatorIndex(String reference) {
+		if (!isStoreReference(reference))
+			throw new IllegalArgumentException("Not a schema snapshot store reference: " + reference);
+
+		return reference.lastIndexOf(SqlSchemaSnapshotStore.FILE_EXTENSION + VERSION_SEPARATOR)
+				+ SqlSchemaSnapshotStore.FILE_EXTENSION.length();
+	}
+
+	@Override
+	public DirectedGraph<IStructureElement, DefaultEdge> createSqlSchema() {
+		DirectedGraph<IStructureElement, DefaultEdge> schema = null;
+
+		try {
+			SqlSchemaSnapshotStore store = new SqlSchemaSnapshotStore(storeFilePath, false);
+
+			try {
+				schema = store.load(version);
+			} finally {
+				store.close();
+			}
+		} catch (IOException ex) {
+			ex.printStackTrace(System.err);
+		}
+
+		return schema;
+	}
+
+}
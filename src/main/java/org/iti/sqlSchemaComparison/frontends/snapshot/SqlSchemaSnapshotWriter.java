@@ -0,0 +1,270 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends.snapshot;
+
+import static org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotFormat.*;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.iti.sqlSchemaComparison.edge.ColumnHasConstraint;
+import org.iti.sqlSchemaComparison.edge.ColumnHasType;
+import org.iti.sqlSchemaComparison.edge.IForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnConstraintVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnTypeVertex;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Writes a schema graph as a binary snapshot that can be read by
+ * {@link SqlSchemaSnapshotFrontend}. Vertices and edges are written in a
+ * canonical order, so writing the same schema twice yields the same bytes.
+ */
+public class SqlSchemaSnapshotWriter {
+
+	private final DirectedGraph<IStructureElement, DefaultEdge> schema;
+
+	private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+	public SqlSchemaSnapshotWriter(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		if (schema == null)
+			throw new IllegalArgumentException("Schema must not be null!");
+
+		this.schema = schema;
+	}
+
+	public void write(String filePath) throws IOException {
+		Path snapshotFile = Paths.get(filePath).toAbsolutePath();
+		Path tempFile = Files.createTempFile(snapshotFile.getParent(), snapshotFile.getFileName().toString(), ".tmp");
+
+		try {
+			OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile));
+
+			try {
+				write(out);
+			} finally {
+				out.close();
+			}
+
+			Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	public void write(OutputStream outputStream) throws IOException {
+		strings.clear();
+
+		List<IStructureElement> vertices = getSortedVertices();
+		Map<IStructureElement, Integer> vertexIndices = new HashMap<>();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		DataOutputStream bodyOut = new DataOutputStream(body);
+
+		writeVarInt(bodyOut, vertices.size());
+
+		for (IStructureElement vertex : vertices) {
+			vertexIndices.put(vertex, vertexIndices.size());
+			writeVertex(bodyOut, vertex);
+		}
+
+		List<DefaultEdge> edges = getSortedEdges(vertexIndices);
+
+		writeVarInt(bodyOut, edges.size());
+
+		for (DefaultEdge edge : edges)
+			writeEdge(bodyOut, edge, vertexIndices);
+
+		bodyOut.flush();
+
+		DataOutputStream out = new DataOutputStream(outputStream);
+
+		out.writeInt(MAGIC);
+		writeVarInt(out, VERSION);
+		writeVarInt(out, strings.size());
+
+		for (String string : strings.keySet()) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+			writeVarInt(out, bytes.length);
+			out.write(bytes);
+		}
+
+		body.writeTo(out);
+		out.flush();
+	}
+
+	private void writeVertex(DataOutputStream out, IStructureElement vertex) throws IOException {
+		if (vertex instanceof SqlTableVertex) {
+			out.writeByte(TABLE_VERTEX);
+			writeString(out, ((SqlTableVertex) vertex).getName());
+		} else if (vertex instanceof SqlColumnVertex) {
+			SqlColumnVertex column = (SqlColumnVertex) vertex;
+
+			out.writeByte(COLUMN_VERTEX);
+			writeString(out, column.getName());
+			writeString(out, column.getTable());
+			writeVarInt(out, column.isMandatory() ? MANDATORY_COLUMN : 0);
+		} else if (vertex instanceof ColumnTypeVertex) {
+			out.writeByte(COLUMN_TYPE_VERTEX);
+			writeString(out, getColumnName(vertex));
+			writeString(out, ((ColumnTypeVertex) vertex).getColumnType());
+		} else if (vertex instanceof ColumnConstraintVertex) {
+			ColumnConstraintVertex constraint = (ColumnConstraintVertex) vertex;
+
+			out.writeByte(COLUMN_CONSTRAINT_VERTEX);
+			writeString(out, getColumnName(vertex));
+			writeString(out, constraint.getConstraintType().name());
+			writeString(out, constraint.getConstraintExpression());
+		} else {
+			throw new IllegalArgumentException("Unsupported vertex type: " + vertex.getClass().getName());
+		}
+	}
+
+	private void writeEdge(DataOutputStream out, DefaultEdge edge, Map<IStructureElement, Integer> vertexIndices) throws IOException {
+		if (edge instanceof TableHasColumnEdge)
+			out.writeByte(TABLE_HAS_COLUMN_EDGE);
+		else if (edge instanceof ColumnHasType)
+			out.writeByte(COLUMN_HAS_TYPE_EDGE);
+		else if (edge instanceof ColumnHasConstraint)
+			out.writeByte(COLUMN_HAS_CONSTRAINT_EDGE);
+		else if (edge instanceof IForeignKeyRelationEdge)
+			out.writeByte(FOREIGN_KEY_RELATION_EDGE);
+		else
+			throw new IllegalArgumentException("Unsupported edge type: " + edge.getClass().getName());
+
+		writeVarInt(out, vertexIndices.get(schema.getEdgeSource(edge)));
+		writeVarInt(out, vertexIndices.get(schema.getEdgeTarget(edge)));
+
+		if (edge instanceof IForeignKeyRelationEdge) {
+			Integer foreignKeyTable = vertexIndices.get(((IForeignKeyRelationEdge) edge).getForeignKeyTable());
+
+			if (foreignKeyTable == null)
+				throw new IllegalArgumentException("Foreign key references a table that is not part of the schema: " + edge);
+
+			writeVarInt(out, foreignKeyTable);
+		}
+	}
+
+	private void writeString(DataOutputStream out, String string) throws IOException {
+		Integer index = strings.get(string);
+
+		if (index == null) {
+			index = strings.size();
+			strings.put(string, index);
+		}
+
+		writeVarInt(out, index);
+	}
+
+	private String getColumnName(IStructureElement vertex) {
+		for (DefaultEdge edge : schema.incomingEdgesOf(vertex)) {
+			IStructureElement source = schema.getEdgeSource(edge);
+
+			if (source instanceof SqlColumnVertex)
+				return ((SqlColumnVertex) source).getName();
+		}
+
+		return "";
+	}
+
+	private List<IStructureElement> getSortedVertices() {
+		final Map<IStructureElement, String> keys = new HashMap<>();
+
+		for (IStructureElement vertex : schema.vertexSet())
+			keys.put(vertex, getSortKey(vertex));
+
+		List<IStructureElement> vertices = new ArrayList<>(schema.vertexSet());
+
+		Collections.sort(vertices, new Comparator<IStructureElement>() {
+
+			@Override
+			public int compare(IStructureElement v1, IStructureElement v2) {
+				return keys.get(v1).compareTo(keys.get(v2));
+			}
+		});
+
+		return vertices;
+	}
+
+	private String getSortKey(IStructureElement vertex) {
+		if (vertex instanceof SqlTableVertex)
+			return "0:" + ((SqlTableVertex) vertex).getName();
+
+		if (vertex instanceof SqlColumnVertex)
+			return getColumnSortKey((SqlColumnVertex) vertex);
+
+		String owner = "";
+
+		for (DefaultEdge edge : schema.incomingEdgesOf(vertex)) {
+			IStructureElement source = schema.getEdgeSource(edge);
+
+			if (source instanceof SqlColumnVertex)
+				owner = getColumnSortKey((SqlColumnVertex) source);
+		}
+
+		return "2:" + owner + ":" + vertex.getClass().getSimpleName() + ":" + vertex.getName();
+	}
+
+	private String getColumnSortKey(SqlColumnVertex column) {
+		return "1:" + column.getTable() + "." + column.getName();
+	}
+
+	private List<DefaultEdge> getSortedEdges(final Map<IStructureElement, Integer> vertexIndices) {
+		List<DefaultEdge> edges = new ArrayList<>(schema.edgeSet());
+
+		Collections.sort(edges, new Comparator<DefaultEdge>() {
+
+			@Override
+			public int compare(DefaultEdge e1, DefaultEdge e2) {
+				int result = Integer.compare(vertexIndices.get(schema.getEdgeSource(e1)), vertexIndices.get(schema.getEdgeSource(e2)));
+
+				if (result == 0)
+					result = Integer.compare(vertexIndices.get(schema.getEdgeTarget(e1)), vertexIndices.get(schema.getEdgeTarget(e2)));
+
+				return result;
+			}
+		});
+
+		return edges;
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.frontends.technologies;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The facts of a single {@code @Entity} class which are needed to create the
+ * SQL schema. Facts do not depend on the AST and may therefore be cached.
+ */
+class JPAEntityFacts implements Serializable {
+
+	private static final long serialVersionUID = -1306357052370218497L;
+
+	static class Property implements Serializable {
+
+		private static final long serialVersionUID = 2816427120450432683L;
+
+		String columnName;
+
+		String type;
+
+		boolean id;
+
+		boolean persistent;
+
+		boolean relationship;
+
+		transient Object sourceElement;
+
+	}
+
+	String className;
+
+	String tableName;
+
+	List<String> supertypes = new ArrayList<>();
+
+	List<Property> properties = new ArrayList<>();
+
+	transient Object sourceElement;
+
+}
@@ -0,0 +1,179 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.frontends.technologies;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk cache of the {@link JPAEntityFacts} of JPA source files. Entries
+ * are keyed by the path of a source file and only valid as long as the hash
+ * of the file content does not change. The AST nodes referenced by the facts
+ * are transient, so cached facts have no source elements.
+ */
+class JPAFactsCache {
+
+	private static final int VERSION = 1;
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+
+	private static class Entry implements Serializable {
+
+		private static final long serialVersionUID = 4460215314930212262L;
+
+		private String contentHash;
+
+		private List<JPAEntityFacts> entities;
+
+		public Entry(String contentHash, List<JPAEntityFacts> entities) {
+			this.contentHash = contentHash;
+			this.entities = entities;
+		}
+	}
+
+	private Path cacheFile;
+
+	private Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private AtomicInteger hitCount = new AtomicInteger();
+
+	private AtomicInteger missCount = new AtomicInteger();
+
+	public int getHitCount() {
+		return hitCount.get();
+	}
+
+	public int getMissCount() {
+		return missCount.get();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public JPAFactsCache(String cacheFilePath) {
+		if (cacheFilePath == null || cacheFilePath.isEmpty())
+			throw new NullPointerException("Path to JPA cache file must not be null or empty!");
+
+		this.cacheFile = Paths.get(cacheFilePath);
+	}
+
+	public static String getKey(Path file) {
+		return file.toAbsolutePath().normalize().toString();
+	}
+
+	public static String getContentHash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM).digest(content);
+			StringBuilder hash = new StringBuilder(digest.length * 2);
+
+			for (byte b : digest)
+				hash.append(String.format("%02x", b));
+
+			return hash.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public List<JPAEntityFacts> get(String key, String contentHash) {
+		Entry entry = entries.get(key);
+
+		if (entry != null && entry.contentHash.equals(contentHash)) {
+			hitCount.incrementAndGet();
+
+			return entry.entities;
+		}
+
+		missCount.incrementAndGet();
+
+		return null;
+	}
+
+	public void put(String key, String contentHash, List<JPAEntityFacts> entities) {
+		entries.put(key, new Entry(contentHash, entities));
+	}
+
+	public void retainAll(Collection<String> keys) {
+		entries.keySet().retainAll(keys);
+	}
+
+	@SuppressWarnings("unchecked")
+	public void load() {
+		entries.clear();
+		hitCount.set(0);
+		missCount.set(0);
+
+		if (!Files.isRegularFile(cacheFile))
+			return;
+
+		try {
+			ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)));
+
+			try {
+				if (in.readInt() == VERSION)
+					entries.putAll((Map<String, Entry>) in.readObject());
+			} finally {
+				in.close();
+			}
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			entries.clear();
+		}
+	}
+
+	public void save() throws IOException {
+		Path directory = cacheFile.toAbsolutePath().getParent();
+		Path tempFile = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+
+		try {
+			ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)));
+
+			try {
+				out.writeInt(VERSION);
+				out.writeObject(new HashMap<>(entries));
+			} finally {
+				out.close();
+			}
+
+			Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+}
@@ -21,21 +21,31 @@
 
 package org.iti.sqlSchemaComparison.frontends.technologies;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FilenameFilter;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.iti.sqlSchemaComparison.edge.ColumnHasConstraint;
 import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
 import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
 import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
 import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
 import org.iti.sqlSchemaComparison.vertex.SqlElementType;
@@ -44,9 +54,7 @@ import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnConstraintVertex;
 import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint.ConstraintType;
 import org.iti.structureGraph.nodes.IStructureElement;
 import org.jgrapht.DirectedGraph;
-import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.SimpleDirectedGraph;
 
 import japa.parser.JavaParser;
 import japa.parser.ParseException;
@@ -63,168 +71,18 @@ public class JPASchemaFrontend implements IJPASchemaFrontend {
 
 	private String filePath;
 
-	private static class JPAAnnotationVisitor extends VoidVisitorAdapter<DirectedGraph<IStructureElement, DefaultEdge>> {
+	private int workerCount = Runtime.getRuntime().availableProcessors();
 
-		public Map<String, String> classToTable = new HashMap<>();
-		public Map<String, ClassOrInterfaceDeclaration> classDeclarations = new HashMap<>();
-
-		private final static String TRANSIENT = "Transient";
-		private final static String ID = "Id";
-
-		private DirectedGraph<IStructureElement, DefaultEdge> schema;
-
-		private ISqlElement lastVisitedClass;
-
-		public JPAAnnotationVisitor(DirectedGraph<IStructureElement, DefaultEdge> schema) {
-			this.schema = schema;
-		}
-
-		@Override
-		public void visit(ClassOrInterfaceDeclaration n, DirectedGraph<IStructureElement, DefaultEdge> arg) {
-
-			if (n.getAnnotations() != null && isAnnotationAvailable(n.getAnnotations(), ENTITY)) {
-				processClass(n);
-			}
-
-			super.visit(n, arg);
-		}
-
-		private void processClass(ClassOrInterfaceDeclaration n) {
-			String tableName = getTableName(n);
-			ISqlElement table = SqlElementFactory.createSqlElement(SqlElementType.Table, tableName);
-
-			table.setSourceElement(n);
-
-			schema.addVertex(table);
-
-			lastVisitedClass = table;
-
-			classToTable.put(n.getName().toString(), tableName);
-			classDeclarations.put(n.getName(), n);
-		}
-
-		@Override
-		public void visit(MethodDeclaration n, DirectedGraph<IStructureElement, DefaultEdge> arg) {
-
-			if (isGetter(n) && (n.getAnnotations() == null || !isAnnotationAvailable(n.getAnnotations(), TRANSIENT))) {
-				processMethod(n);
-			}
-
-			super.visit(n, arg);
-		}
-
-		private boolean isGetter(MethodDeclaration n) {
-			return n.getName().startsWith(GETTER_PREFIX);
-		}
-
-		private void processMethod(MethodDeclaration n) {
-			String columnName = getColumnName(n);
-			ISqlElement column = new SqlColumnVertex(columnName, lastVisitedClass.getName());
-
-			schema.addVertex(column);
-			schema.addEdge(lastVisitedClass, column, new TableHasColumnEdge(lastVisitedClass, column));
-
-			column.setSourceElement(n);
-
-			if (isAnnotationAvailable(n.getAnnotations(), ID)) {
-				ISqlElement columnConstraint = new ColumnConstraintVertex(columnName, ConstraintType.PRIMARY_KEY);
-
-				schema.addVertex(columnConstraint);
-				schema.addEdge(column, columnConstraint, new ColumnHasConstraint());
-			}
-		}
+	private JPAFactsCache factsCache = null;
 
+	JPAFactsCache getFactsCache() {
+		return factsCache;
 	}
 
-	private static class PrimaryKeyVisitor extends VoidVisitorAdapter<DirectedGraph<IStructureElement, DefaultEdge>> {
-
-		private DirectedGraph<IStructureElement, DefaultEdge> schema;
-
-		private Map<String, String> classToTable;
-
-		private Map<String, ClassOrInterfaceDeclaration> classDeclarations = new HashMap<>();
-
-		public PrimaryKeyVisitor(DirectedGraph<IStructureElement, DefaultEdge> schema,
-				Map<String, String> classToTable,
-				Map<String, ClassOrInterfaceDeclaration> classDeclarations) {
-			this.schema = schema;
-			this.classToTable = classToTable;
-			this.classDeclarations = classDeclarations;
-		}
-
-		@Override
-		public void visit(ClassOrInterfaceDeclaration n, DirectedGraph<IStructureElement, DefaultEdge> arg) {
-
-			if (n.getAnnotations() != null && isAnnotationAvailable(n.getAnnotations(), ENTITY)) {
-				processClass(n);
-			}
-
-			super.visit(n, arg);
-		}
-
-		private void processClass(ClassOrInterfaceDeclaration n) {
-			ISqlElement primaryKeyColumn = getPrimaryKeyOfType(n);
-
-			if (primaryKeyColumn == null) {
-				primaryKeyColumn = getPrimaryKeyOfSupertypes(n.getExtends());
-
-				setPrimaryKeyOfTable(n, primaryKeyColumn);
-			}
-		}
-
-		private void setPrimaryKeyOfTable(ClassOrInterfaceDeclaration n, ISqlElement primaryKeyColumn) {
-			if (primaryKeyColumn != null && primaryKeyColumn instanceof SqlColumnVertex) {
-				String tableId = classToTable.get(n.getName().toString());
-				ISqlElement table = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, tableId, schema.vertexSet());
-				SqlColumnVertex foreignKeyColumn = (SqlColumnVertex)primaryKeyColumn;
-				ISqlElement foreignKeyTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, foreignKeyColumn.getTable(), schema.vertexSet());
-				String columnName = foreignKeyColumn.getName();
-				ISqlElement column = new SqlColumnVertex(columnName, table.getName());
-
-				schema.addVertex(column);
-				schema.addEdge(table, column, new TableHasColumnEdge(table, column));
-				schema.addEdge(table, column, new ForeignKeyRelationEdge(column, foreignKeyTable, foreignKeyColumn));
-
-				column.setSourceElement(n);
-
-				ISqlElement columnConstraint = new ColumnConstraintVertex(columnName, ConstraintType.PRIMARY_KEY);
-
-				schema.addVertex(columnConstraint);
-				schema.addEdge(column, columnConstraint, new ColumnHasConstraint());
-			}
-		}
-
-		private ISqlElement getPrimaryKeyOfSupertypes(
-				List<ClassOrInterfaceType> supertypes) {
-
-			ISqlElement primaryKeyColumn = null;
-
-			for (ClassOrInterfaceType supertype : supertypes) {
-				ClassOrInterfaceDeclaration superclass = classDeclarations.get(supertype.getName());
-
-				if (superclass != null) {
-					primaryKeyColumn = getPrimaryKeyOfType(superclass);
-
-					if (primaryKeyColumn != null)
-						break;
-
-					primaryKeyColumn = getPrimaryKeyOfSupertypes(superclass.getExtends());
-				}
-			}
-
-			return primaryKeyColumn;
-		}
+	private static class JPAFactsVisitor extends VoidVisitorAdapter<Object> {
 
-		private ISqlElement getPrimaryKeyOfType(ClassOrInterfaceDeclaration type) {
-			String tableId = classToTable.get(type.getName().toString());
-			ISqlElement table = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, tableId, schema.vertexSet());
-
-			return SqlElementFactory.getPrimaryKey(table, schema);
-		}
-
-	}
-
-	private static class ForeignKeyVisitor extends VoidVisitorAdapter<Graph<ISqlElement, DefaultEdge>> {
+		private final static String TRANSIENT = "Transient";
+		private final static String ID = "Id";
 
 		private final static String[] RELATIONSHIP_ANNOTATIONS = new String[]
 		{
@@ -234,19 +92,12 @@ public class JPASchemaFrontend implements IJPASchemaFrontend {
 			"OneToOne"
 		};
 
-		private DirectedGraph<IStructureElement, DefaultEdge> schema;
-
-		private Map<String, String> classToTable = new HashMap<>();
-
-		private ISqlElement lastVisitedClass;
+		public List<JPAEntityFacts> entities = new ArrayList<>();
 
-		public ForeignKeyVisitor(DirectedGraph<IStructureElement, DefaultEdge> schema, Map<String, String> classToTable) {
-			this.schema = schema;
-			this.classToTable = classToTable;
-		}
+		private JPAEntityFacts lastVisitedClass;
 
 		@Override
-		public void visit(ClassOrInterfaceDeclaration n, Graph<ISqlElement, DefaultEdge> arg) {
+		public void visit(ClassOrInterfaceDeclaration n, Object arg) {
 
 			if (n.getAnnotations() != null && isAnnotationAvailable(n.getAnnotations(), ENTITY)) {
 				processClass(n);
@@ -256,15 +107,26 @@ public class JPASchemaFrontend implements IJPASchemaFrontend {
 		}
 
 		private void processClass(ClassOrInterfaceDeclaration n) {
-			String id = getTableName(n);
+			JPAEntityFacts entity = new JPAEntityFacts();
+
+			entity.className = n.getName();
+			entity.tableName = getTableName(n);
+			entity.sourceElement = n;
+
+			if (n.getExtends() != null) {
+				for (ClassOrInterfaceType supertype : n.getExtends())
+					entity.supertypes.add(supertype.getName());
+			}
+
+			entities.add(entity);
 
-			lastVisitedClass = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, id, schema.vertexSet());
+			lastVisitedClass = entity;
 		}
 
 		@Override
-		public void visit(MethodDeclaration n, Graph<ISqlElement, DefaultEdge> arg) {
+		public void visit(MethodDeclaration n, Object arg) {
 
-			if (isGetter(n) && (n.getAnnotations() != null && isAnnotationAvailable(n.getAnnotations(), RELATIONSHIP_ANNOTATIONS))) {
+			if (lastVisitedClass != null && isGetter(n)) {
 				processMethod(n);
 			}
 
@@ -276,15 +138,16 @@ public class JPASchemaFrontend implements IJPASchemaFrontend {
 		}
 
 		private void processMethod(MethodDeclaration n) {
-			String columnId = lastVisitedClass.getName() + "." + getColumnName(n);
-			String foreignTableId = classToTable.get(n.getType().toString());
-			ISqlElement foreignKeyTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, foreignTableId, schema.vertexSet());
-			ISqlElement referencingColumn = SqlElementFactory.getMatchingSqlColumns(columnId, schema.vertexSet(), true).get(0);
-			ISqlElement foreignKeyColumn = SqlElementFactory.getPrimaryKey(foreignKeyTable, schema);
-
-			if (referencingColumn != null && foreignKeyColumn != null) {
-				schema.addEdge(referencingColumn, foreignKeyColumn, new ForeignKeyRelationEdge(referencingColumn, foreignKeyTable, foreignKeyColumn));
-			}
+			JPAEntityFacts.Property property = new JPAEntityFacts.Property();
+
+			property.columnName = getColumnName(n);
+			property.type = n.getType().toString();
+			property.id = isAnnotationAvailable(n.getAnnotations(), ID);
+			property.persistent = n.getAnnotations() == null || !isAnnotationAvailable(n.getAnnotations(), TRANSIENT);
+			property.relationship = n.getAnnotations() != null && isAnnotationAvailable(n.getAnnotations(), RELATIONSHIP_ANNOTATIONS);
+			property.sourceElement = n;
+
+			lastVisitedClass.properties.add(property);
 		}
 
 	}
@@ -362,93 +225,296 @@ public class JPASchemaFrontend implements IJPASchemaFrontend {
 		return schema;
 	}
 
-	private static FilenameFilter javaFilenameFilter = new FilenameFilter() {
+	private DirectedGraph<IStructureElement, DefaultEdge> tryCreateSqlSchema() throws ParseException, IOException {
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new IndexedSqlSchema();
+		Map<String, String> classToTable = new HashMap<>();
+		Map<String, JPAEntityFacts> classDeclarations = new HashMap<>();
+		List<Path> files = getJavaFiles(Paths.get(filePath));
 
-		@Override
-		public boolean accept(File arg0, String arg1) {
-			return arg1.endsWith(".java");
+		if (factsCache != null)
+			factsCache.load();
+
+		List<JPAEntityFacts> entities = getEntityFacts(files, schema, classToTable, classDeclarations);
+
+		if (factsCache != null)
+			saveFactsCache(files);
+
+		for (JPAEntityFacts entity : entities) {
+			createForeignKeyPrimaryRelationships(entity, schema, classToTable, classDeclarations);
 		}
-	};
 
-	private DirectedGraph<IStructureElement, DefaultEdge> tryCreateSqlSchema() throws ParseException, IOException {
-		DirectedGraph<IStructureElement, DefaultEdge> schema = new SimpleDirectedGraph<IStructureElement, DefaultEdge>(DefaultEdge.class);
-		File file = new File(filePath);
-		List<CompilationUnit> cus = new ArrayList<>();
-		Map<String, String> classToTable = new HashMap<>();
-		Map<String, ClassOrInterfaceDeclaration> classDeclarations = new HashMap<>();
+		for (JPAEntityFacts entity : entities) {
+			createForeignKeyRelationships(entity, schema, classToTable);
+		}
+
+        return schema;
+	}
+
+	private void saveFactsCache(List<Path> files) {
+		List<String> keys = new ArrayList<>();
+
+		for (Path f : files)
+			keys.add(JPAFactsCache.getKey(f));
+
+		factsCache.retainAll(keys);
 
-		if (file.isDirectory()) {
-			for (String f : file.list(javaFilenameFilter)) {
-				File child = new File(file, f);
+		try {
+			factsCache.save();
+		} catch (IOException e) {
+			e.printStackTrace(System.err);
+		}
+	}
+
+	private List<Path> getJavaFiles(Path root) throws IOException {
+		final List<Path> files = new ArrayList<>();
+
+		if (!Files.isDirectory(root)) {
+			files.add(root);
+
+			return files;
+		}
 
-				CompilationUnit cu = getCompilationUnit(child.getAbsolutePath());
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
 
-				if (cu != null)
-					cus.add(cu);
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (attrs.isRegularFile() && file.getFileName().toString().endsWith(".java"))
+					files.add(file);
+
+				return FileVisitResult.CONTINUE;
 			}
-		} else {
-			CompilationUnit cu = getCompilationUnit(filePath);
+		});
+
+		Collections.sort(files);
+
+		return files;
+	}
+
+	private List<JPAEntityFacts> getEntityFacts(List<Path> files,
+			DirectedGraph<IStructureElement, DefaultEdge> schema,
+			Map<String, String> classToTable,
+			Map<String, JPAEntityFacts> classDeclarations)
+			throws ParseException, IOException {
+		List<JPAEntityFacts> entities = new ArrayList<>();
 
-			if (cu != null)
-				cus.add(cu);
+		if (workerCount <= 1 || files.size() <= 1) {
+			for (Path f : files)
+				addEntityFacts(entities, getEntityFacts(f), schema, classToTable, classDeclarations);
+
+			return entities;
 		}
 
-		for (CompilationUnit c : cus) {
-			parseJavaCompilationUnit(c, schema, classToTable, classDeclarations);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(workerCount, files.size()));
+
+		try {
+			List<Future<List<JPAEntityFacts>>> parsedFiles = new ArrayList<>();
+
+			for (final Path f : files) {
+				parsedFiles.add(executor.submit(new Callable<List<JPAEntityFacts>>() {
+
+					@Override
+					public List<JPAEntityFacts> call() throws Exception {
+						return getEntityFacts(f);
+					}
+				}));
+			}
+
+			for (int i = 0; i < parsedFiles.size(); i++) {
+				addEntityFacts(entities, getParsedEntityFacts(parsedFiles.get(i)), schema, classToTable, classDeclarations);
+
+				parsedFiles.set(i, null);
+			}
+		} finally {
+			executor.shutdownNow();
 		}
 
-		for (CompilationUnit c : cus) {
-			createForeignKeyPrimaryRelationships(c, schema, classToTable, classDeclarations);
+		return entities;
+	}
+
+	private void addEntityFacts(List<JPAEntityFacts> entities, List<JPAEntityFacts> facts,
+			DirectedGraph<IStructureElement, DefaultEdge> schema,
+			Map<String, String> classToTable,
+			Map<String, JPAEntityFacts> classDeclarations) {
+		for (JPAEntityFacts entity : facts) {
+			createTable(entity, schema, classToTable, classDeclarations);
+
+			entities.add(entity);
+		}
+	}
+
+	private List<JPAEntityFacts> getParsedEntityFacts(Future<List<JPAEntityFacts>> parsedFile)
+			throws ParseException, IOException {
+		try {
+			return parsedFile.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new IOException("Parsing of JPA files has been interrupted!", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof ParseException)
+				throw (ParseException) e.getCause();
+
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+
+			throw new IllegalStateException(e.getCause());
 		}
+	}
+
+	private List<JPAEntityFacts> getEntityFacts(Path file) throws ParseException, IOException {
+		byte[] content = Files.readAllBytes(file);
+		String key = null;
+		String contentHash = null;
 
-		for (CompilationUnit c : cus) {
-			createForeignKeyRelationships(c, schema, classToTable);
+		if (factsCache != null) {
+			key = JPAFactsCache.getKey(file);
+			contentHash = JPAFactsCache.getContentHash(content);
+
+			List<JPAEntityFacts> entities = factsCache.get(key, contentHash);
+
+			if (entities != null)
+				return entities;
 		}
 
-        return schema;
+		CompilationUnit cu = JavaParser.parse(new ByteArrayInputStream(content));
+		JPAFactsVisitor visitor = new JPAFactsVisitor();
+
+		visitor.visit(cu, null);
+
+		if (factsCache != null)
+			factsCache.put(key, contentHash, visitor.entities);
+
+		return visitor.entities;
+	}
+
+	private void createTable(JPAEntityFacts entity,
+			DirectedGraph<IStructureElement, DefaultEdge> schema,
+			Map<String, String> classToTable,
+			Map<String, JPAEntityFacts> classDeclarations) {
+		ISqlElement table = SqlElementFactory.createSqlElement(SqlElementType.Table, entity.tableName);
+
+		table.setSourceElement(entity.sourceElement);
+
+		schema.addVertex(table);
+
+		classToTable.put(entity.className, entity.tableName);
+		classDeclarations.put(entity.className, entity);
+
+		for (JPAEntityFacts.Property property : entity.properties) {
+			if (property.persistent)
+				createColumn(table, property, schema);
+		}
 	}
 
-	private CompilationUnit getCompilationUnit(String filePath)
-			throws FileNotFoundException, ParseException, IOException {
-		FileInputStream in = new FileInputStream(filePath);
+	private void createColumn(ISqlElement table, JPAEntityFacts.Property property,
+			DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		ISqlElement column = new SqlColumnVertex(property.columnName, table.getName());
 
-        CompilationUnit cu;
+		schema.addVertex(column);
+		schema.addEdge(table, column, new TableHasColumnEdge(table, column));
 
-        try {
-            // parse the file
-            cu = JavaParser.parse(in);
-        } finally {
-            in.close();
-        }
+		column.setSourceElement(property.sourceElement);
 
-        return cu;
+		if (property.id) {
+			ISqlElement columnConstraint = new ColumnConstraintVertex(property.columnName, ConstraintType.PRIMARY_KEY);
+
+			schema.addVertex(columnConstraint);
+			schema.addEdge(column, columnConstraint, new ColumnHasConstraint());
+		}
 	}
 
-	private void parseJavaCompilationUnit(CompilationUnit cu,
+	private void createForeignKeyPrimaryRelationships(JPAEntityFacts entity,
 			DirectedGraph<IStructureElement, DefaultEdge> schema,
 			Map<String, String> classToTable,
-			Map<String, ClassOrInterfaceDeclaration> classDeclarations) {
-		JPAAnnotationVisitor visitor = new JPAAnnotationVisitor(schema);
-		visitor.visit(cu, null);
+			Map<String, JPAEntityFacts> classDeclarations) {
+		ISqlElement primaryKeyColumn = getPrimaryKeyOfType(entity, schema, classToTable);
+
+		if (primaryKeyColumn == null) {
+			primaryKeyColumn = getPrimaryKeyOfSupertypes(entity.supertypes, schema, classToTable, classDeclarations);
 
-		classToTable.putAll(visitor.classToTable);
-		classDeclarations.putAll(visitor.classDeclarations);
+			setPrimaryKeyOfTable(entity, primaryKeyColumn, schema, classToTable);
+		}
 	}
 
-	private void createForeignKeyPrimaryRelationships(CompilationUnit cu,
+	private void setPrimaryKeyOfTable(JPAEntityFacts entity, ISqlElement primaryKeyColumn,
+			DirectedGraph<IStructureElement, DefaultEdge> schema,
+			Map<String, String> classToTable) {
+		if (primaryKeyColumn != null && primaryKeyColumn instanceof SqlColumnVertex) {
+			String tableId = classToTable.get(entity.className);
+			ISqlElement table = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, tableId, schema.vertexSet());
+			SqlColumnVertex foreignKeyColumn = (SqlColumnVertex)primaryKeyColumn;
+			ISqlElement foreignKeyTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, foreignKeyColumn.getTable(), schema.vertexSet());
+			String columnName = foreignKeyColumn.getName();
+			ISqlElement column = new SqlColumnVertex(columnName, table.getName());
+
+			schema.addVertex(column);
+			schema.addEdge(table, column, new TableHasColumnEdge(table, column));
+			schema.addEdge(table, column, new ForeignKeyRelationEdge(column, foreignKeyTable, foreignKeyColumn));
+
+			column.setSourceElement(entity.sourceElement);
+
+			ISqlElement columnConstraint = new ColumnConstraintVertex(columnName, ConstraintType.PRIMARY_KEY);
+
+			schema.addVertex(columnConstraint);
+			schema.addEdge(column, columnConstraint, new ColumnHasConstraint());
+		}
+	}
+
+	private ISqlElement getPrimaryKeyOfSupertypes(List<String> supertypes,
 			DirectedGraph<IStructureElement, DefaultEdge> schema,
 			Map<String, String> classToTable,
-			Map<String, ClassOrInterfaceDeclaration> classDeclarations) {
-		PrimaryKeyVisitor visitor = new PrimaryKeyVisitor(schema, classToTable, classDeclarations);
-		visitor.visit(cu, null);
+			Map<String, JPAEntityFacts> classDeclarations) {
+
+		ISqlElement primaryKeyColumn = null;
+
+		for (String supertype : supertypes) {
+			JPAEntityFacts superclass = classDeclarations.get(supertype);
+
+			if (superclass != null) {
+				primaryKeyColumn = getPrimaryKeyOfType(superclass, schema, classToTable);
+
+				if (primaryKeyColumn != null)
+					break;
+
+				primaryKeyColumn = getPrimaryKeyOfSupertypes(superclass.supertypes, schema, classToTable, classDeclarations);
+			}
+		}
+
+		return primaryKeyColumn;
 	}
 
-	private void createForeignKeyRelationships(CompilationUnit cu,
+	private ISqlElement getPrimaryKeyOfType(JPAEntityFacts entity,
 			DirectedGraph<IStructureElement, DefaultEdge> schema,
 			Map<String, String> classToTable) {
+		String tableId = classToTable.get(entity.className);
+		ISqlElement table = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, tableId, schema.vertexSet());
 
-		ForeignKeyVisitor visitor = new ForeignKeyVisitor(schema, classToTable);
-		visitor.visit(cu, null);
+		return SqlElementFactory.getPrimaryKey(table, schema);
+	}
+
+	private void createForeignKeyRelationships(JPAEntityFacts entity,
+			DirectedGraph<IStructureElement, DefaultEdge> schema,
+			Map<String, String> classToTable) {
+		ISqlElement table = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, entity.tableName, schema.vertexSet());
+
+		for (JPAEntityFacts.Property property : entity.properties) {
+			if (property.relationship)
+				createForeignKeyRelationship(table, property, schema, classToTable);
+		}
+	}
+
+	private void createForeignKeyRelationship(ISqlElement table, JPAEntityFacts.Property property,
+			DirectedGraph<IStructureElement, DefaultEdge> schema,
+			Map<String, String> classToTable) {
+		String columnId = table.getName() + "." + property.columnName;
+		String foreignTableId = classToTable.get(property.type);
+		ISqlElement foreignKeyTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, foreignTableId, schema.vertexSet());
+		ISqlElement referencingColumn = SqlElementFactory.getMatchingSqlColumns(columnId, schema.vertexSet(), true).get(0);
+		ISqlElement foreignKeyColumn = SqlElementFactory.getPrimaryKey(foreignKeyTable, schema);
+
+		if (referencingColumn != null && foreignKeyColumn != null) {
+			schema.addEdge(referencingColumn, foreignKeyColumn, new ForeignKeyRelationEdge(referencingColumn, foreignKeyTable, foreignKeyColumn));
+		}
 	}
 
 	public JPASchemaFrontend(String filePath) {
@@ -458,4 +524,38 @@ public class JPASchemaFrontend implements IJPASchemaFrontend {
 		this.filePath = filePath;
 	}
 
+	public JPASchemaFrontend(String filePath, int workerCount) {
+		this(filePath);
+
+		if (workerCount < 1)
+			throw new IllegalArgumentException("Number of JPA parser workers must be positive!");
+
+		this.workerCount = workerCount;
+	}
+
+	/**
+	 * Creates a frontend that caches the entity facts of unchanged files in
+	 * the passed cache file. The cache does not keep the parsed AST: tables
+	 * and columns created from cached facts return {@code null} from
+	 * {@link ISqlElement#getSourceElement()}. Do not use the cache if source
+	 * elements are needed.
+	 */
+	public JPASchemaFrontend(String filePath, String cacheFilePath) {
+		this(filePath);
+
+		this.factsCache = new JPAFactsCache(cacheFilePath);
+	}
+
+	/**
+	 * Creates a frontend with the passed number of parser workers that
+	 * caches the entity facts of unchanged files in the passed cache file.
+	 * Tables and columns created from cached facts have no source element,
+	 * see {@link #JPASchemaFrontend(String, String)}.
+	 */
+	public JPASchemaFrontend(String filePath, int workerCount, String cacheFilePath) {
+		this(filePath, workerCount);
+
+		this.factsCache = new JPAFactsCache(cacheFilePath);
+	}
+
 }
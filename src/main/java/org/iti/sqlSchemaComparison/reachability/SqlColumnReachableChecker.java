@@ -24,21 +24,17 @@ package org.iti.sqlSchemaComparison.reachability;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.iti.sqlSchemaComparison.edge.IForeignKeyRelationEdge;
-import org.iti.sqlSchemaComparison.edge.ITableHasColumnEdge;
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
 import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
 import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
 import org.iti.structureGraph.nodes.IStructureElement;
 import org.jgrapht.DirectedGraph;
-import org.jgrapht.alg.DijkstraShortestPath;
-import org.jgrapht.graph.AsUndirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 
 public class SqlColumnReachableChecker implements
 		ISqlElementReachabilityChecker {
 
-	private DirectedGraph<IStructureElement, DefaultEdge> schema;
+	private SqlForeignKeyReachabilityIndex reachabilityIndex;
 	private SqlTableVertex sourceTable;
 	private SqlColumnVertex targetColumn;
 	
@@ -59,7 +55,13 @@ public class SqlColumnReachableChecker implements
 	public SqlColumnReachableChecker(DirectedGraph<IStructureElement, DefaultEdge> schema,
 			ISqlElement sourceTable,
 			ISqlElement targetColumn) {
-		this.schema = schema;
+		this(new SqlForeignKeyReachabilityIndex(schema), sourceTable, targetColumn);
+	}
+	
+	public SqlColumnReachableChecker(SqlForeignKeyReachabilityIndex reachabilityIndex,
+			ISqlElement sourceTable,
+			ISqlElement targetColumn) {
+		this.reachabilityIndex = reachabilityIndex;
 		this.sourceTable = (SqlTableVertex) sourceTable;
 		this.targetColumn = (SqlColumnVertex) targetColumn;
 		
@@ -67,33 +69,11 @@ public class SqlColumnReachableChecker implements
 	}
 	
 	private void CheckReachability() {
-		AsUndirectedGraph<IStructureElement, DefaultEdge> undirectedGraph = new AsUndirectedGraph<>(schema);
-		DijkstraShortestPath<IStructureElement, DefaultEdge> inspector
-			= new DijkstraShortestPath<IStructureElement, DefaultEdge>(undirectedGraph,
-																	   (IStructureElement)sourceTable,
-																	   (IStructureElement)targetColumn);
+		List<ISqlElement> shortestPath = reachabilityIndex.getPath(sourceTable, targetColumn);
 		
-		reachable = inspector.getPath() != null;
+		reachable = shortestPath != null;
 		
-		if (reachable) {
-			for (DefaultEdge edge : inspector.getPath().getEdgeList()) {
-				ISqlElement source = null;
-				ISqlElement target = null;
-				
-				if (edge instanceof ITableHasColumnEdge) {
-					source = ((ITableHasColumnEdge) edge).getTable();
-					target = ((ITableHasColumnEdge) edge).getColumn();
-				} else if (edge instanceof IForeignKeyRelationEdge) {
-					source = ((IForeignKeyRelationEdge) edge).getReferencingColumn();
-					target = ((IForeignKeyRelationEdge) edge).getForeignKeyColumn();
-				}
-				
-				if (!path.contains(source))
-					path.add(source);
-
-				if (!path.contains(target))
-					path.add(target);
-			}
-		}
+		if (reachable)
+			path.addAll(shortestPath);
 	}
 }
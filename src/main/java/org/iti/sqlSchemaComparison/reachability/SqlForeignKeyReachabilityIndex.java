@@ -0,0 +1,253 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.reachability;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.iti.sqlSchemaComparison.edge.IForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.edge.ITableHasColumnEdge;
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Reachability of columns over the table-level graph of foreign key joins.
+ * The connected components of the join graph are computed on construction;
+ * the BFS parent tree of a source table is computed on its first use and
+ * cached, so later reachability checks and paths are answered by walking the
+ * tree. An index may be shared between threads as long as the schema is not
+ * modified afterwards.
+ */
+public class SqlForeignKeyReachabilityIndex {
+
+	private static class Join {
+
+		private final ISqlElement fromTable;
+
+		private final ISqlElement fromColumn;
+
+		private final ISqlElement toColumn;
+
+		private final ISqlElement toTable;
+
+		public Join(ISqlElement fromTable, ISqlElement fromColumn, ISqlElement toColumn, ISqlElement toTable) {
+			this.fromTable = fromTable;
+			this.fromColumn = fromColumn;
+			this.toColumn = toColumn;
+			this.toTable = toTable;
+		}
+	}
+
+	private final Map<ISqlElement, List<ISqlElement>> tablesOfColumn = new HashMap<>();
+
+	private final Map<ISqlElement, List<Join>> joinsOfTable = new HashMap<>();
+
+	private final Map<ISqlElement, Integer> componentOfTable = new HashMap<>();
+
+	private final ConcurrentMap<ISqlElement, Map<ISqlElement, Join>> parentTrees = new ConcurrentHashMap<>();
+
+	public SqlForeignKeyReachabilityIndex(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		for (IStructureElement vertex : schema.vertexSet()) {
+			if (vertex instanceof SqlTableVertex)
+				joinsOfTable.put((ISqlElement) vertex, new ArrayList<Join>());
+		}
+
+		for (DefaultEdge edge : schema.edgeSet()) {
+			if (edge instanceof ITableHasColumnEdge)
+				addColumn(schema.getEdgeSource(edge), schema.getEdgeTarget(edge));
+		}
+
+		for (DefaultEdge edge : schema.edgeSet()) {
+			if (edge instanceof IForeignKeyRelationEdge)
+				addJoins(schema.getEdgeSource(edge), schema.getEdgeTarget(edge));
+		}
+
+		computeComponents();
+	}
+
+	private void addColumn(IStructureElement table, IStructureElement column) {
+		if (!joinsOfTable.containsKey(table) || !(column instanceof SqlColumnVertex))
+			return;
+
+		List<ISqlElement> tables = tablesOfColumn.get(column);
+
+		if (tables == null) {
+			tables = new ArrayList<>(1);
+			tablesOfColumn.put((ISqlElement) column, tables);
+		}
+
+		tables.add((ISqlElement) table);
+	}
+
+	private void addJoins(IStructureElement referencingColumn, IStructureElement foreignKeyColumn) {
+		List<ISqlElement> referencingTables = getTablesOfColumn(referencingColumn);
+		List<ISqlElement> foreignKeyTables = getTablesOfColumn(foreignKeyColumn);
+
+		for (ISqlElement referencingTable : referencingTables) {
+			for (ISqlElement foreignKeyTable : foreignKeyTables) {
+				joinsOfTable.get(referencingTable).add(new Join(referencingTable, (ISqlElement) referencingColumn,
+						(ISqlElement) foreignKeyColumn, foreignKeyTable));
+				joinsOfTable.get(foreignKeyTable).add(new Join(foreignKeyTable, (ISqlElement) foreignKeyColumn,
+						(ISqlElement) referencingColumn, referencingTable));
+			}
+		}
+	}
+
+	private List<ISqlElement> getTablesOfColumn(IStructureElement column) {
+		List<ISqlElement> tables = tablesOfColumn.get(column);
+
+		if (tables == null)
+			return Collections.emptyList();
+
+		return tables;
+	}
+
+	private void computeComponents() {
+		int component = 0;
+
+		for (ISqlElement table : joinsOfTable.keySet()) {
+			if (componentOfTable.containsKey(table))
+				continue;
+
+			Queue<ISqlElement> queue = new ArrayDeque<>();
+
+			componentOfTable.put(table, component);
+			queue.add(table);
+
+			while (!queue.isEmpty()) {
+				for (Join join : joinsOfTable.get(queue.poll())) {
+					if (!componentOfTable.containsKey(join.toTable)) {
+						componentOfTable.put(join.toTable, component);
+						queue.add(join.toTable);
+					}
+				}
+			}
+
+			component++;
+		}
+	}
+
+	public boolean isReachable(ISqlElement sourceTable, ISqlElement targetColumn) {
+		Integer sourceComponent = componentOfTable.get(sourceTable);
+
+		if (sourceComponent == null)
+			return false;
+
+		for (ISqlElement table : getTablesOfColumn(targetColumn)) {
+			if (sourceComponent.equals(componentOfTable.get(table)))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the tables and columns of the shortest join path from the source
+	 * table to the target column or {@code null} if the column is not
+	 * reachable.
+	 */
+	public List<ISqlElement> getPath(ISqlElement sourceTable, ISqlElement targetColumn) {
+		if (!isReachable(sourceTable, targetColumn))
+			return null;
+
+		Map<ISqlElement, Join> parentTree = getParentTree(sourceTable);
+		List<Join> joins = null;
+
+		for (ISqlElement table : getTablesOfColumn(targetColumn)) {
+			List<Join> joinsToTable = getJoins(sourceTable, table, parentTree);
+
+			if (joinsToTable != null && (joins == null || joinsToTable.size() < joins.size()))
+				joins = joinsToTable;
+		}
+
+		List<ISqlElement> path = new ArrayList<>();
+
+		path.add(sourceTable);
+
+		for (Join join : joins) {
+			addToPath(path, join.fromColumn);
+			addToPath(path, join.toColumn);
+			addToPath(path, join.toTable);
+		}
+
+		addToPath(path, targetColumn);
+
+		return path;
+	}
+
+	private void addToPath(List<ISqlElement> path, ISqlElement element) {
+		if (!path.contains(element))
+			path.add(element);
+	}
+
+	private List<Join> getJoins(ISqlElement sourceTable, ISqlElement targetTable, Map<ISqlElement, Join> parentTree) {
+		if (!targetTable.equals(sourceTable) && !parentTree.containsKey(targetTable))
+			return null;
+
+		List<Join> joins = new ArrayList<>();
+
+		for (ISqlElement table = targetTable; !table.equals(sourceTable); table = parentTree.get(table).fromTable)
+			joins.add(parentTree.get(table));
+
+		Collections.reverse(joins);
+
+		return joins;
+	}
+
+	private Map<ISqlElement, Join> getParentTree(ISqlElement sourceTable) {
+		Map<ISqlElement, Join> parentTree = parentTrees.get(sourceTable);
+
+		if (parentTree != null)
+			return parentTree;
+
+		parentTree = new HashMap<>();
+
+		Queue<ISqlElement> queue = new ArrayDeque<>();
+
+		queue.add(sourceTable);
+
+		while (!queue.isEmpty()) {
+			for (Join join : joinsOfTable.get(queue.poll())) {
+				if (!join.toTable.equals(sourceTable) && !parentTree.containsKey(join.toTable)) {
+					parentTree.put(join.toTable, join);
+					queue.add(join.toTable);
+				}
+			}
+		}
+
+		Map<ISqlElement, Join> existingTree = parentTrees.putIfAbsent(sourceTable, parentTree);
+
+		return (existingTree != null) ? existingTree : parentTree;
+	}
+
+}
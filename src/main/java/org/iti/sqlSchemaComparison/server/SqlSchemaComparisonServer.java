@@ -0,0 +1,450 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gibello.zql.ParseException;
+import org.gibello.zql.TokenMgrError;
+import org.iti.sqlSchemaComparison.OutputFormat;
+import org.iti.sqlSchemaComparison.SqlSchemaComparer;
+import org.iti.sqlSchemaComparison.SqlSchemaComparisonResult;
+import org.iti.sqlSchemaComparison.SqlSchemaComparisonResultWriter;
+import org.iti.sqlSchemaComparison.SqlSchemaFingerprint;
+import org.iti.sqlSchemaComparison.SqlStatementExpectationValidationResult;
+import org.iti.sqlSchemaComparison.SqlStatementValidationReportWriter;
+import org.iti.sqlSchemaComparison.frontends.ISqlQueryFrontend;
+import org.iti.sqlSchemaComparison.frontends.SqlSchemaGraphCache;
+import org.iti.sqlSchemaComparison.frontends.SqlStatementSchemaCache;
+import org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotStoreFrontend;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local HTTP server that keeps loaded schemas, their indexes and recent
+ * comparison results warm between requests. The server only binds to the
+ * loopback interface and offers the following endpoints:
+ * <ul>
+ * <li>{@code GET /compare?schema1=...&schema2=...[&format=TEXT|JSON|NDJSON]}</li>
+ * <li>{@code GET|POST /validate?schema=...[&base=...][&statement=...][&format=TEXT|JSON|NDJSON|CSV]}
+ * - the statement is read from the request body if it is not passed as parameter</li>
+ * <li>{@code GET /status}</li>
+ * <li>{@code POST /clear} - drops all cached schemas, statements and results</li>
+ * </ul>
+ * Schemas are referenced like on the command line: SQLite files, snapshot
+ * files or versions of a snapshot store. References are resolved against the
+ * root directory of the server and must not leave it. Requests whose
+ * {@code Host} header is not a loopback name are rejected, so web pages
+ * cannot reach the server through DNS rebinding.
+ */
+public class SqlSchemaComparisonServer implements Closeable {
+
+	public static final int DEFAULT_MAXIMUM_CACHED_COMPARISONS = 256;
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final SqlSchemaRepository repository = new SqlSchemaRepository(new SqlSchemaGraphCache());
+
+	private final SqlStatementSchemaCache statementCache = new SqlStatementSchemaCache(null);
+
+	private final Map<String, SqlSchemaComparisonResult> comparisons;
+
+	private final AtomicLong requestCount = new AtomicLong();
+
+	private final Path rootDirectory;
+
+	/**
+	 * Creates a server whose schema references are restricted to the
+	 * current working directory.
+	 */
+	public SqlSchemaComparisonServer(int port, int workerCount) throws IOException {
+		this(port, workerCount, ".");
+	}
+
+	public SqlSchemaComparisonServer(int port, int workerCount, String rootDirectory) throws IOException {
+		if (workerCount < 1)
+			throw new IllegalArgumentException("Number of server workers must be positive!");
+
+		if (rootDirectory == null || !Files.isDirectory(Paths.get(rootDirectory)))
+			throw new IllegalArgumentException("Root directory of the server does not exist!");
+
+		this.rootDirectory = Paths.get(rootDirectory).toRealPath();
+
+		this.comparisons = new LinkedHashMap<String, SqlSchemaComparisonResult>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = -2871760531532104297L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, SqlSchemaComparisonResult> eldest) {
+				return size() > DEFAULT_MAXIMUM_CACHED_COMPARISONS;
+			}
+		};
+
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.executor = Executors.newFixedThreadPool(workerCount);
+
+		server.setExecutor(executor);
+		server.createContext("/compare", new RequestHandler() {
+
+			@Override
+			protected void handle(HttpExchange exchange, Map<String, String> parameters) throws Exception {
+				compare(exchange, parameters);
+			}
+		});
+		server.createContext("/validate", new RequestHandler() {
+
+			@Override
+			protected void handle(HttpExchange exchange, Map<String, String> parameters) throws Exception {
+				validate(exchange, parameters);
+			}
+		});
+		server.createContext("/status", new RequestHandler() {
+
+			@Override
+			protected void handle(HttpExchange exchange, Map<String, String> parameters) throws Exception {
+				status(exchange);
+			}
+		});
+		server.createContext("/clear", new RequestHandler() {
+
+			@Override
+			protected void handle(HttpExchange exchange, Map<String, String> parameters) throws Exception {
+				clear(exchange);
+			}
+		});
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void compare(HttpExchange exchange, Map<String, String> parameters) throws IOException, StructureGraphComparisonException {
+		OutputFormat format = getFormat(parameters);
+		String schema1 = getRequiredParameter(parameters, "schema1");
+		String schema2 = getRequiredParameter(parameters, "schema2");
+		SqlSchemaComparisonResult result = compare(getSchema(schema1).getGraph(), getSchema(schema2).getGraph());
+		OutputStream out = sendResponseHeaders(exchange, format);
+		SqlSchemaComparisonResultWriter writer = new SqlSchemaComparisonResultWriter(out, format);
+
+		writer.write(schema1, schema2, result);
+		writer.flush();
+	}
+
+	private SqlSchemaComparisonResult compare(DirectedGraph<IStructureElement, DefaultEdge> schema1,
+			DirectedGraph<IStructureElement, DefaultEdge> schema2) throws StructureGraphComparisonException {
+		String key = SqlSchemaFingerprint.of(schema1) + ":" + SqlSchemaFingerprint.of(schema2);
+		SqlSchemaComparisonResult result;
+
+		synchronized (comparisons) {
+			result = comparisons.get(key);
+		}
+
+		if (result == null) {
+			result = new SqlSchemaComparer(schema1, schema2).comparisonResult;
+
+			synchronized (comparisons) {
+				comparisons.put(key, result);
+			}
+		}
+
+		return result;
+	}
+
+	private void validate(HttpExchange exchange, Map<String, String> parameters) throws IOException, ParseException {
+		OutputFormat format = getFormat(parameters);
+		SqlSchemaRepository.Schema schema = getSchema(getRequiredParameter(parameters, "schema"));
+		String statement = getStatement(exchange, parameters);
+		SqlStatementSchemaCache cache = parameters.containsKey("base")
+				? getSchema(parameters.get("base")).getStatementCache()
+				: statementCache;
+		ISqlQueryFrontend frontend;
+		DirectedGraph<IStructureElement, DefaultEdge> statementSchema;
+
+		try {
+			frontend = cache.getFrontend(statement);
+			statementSchema = frontend.createSqlSchema();
+		} catch (TokenMgrError e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+
+		if (statementSchema == null)
+			throw new IllegalArgumentException("Statement type is not supported!");
+
+		SqlStatementExpectationValidationResult result = schema.getValidator().computeGraphMatching(statementSchema, frontend.getQueryType());
+		OutputStream out = sendResponseHeaders(exchange, format);
+
+		if (format == OutputFormat.TEXT) {
+			Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+
+			result.writeTo(writer);
+			writer.write("\n");
+			writer.flush();
+		} else {
+			SqlStatementValidationReportWriter writer = new SqlStatementValidationReportWriter(out, format);
+
+			writer.statementValidated(statement, 1, result);
+			writer.validationFinished(1, 1, result.isStatementValid() ? 0 : 1, 0);
+		}
+	}
+
+	private SqlSchemaRepository.Schema getSchema(String reference) throws IOException {
+		return repository.getSchema(resolveReference(reference));
+	}
+
+	/**
+	 * Resolves a schema reference against the root directory and rejects
+	 * references to files outside of it, also through symbolic links.
+	 */
+	private String resolveReference(String reference) throws IOException {
+		boolean storeReference = SqlSchemaSnapshotStoreFrontend.isStoreReference(reference);
+		String filePath = storeReference ? SqlSchemaSnapshotStoreFrontend.getStoreFilePath(reference) : reference;
+		Path path;
+
+		try {
+			path = rootDirectory.resolve(filePath).normalize();
+		} catch (InvalidPathException e) {
+			throw new IllegalArgumentException("Invalid schema reference: " + reference);
+		}
+
+		if (Files.exists(path))
+			path = path.toRealPath();
+
+		if (!path.startsWith(rootDirectory))
+			throw new SecurityException("Schema reference is outside of the server root: " + reference);
+
+		return storeReference
+				? path.toString() + SqlSchemaSnapshotStoreFrontend.VERSION_SEPARATOR + SqlSchemaSnapshotStoreFrontend.getVersion(reference)
+				: path.toString();
+	}
+
+	private static boolean isLoopbackHost(String host) {
+		if (host == null)
+			return false;
+
+		String name = host;
+
+		if (name.startsWith("[")) {
+			int end = name.indexOf(']');
+
+			name = end < 0 ? name : name.substring(0, end + 1);
+		} else if (name.indexOf(':') >= 0) {
+			name = name.substring(0, name.indexOf(':'));
+		}
+
+		return name.equalsIgnoreCase("localhost") || name.equals("127.0.0.1") || name.equals("[::1]");
+	}
+
+	private void status(HttpExchange exchange) throws IOException {
+		int comparisonCount;
+
+		synchronized (comparisons) {
+			comparisonCount = comparisons.size();
+		}
+
+		OutputStream out = sendResponseHeaders(exchange, OutputFormat.JSON);
+
+		out.write(String.format("{\"schemas\":%d,\"comparisons\":%d,\"statements\":%d,\"requests\":%d}\n",
+				repository.size(), comparisonCount, statementCache.size(), requestCount.get()).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void clear(HttpExchange exchange) throws IOException {
+		if (!"POST".equals(exchange.getRequestMethod())) {
+			sendError(exchange, 405, "Caches can only be cleared with POST requests!");
+			return;
+		}
+
+		repository.clear();
+		statementCache.clear();
+
+		synchronized (comparisons) {
+			comparisons.clear();
+		}
+
+		OutputStream out = sendResponseHeaders(exchange, OutputFormat.TEXT);
+
+		out.write("Caches cleared\n".getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String getStatement(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+		String statement = parameters.get("statement");
+
+		if (statement == null && "POST".equals(exchange.getRequestMethod()))
+			statement = readBody(exchange.getRequestBody());
+
+		if (statement == null || statement.trim().isEmpty())
+			throw new IllegalArgumentException("No statement passed!");
+
+		statement = statement.trim();
+
+		return statement.endsWith(";") ? statement : statement + ";";
+	}
+
+	private static OutputFormat getFormat(Map<String, String> parameters) {
+		String format = parameters.get("format");
+
+		if (format == null)
+			return OutputFormat.TEXT;
+
+		try {
+			return OutputFormat.valueOf(format.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown output format: " + format);
+		}
+	}
+
+	private static String getRequiredParameter(Map<String, String> parameters, String name) {
+		String value = parameters.get(name);
+
+		if (value == null || value.isEmpty())
+			throw new IllegalArgumentException("Parameter " + name + " is missing!");
+
+		return value;
+	}
+
+	private static Map<String, String> getParameters(HttpExchange exchange) throws IOException {
+		Map<String, String> parameters = new HashMap<>();
+		String query = exchange.getRequestURI().getRawQuery();
+
+		if (query == null)
+			return parameters;
+
+		for (String parameter : query.split("&")) {
+			if (parameter.isEmpty())
+				continue;
+
+			int separator = parameter.indexOf('=');
+
+			if (separator < 0)
+				parameters.put(URLDecoder.decode(parameter, "UTF-8"), "");
+			else
+				parameters.put(URLDecoder.decode(parameter.substring(0, separator), "UTF-8"),
+						URLDecoder.decode(parameter.substring(separator + 1), "UTF-8"));
+		}
+
+		return parameters;
+	}
+
+	private static String readBody(InputStream in) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int count;
+
+		while ((count = in.read(buffer)) >= 0)
+			body.write(buffer, 0, count);
+
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static OutputStream sendResponseHeaders(HttpExchange exchange, OutputFormat format) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", getContentType(format));
+		exchange.sendResponseHeaders(200, 0);
+
+		return exchange.getResponseBody();
+	}
+
+	private static String getContentType(OutputFormat format) {
+		switch (format) {
+		case JSON:
+			return "application/json; charset=utf-8";
+		case NDJSON:
+			return "application/x-ndjson; charset=utf-8";
+		case CSV:
+			return "text/csv; charset=utf-8";
+		default:
+			return "text/plain; charset=utf-8";
+		}
+	}
+
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+
+		exchange.getResponseHeaders().set("Content-Type", getContentType(OutputFormat.TEXT));
+		exchange.sendResponseHeaders(status, body.length);
+		exchange.getResponseBody().write(body);
+	}
+
+	private abstract class RequestHandler implements HttpHandler {
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			requestCount.incrementAndGet();
+
+			try {
+				if (!isLoopbackHost(exchange.getRequestHeaders().getFirst("Host")))
+					throw new SecurityException("Requests must address the server by a loopback name!");
+
+				handle(exchange, getParameters(exchange));
+			} catch (SecurityException e) {
+				sendError(exchange, 403, String.valueOf(e.getMessage()).trim());
+			} catch (IllegalArgumentException | ParseException e) {
+				sendError(exchange, 400, String.valueOf(e.getMessage()).trim());
+			} catch (Exception e) {
+				sendError(exchange, 500, String.valueOf(e.getMessage()).trim());
+			} finally {
+				exchange.close();
+			}
+		}
+
+		protected abstract void handle(HttpExchange exchange, Map<String, String> parameters) throws Exception;
+	}
+
+}
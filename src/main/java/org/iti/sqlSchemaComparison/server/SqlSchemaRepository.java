@@ -0,0 +1,123 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.iti.sqlSchemaComparison.SqlStatementExpectationValidator;
+import org.iti.sqlSchemaComparison.frontends.SqlSchemaFrontendFactory;
+import org.iti.sqlSchemaComparison.frontends.SqlSchemaGraphCache;
+import org.iti.sqlSchemaComparison.frontends.SqlStatementSchemaCache;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Keeps loaded schemas together with their statement validator and
+ * statement schema cache. Schemas are taken from a
+ * {@link SqlSchemaGraphCache}, so a schema is reloaded whenever its file
+ * changes. Loaded schemas are shared between requests and are frozen.
+ */
+class SqlSchemaRepository {
+
+	static class Schema {
+
+		private final DirectedGraph<IStructureElement, DefaultEdge> graph;
+
+		private SqlStatementExpectationValidator validator = null;
+
+		private SqlStatementSchemaCache statementCache = null;
+
+		Schema(DirectedGraph<IStructureElement, DefaultEdge> graph) {
+			this.graph = graph;
+		}
+
+		public DirectedGraph<IStructureElement, DefaultEdge> getGraph() {
+			return graph;
+		}
+
+		public synchronized SqlStatementExpectationValidator getValidator() {
+			if (validator == null)
+				validator = new SqlStatementExpectationValidator(graph);
+
+			return validator;
+		}
+
+		public synchronized SqlStatementSchemaCache getStatementCache() {
+			if (statementCache == null)
+				statementCache = new SqlStatementSchemaCache(graph);
+
+			return statementCache;
+		}
+	}
+
+	private final SqlSchemaGraphCache cache;
+
+	private final Map<String, Schema> schemas;
+
+	public SqlSchemaRepository(final SqlSchemaGraphCache cache) {
+		this.cache = cache;
+		this.schemas = new LinkedHashMap<String, Schema>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 5381266935624811304L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Schema> eldest) {
+				return size() > cache.getMaximumSize();
+			}
+		};
+	}
+
+	public Schema getSchema(String reference) {
+		DirectedGraph<IStructureElement, DefaultEdge> graph = SqlSchemaFrontendFactory.createSchemaFrontend(reference, cache).createSqlSchema();
+
+		if (graph == null)
+			throw new IllegalArgumentException("Schema could not be loaded: " + reference);
+
+		synchronized (schemas) {
+			Schema schema = schemas.get(reference);
+
+			// the validator and statement cache are kept as long as the cached graph is unchanged
+			if (schema == null || schema.graph != graph) {
+				schema = new Schema(graph);
+				schemas.put(reference, schema);
+			}
+
+			return schema;
+		}
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	public void clear() {
+		cache.clear();
+
+		synchronized (schemas) {
+			schemas.clear();
+		}
+	}
+
+}
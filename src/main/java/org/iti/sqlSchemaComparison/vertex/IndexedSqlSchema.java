@@ -0,0 +1,248 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.vertex;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+
+/**
+ * A schema graph that keeps a {@link SqlSchemaIndex} in sync with its
+ * vertices and edges. The lookups of {@link SqlElementFactory} use the index
+ * whenever they are passed an indexed schema or its vertex set.
+ */
+public class IndexedSqlSchema extends SimpleDirectedGraph<IStructureElement, DefaultEdge> {
+
+	private static final long serialVersionUID = 6418003569466316942L;
+
+	private SqlSchemaIndex index = new SqlSchemaIndex();
+
+	private transient IndexedVertexSet indexedVertexSet = null;
+
+	private transient int modificationCount = 0;
+
+	private boolean frozen = false;
+
+	public SqlSchemaIndex getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns a counter that is incremented on every vertex and edge
+	 * modification. Derived values of the schema may be cached as long as the
+	 * counter does not change.
+	 */
+	public int getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Makes the schema read-only. Frozen schemas may be shared, e.g. by a
+	 * schema cache, and throw an {@link UnsupportedOperationException} on
+	 * every modification. Clones of a frozen schema are modifiable again.
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	public IndexedSqlSchema() {
+		super(DefaultEdge.class);
+	}
+
+	public IndexedSqlSchema(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		this();
+
+		for (IStructureElement vertex : schema.vertexSet())
+			addVertex(vertex);
+
+		for (DefaultEdge edge : schema.edgeSet())
+			addEdge(schema.getEdgeSource(edge), schema.getEdgeTarget(edge), edge);
+	}
+
+	public static SqlSchemaIndex getIndex(Collection<? extends IStructureElement> vertices) {
+		if (vertices instanceof IndexedVertexSet)
+			return ((IndexedVertexSet) vertices).getIndex();
+
+		return null;
+	}
+
+	public static SqlSchemaIndex getIndex(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		if (schema instanceof IndexedSqlSchema)
+			return ((IndexedSqlSchema) schema).getIndex();
+
+		return null;
+	}
+
+	@Override
+	public boolean addVertex(IStructureElement v) {
+		checkNotFrozen();
+
+		boolean added = super.addVertex(v);
+
+		if (added) {
+			index.addVertex(v);
+			modificationCount++;
+		}
+
+		return added;
+	}
+
+	@Override
+	public boolean removeVertex(IStructureElement v) {
+		checkNotFrozen();
+
+		boolean removed = super.removeVertex(v);
+
+		if (removed) {
+			index.removeVertex(v);
+			modificationCount++;
+		}
+
+		return removed;
+	}
+
+	@Override
+	public DefaultEdge addEdge(IStructureElement sourceVertex, IStructureElement targetVertex) {
+		checkNotFrozen();
+
+		DefaultEdge e = super.addEdge(sourceVertex, targetVertex);
+
+		if (e != null) {
+			index.addEdge(sourceVertex, targetVertex, e);
+			modificationCount++;
+		}
+
+		return e;
+	}
+
+	@Override
+	public boolean addEdge(IStructureElement sourceVertex, IStructureElement targetVertex, DefaultEdge e) {
+		checkNotFrozen();
+
+		boolean added = super.addEdge(sourceVertex, targetVertex, e);
+
+		if (added) {
+			index.addEdge(sourceVertex, targetVertex, e);
+			modificationCount++;
+		}
+
+		return added;
+	}
+
+	@Override
+	public DefaultEdge removeEdge(IStructureElement sourceVertex, IStructureElement targetVertex) {
+		checkNotFrozen();
+
+		DefaultEdge e = super.removeEdge(sourceVertex, targetVertex);
+
+		if (e != null) {
+			index.removeEdge(sourceVertex, targetVertex, e);
+			modificationCount++;
+		}
+
+		return e;
+	}
+
+	@Override
+	public boolean removeEdge(DefaultEdge e) {
+		checkNotFrozen();
+
+		if (!containsEdge(e))
+			return false;
+
+		IStructureElement sourceVertex = getEdgeSource(e);
+		IStructureElement targetVertex = getEdgeTarget(e);
+		boolean removed = super.removeEdge(e);
+
+		if (removed) {
+			index.removeEdge(sourceVertex, targetVertex, e);
+			modificationCount++;
+		}
+
+		return removed;
+	}
+
+	@Override
+	public Set<IStructureElement> vertexSet() {
+		if (indexedVertexSet == null)
+			indexedVertexSet = new IndexedVertexSet(super.vertexSet(), index);
+
+		return indexedVertexSet;
+	}
+
+	@Override
+	public Object clone() {
+		IndexedSqlSchema clone = (IndexedSqlSchema) super.clone();
+
+		clone.frozen = false;
+		clone.index = new SqlSchemaIndex(clone);
+		clone.indexedVertexSet = null;
+
+		return clone;
+	}
+
+	private void checkNotFrozen() {
+		if (frozen)
+			throw new UnsupportedOperationException("Schema is frozen and cannot be modified!");
+	}
+
+	private static class IndexedVertexSet extends AbstractSet<IStructureElement> {
+
+		private Set<IStructureElement> vertices;
+
+		private SqlSchemaIndex index;
+
+		public SqlSchemaIndex getIndex() {
+			return index;
+		}
+
+		public IndexedVertexSet(Set<IStructureElement> vertices, SqlSchemaIndex index) {
+			this.vertices = vertices;
+			this.index = index;
+		}
+
+		@Override
+		public Iterator<IStructureElement> iterator() {
+			return vertices.iterator();
+		}
+
+		@Override
+		public int size() {
+			return vertices.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return vertices.contains(o);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.vertex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.iti.structureGraph.IStructureGraph;
+import org.iti.structureGraph.comparison.IStructureGraphComparer;
+import org.iti.structureGraph.comparison.SimpleStructureGraphComparer;
+import org.iti.structureGraph.comparison.StatementStructureGraphComparer;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.comparison.result.IStructureModification;
+import org.iti.structureGraph.comparison.result.StructureGraphComparisonResult;
+import org.iti.structureGraph.comparison.result.StructurePathModification;
+import org.iti.structureGraph.comparison.result.Type;
+import org.iti.structureGraph.nodes.IStructureElement;
+
+/**
+ * A drop-in replacement for {@link StatementStructureGraphComparer} with the
+ * same results. For every node the schema adds to the statement,
+ * {@link StatementStructureGraphComparer} copies and scans all path
+ * modifications, which makes each validation quadratic in the schema size.
+ * This comparer looks up the added paths of a node by their source element
+ * instead.
+ */
+public class IndexedStatementStructureGraphComparer implements IStructureGraphComparer {
+
+	@Override
+	public StructureGraphComparisonResult compare(IStructureGraph oldGraph, IStructureGraph newGraph)
+			throws StructureGraphComparisonException {
+		return compare(oldGraph, newGraph, false);
+	}
+
+	public StructureGraphComparisonResult compare(IStructureGraph oldGraph, IStructureGraph newGraph, boolean isQuery)
+			throws StructureGraphComparisonException {
+		StructureGraphComparisonResult result = new SimpleStructureGraphComparer().compare(oldGraph, newGraph);
+
+		removeNonMandatoryNodeAdditions(result, isQuery);
+		removeOptionalListNodeAdditions(result);
+
+		return result;
+	}
+
+	private void removeNonMandatoryNodeAdditions(StructureGraphComparisonResult result, boolean isQuery) {
+		Map<IStructureElement, List<String>> addedPathesBySource = getAddedPathesBySource(result);
+
+		for (IStructureElement element : result.getElementsByModification(Type.NodeAdded)) {
+			if (element.isOptionalList())
+				continue;
+
+			if (!isQuery && isNodeRequiredByStatement(result, element))
+				continue;
+
+			result.removeModification(result.getNewGraph().getIdentifier(element));
+			result.removeModification(result.getNewGraph().getPath(element));
+
+			List<String> addedPathes = addedPathesBySource.get(element);
+
+			if (addedPathes != null) {
+				for (String path : addedPathes)
+					result.removeModification(path);
+			}
+		}
+	}
+
+	/**
+	 * Groups the added paths by their source element. The path modifications
+	 * of {@link SimpleStructureGraphComparer} use the source element as
+	 * target element as well, so the source element is the only one that
+	 * counts.
+	 */
+	private Map<IStructureElement, List<String>> getAddedPathesBySource(StructureGraphComparisonResult result) {
+		Map<IStructureElement, List<String>> addedPathesBySource = new HashMap<>();
+
+		for (IStructureModification modification : result.getPathModifications().values()) {
+			if (modification.getType() != Type.PathAdded)
+				continue;
+
+			IStructureElement source = ((StructurePathModification) modification).getSourceElement();
+			List<String> addedPathes = addedPathesBySource.get(source);
+
+			if (addedPathes == null) {
+				addedPathes = new ArrayList<>();
+				addedPathesBySource.put(source, addedPathes);
+			}
+
+			addedPathes.add(modification.getIdentifier());
+		}
+
+		return addedPathesBySource;
+	}
+
+	private boolean isNodeRequiredByStatement(StructureGraphComparisonResult result, IStructureElement element) {
+		return element.isMandatory() && parentExistsInStatementGraph(result, element);
+	}
+
+	private boolean parentExistsInStatementGraph(StructureGraphComparisonResult result, IStructureElement element) {
+		IStructureElement parent = result.getNewGraph().getParent(element);
+		IStructureElement statementParent = result.getOldGraph().getStructureElement(result.getNewGraph().getIdentifier(parent));
+
+		return statementParent != null
+				&& result.getOldGraph().getStructureElement(result.getOldGraph().getIdentifier(statementParent)) != null;
+	}
+
+	private void removeOptionalListNodeAdditions(StructureGraphComparisonResult result) {
+		for (IStructureElement element : result.getElementsByModification(Type.NodeAdded)) {
+			if (!element.isOptionalList())
+				continue;
+
+			String path = result.getNewGraph().getPath(element);
+
+			result.removeModification(result.getNewGraph().getIdentifier(element));
+
+			for (IStructureElement child : result.getOldGraph().getStructureElements(path)) {
+				IStructureElement schemaChild = result.getNewGraph().getStructureElement(result.getOldGraph().getIdentifier(child));
+
+				if (schemaChild == null || !schemaChild.isMandatory())
+					result.removeModification(result.getOldGraph().getIdentifier(child));
+			}
+		}
+	}
+}
@@ -0,0 +1,349 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.vertex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang3.StringUtils;
+import org.iti.structureGraph.IStructureGraph;
+import org.iti.structureGraph.StructureGraph;
+import org.iti.structureGraph.comparison.SimpleStructureGraphComparer;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * A drop-in replacement for {@link StructureGraph} that produces the same
+ * identifiers and paths. {@link StructureGraph} looks up the parent of an
+ * element and the source of an edge by scanning all vertices, which makes its
+ * construction cubic in the schema size. This graph asks the schema for the
+ * edge source instead and caches the path of every element, so the schema
+ * must not be modified afterwards.
+ */
+public class IndexedStructureGraph implements IStructureGraph {
+
+	private static final int FULL_PATH = -1;
+
+	private static final int PARENT_PATH = 2;
+
+	private DirectedGraph<IStructureElement, DefaultEdge> graph;
+
+	private Map<String, IStructureElement> elementsByIdentifer = new HashMap<>();
+
+	private Map<String, DefaultEdge> pathesByIdentifer = new HashMap<>();
+
+	private Map<IStructureElement, List<IStructureElement>> pathElementsByElement = new IdentityHashMap<>();
+
+	public IndexedStructureGraph(DirectedGraph<IStructureElement, DefaultEdge> graph) {
+		this.graph = graph;
+
+		loadElementsByIdentifier();
+		loadEdgesByIdentifier();
+	}
+
+	private void loadElementsByIdentifier() {
+		for (IStructureElement element : graph.vertexSet())
+			elementsByIdentifer.put(getIdentifier(element), element);
+	}
+
+	private void loadEdgesByIdentifier() {
+		for (IStructureElement element : elementsByIdentifer.values()) {
+			for (DefaultEdge edge : graph.incomingEdgesOf(element)) {
+				List<IStructureElement> path = new LinkedList<>(getElementPathElements(graph.getEdgeSource(edge)));
+
+				path.add(element);
+				pathesByIdentifer.put(getPathString(path, false), edge);
+			}
+		}
+	}
+
+	private List<IStructureElement> getElementPathElements(IStructureElement element) {
+		List<IStructureElement> path = pathElementsByElement.get(element);
+
+		if (path == null) {
+			path = getElementPathElements(element, FULL_PATH);
+			pathElementsByElement.put(element, path);
+		}
+
+		return path;
+	}
+
+	private List<IStructureElement> getElementPathElements(IStructureElement element, int depth) {
+		LinkedList<IStructureElement> path = new LinkedList<>();
+
+		for (IStructureElement current = element; current != null && depth != 0; depth--) {
+			path.addFirst(current);
+			current = getParent(current);
+		}
+
+		return path;
+	}
+
+	/**
+	 * Returns the source of the first incoming edge, which is the element
+	 * {@link StructureGraph#getParent(IStructureElement)} finds by scanning
+	 * the vertices.
+	 */
+	@Override
+	public IStructureElement getParent(IStructureElement element) {
+		Iterator<DefaultEdge> incomingEdges = graph.incomingEdgesOf(element).iterator();
+
+		if (incomingEdges.hasNext())
+			return graph.getEdgeSource(incomingEdges.next());
+
+		return null;
+	}
+
+	/**
+	 * Returns the elements whose parent is the given element.
+	 */
+	public List<IStructureElement> getChildren(IStructureElement element) {
+		List<IStructureElement> children = new ArrayList<>();
+
+		for (DefaultEdge edge : graph.outgoingEdgesOf(element)) {
+			IStructureElement child = graph.getEdgeTarget(edge);
+
+			if (getParent(child) == element)
+				children.add(child);
+		}
+
+		return children;
+	}
+
+	private String getPathString(List<IStructureElement> path, boolean identifier) {
+		StringBuilder builder = new StringBuilder();
+		int openBrackets = path.size() - 1 - (identifier ? 0 : 1);
+		int index = 0;
+
+		for (Iterator<IStructureElement> elements = path.iterator(); elements.hasNext(); index++) {
+			IStructureElement element = elements.next();
+			boolean isLast = index == path.size() - 1;
+			boolean isSecondLast = index == path.size() - 2;
+
+			if (isLast && !identifier)
+				continue;
+
+			builder.append(element.getName());
+
+			if (!isLast) {
+				builder.append(".");
+				builder.append(getEdge(element, path.get(index + 1)).getClass().getSimpleName());
+
+				if (!isSecondLast || identifier)
+					builder.append("(");
+			}
+		}
+
+		builder.append(StringUtils.repeat(")", openBrackets));
+
+		return builder.toString();
+	}
+
+	private DefaultEdge getEdge(IStructureElement source, IStructureElement target) {
+		return graph.getAllEdges(source, target).iterator().next();
+	}
+
+	@Override
+	public IStructureElement getStructureElement(String identifier) {
+		return elementsByIdentifer.get(identifier);
+	}
+
+	@Override
+	public String getIdentifier(IStructureElement element) {
+		return getPathString(getElementPathElements(element), true);
+	}
+
+	@Override
+	public String getPath(IStructureElement element) {
+		return getPathString(getElementPathElements(element), false);
+	}
+
+	@Override
+	public DefaultEdge getEdge(String path) {
+		return pathesByIdentifer.get(path);
+	}
+
+	@Override
+	public IStructureElement getSourceElement(DefaultEdge edge) {
+		return graph.getEdgeSource(edge);
+	}
+
+	@Override
+	public IStructureElement getTargetElement(DefaultEdge edge) {
+		return graph.getEdgeTarget(edge);
+	}
+
+	@Override
+	public String getPath(IStructureElement element, boolean fullPath) {
+		return getPathString(fullPath ? getElementPathElements(element) : getElementPathElements(element, PARENT_PATH), false);
+	}
+
+	@Override
+	public List<IStructureElement> getStructureElements(String path) {
+		return getStructureElements(path, false);
+	}
+
+	@Override
+	public List<IStructureElement> getStructureElements(String path, boolean directChildrenOnly) {
+		Map<IStructureElement, Integer> elements = new HashMap<>();
+
+		for (IStructureElement element : elementsByIdentifer.values()) {
+			if (getPath(element).startsWith(path))
+				elements.put(element, getElementPathElements(element).size());
+		}
+
+		if (elements.size() > 0 && directChildrenOnly)
+			removeIndirectAncestors(elements);
+
+		return new ArrayList<>(elements.keySet());
+	}
+
+	private void removeIndirectAncestors(Map<IStructureElement, Integer> elements) {
+		int minimalDepth = Integer.MAX_VALUE;
+
+		for (Integer depth : elements.values())
+			minimalDepth = Math.min(minimalDepth, depth);
+
+		for (Iterator<Entry<IStructureElement, Integer>> entries = elements.entrySet().iterator(); entries.hasNext(); ) {
+			if (entries.next().getValue() > minimalDepth)
+				entries.remove();
+		}
+	}
+
+	@Override
+	public List<String> getIdentifiers() {
+		return new ArrayList<>(elementsByIdentifer.keySet());
+	}
+
+	@Override
+	public List<String> getPathes() {
+		return new ArrayList<>(pathesByIdentifer.keySet());
+	}
+
+	/**
+	 * Returns a view of this graph whose {@link #getIdentifiers()} and
+	 * {@link #getPathes()} omit the identifiers and paths the other graph
+	 * contains as well. {@link SimpleStructureGraphComparer} computes the
+	 * added and removed elements by {@link List#removeAll(Collection)} on
+	 * both lists, which is quadratic for two graphs of similar size. Passing
+	 * views of both graphs leaves the differences and their order unchanged.
+	 */
+	public IStructureGraph getDifferenceView(IndexedStructureGraph other) {
+		return new DifferenceView(this, getMissing(elementsByIdentifer, other.elementsByIdentifer),
+				getMissing(pathesByIdentifer, other.pathesByIdentifer));
+	}
+
+	private static List<String> getMissing(Map<String, ?> identifiers, Map<String, ?> otherIdentifiers) {
+		List<String> missing = new ArrayList<>();
+
+		for (String identifier : identifiers.keySet()) {
+			if (!otherIdentifiers.containsKey(identifier))
+				missing.add(identifier);
+		}
+
+		return missing;
+	}
+
+	private static class DifferenceView implements IStructureGraph {
+
+		private IndexedStructureGraph graph;
+
+		private List<String> identifiers;
+
+		private List<String> pathes;
+
+		public DifferenceView(IndexedStructureGraph graph, List<String> identifiers, List<String> pathes) {
+			this.graph = graph;
+			this.identifiers = identifiers;
+			this.pathes = pathes;
+		}
+
+		@Override
+		public IStructureElement getStructureElement(String identifier) {
+			return graph.getStructureElement(identifier);
+		}
+
+		@Override
+		public DefaultEdge getEdge(String path) {
+			return graph.getEdge(path);
+		}
+
+		@Override
+		public IStructureElement getSourceElement(DefaultEdge edge) {
+			return graph.getSourceElement(edge);
+		}
+
+		@Override
+		public IStructureElement getTargetElement(DefaultEdge edge) {
+			return graph.getTargetElement(edge);
+		}
+
+		@Override
+		public IStructureElement getParent(IStructureElement element) {
+			return graph.getParent(element);
+		}
+
+		@Override
+		public String getIdentifier(IStructureElement element) {
+			return graph.getIdentifier(element);
+		}
+
+		@Override
+		public String getPath(IStructureElement element) {
+			return graph.getPath(element);
+		}
+
+		@Override
+		public String getPath(IStructureElement element, boolean fullPath) {
+			return graph.getPath(element, fullPath);
+		}
+
+		@Override
+		public List<IStructureElement> getStructureElements(String path) {
+			return graph.getStructureElements(path);
+		}
+
+		@Override
+		public List<IStructureElement> getStructureElements(String path, boolean directChildrenOnly) {
+			return graph.getStructureElements(path, directChildrenOnly);
+		}
+
+		@Override
+		public List<String> getIdentifiers() {
+			return new ArrayList<>(identifiers);
+		}
+
+		@Override
+		public List<String> getPathes() {
+			return new ArrayList<>(pathes);
+		}
+	}
+}
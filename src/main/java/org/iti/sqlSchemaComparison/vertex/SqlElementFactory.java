@@ -75,7 +75,21 @@ public abstract class SqlElementFactory {
 		return t.getName().hashCode() + t.getClass().hashCode();
 	}
 
+	/**
+	 * Includes the table, as most schemas contain columns of the same name,
+	 * e.g. {@code id}, in many tables. Hashing by name only puts all of them
+	 * into the same bucket.
+	 */
+	public static int hashCode(SqlColumnVertex t) {
+		return hashCode((ISqlElement) t) * 31 + t.getTable().hashCode();
+	}
+
 	public static Set<ISqlElement> getSqlElementsOfType(Class<? extends ISqlElement> type, Collection<IStructureElement> vertices) {
+		SqlSchemaIndex index = IndexedSqlSchema.getIndex(vertices);
+
+		if (index != null)
+			return new HashSet<>(index.getElementsOfType(type));
+
 		Set<ISqlElement> verticesOfType = new HashSet<>();
 
 		for (IStructureElement element : vertices) {
@@ -89,6 +103,13 @@ public abstract class SqlElementFactory {
 	}
 
 	public static ISqlElement getMatchingSqlElement(ISqlElement vertex, Set<IStructureElement> vertices) {
+		SqlSchemaIndex index = IndexedSqlSchema.getIndex(vertices);
+
+		if (index != null && vertex instanceof SqlTableVertex)
+			return index.getTable(vertex.getName());
+
+		if (index != null && vertex instanceof SqlColumnVertex)
+			return index.getColumn(((SqlColumnVertex) vertex).getTable(), vertex.getName());
 
 		for (IStructureElement element : vertices) {
 			ISqlElement v = (ISqlElement)element;
@@ -101,6 +122,10 @@ public abstract class SqlElementFactory {
 	}
 
 	public static ISqlElement getMatchingSqlElement(Class<? extends ISqlElement> type, String id, Collection<IStructureElement> vertices) {
+		SqlSchemaIndex index = IndexedSqlSchema.getIndex(vertices);
+
+		if (index != null)
+			return getMatchingSqlElement(type, id, index);
 
 		for (IStructureElement element : vertices) {
 			ISqlElement v = (ISqlElement)element;
@@ -122,7 +147,39 @@ public abstract class SqlElementFactory {
 		return null;
 	}
 
+	private static ISqlElement getMatchingSqlElement(Class<? extends ISqlElement> type, String id, SqlSchemaIndex index) {
+		if (type.equals(SqlTableVertex.class))
+			return index.getTable(id);
+
+		if (type.equals(SqlColumnVertex.class))
+			return index.getColumn(id);
+
+		for (ISqlElement v : index.getElementsOfType(type)) {
+			if (v.getName().equals(id))
+				return v;
+		}
+
+		return null;
+	}
+
 	public static List<ISqlElement> getMatchingSqlColumns(String id, Collection<IStructureElement> vertices, boolean matchColumnTable) {
+		SqlSchemaIndex index = IndexedSqlSchema.getIndex(vertices);
+
+		if (index != null) {
+			List<ISqlElement> matchingColumns = new ArrayList<>();
+
+			if (matchColumnTable) {
+				ISqlElement column = index.getColumn(id);
+
+				if (column != null)
+					matchingColumns.add(column);
+			} else {
+				matchingColumns.addAll(index.getColumnsByName(id));
+			}
+
+			return matchingColumns;
+		}
+
 		Set<ISqlElement> columns = SqlElementFactory.getSqlElementsOfType(SqlColumnVertex.class, vertices);
 		List<ISqlElement> matchingColumns = new ArrayList<>();
 
@@ -138,6 +195,11 @@ public abstract class SqlElementFactory {
 	}
 
 	public static ISqlElement getPrimaryKey(ISqlElement table, DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		SqlSchemaIndex index = IndexedSqlSchema.getIndex(schema);
+
+		if (index != null)
+			return (table != null) ? index.getPrimaryKey(table.getName()) : null;
+
 		Set<ISqlElement> columns = ((SqlTableVertex) table).getColumns(schema);
 
 		for (ISqlElement e : columns) {
@@ -0,0 +1,215 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.vertex;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.iti.sqlSchemaComparison.edge.IColumnHasConstraint;
+import org.iti.sqlSchemaComparison.edge.IForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint.ConstraintType;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * Hash-based lookup tables over the vertices and edges of a schema graph.
+ * The index is maintained by {@link IndexedSqlSchema} on every vertex and
+ * edge modification and therefore never has to rescan the graph.
+ */
+public class SqlSchemaIndex implements Serializable {
+
+	private static final long serialVersionUID = -3417921520880148374L;
+
+	private Map<Class<?>, Set<ISqlElement>> elementsByType = new HashMap<>();
+
+	private Map<String, ISqlElement> tablesByName = new HashMap<>();
+
+	private Map<String, ISqlElement> columnsByQualifiedName = new HashMap<>();
+
+	private Map<String, Set<ISqlElement>> columnsByName = new HashMap<>();
+
+	private Map<String, Set<ISqlElement>> columnsByTable = new HashMap<>();
+
+	private Map<ConstraintType, Set<ISqlElement>> constraintsByType = new EnumMap<>(ConstraintType.class);
+
+	private Map<String, ISqlElement> primaryKeysByTable = new HashMap<>();
+
+	private Set<IForeignKeyRelationEdge> foreignKeyRelations = new LinkedHashSet<>();
+
+	public SqlSchemaIndex() { }
+
+	public SqlSchemaIndex(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		for (IStructureElement vertex : schema.vertexSet())
+			addVertex(vertex);
+
+		for (DefaultEdge edge : schema.edgeSet())
+			addEdge(schema.getEdgeSource(edge), schema.getEdgeTarget(edge), edge);
+	}
+
+	public static String getQualifiedName(String table, String column) {
+		return table + "." + column;
+	}
+
+	public void addVertex(IStructureElement vertex) {
+		if (!(vertex instanceof ISqlElement))
+			return;
+
+		ISqlElement element = (ISqlElement) vertex;
+
+		getOrCreate(elementsByType, element.getClass()).add(element);
+
+		if (element instanceof SqlTableVertex) {
+			tablesByName.put(element.getName(), element);
+		} else if (element instanceof SqlColumnVertex) {
+			SqlColumnVertex column = (SqlColumnVertex) element;
+
+			columnsByQualifiedName.put(getQualifiedName(column.getTable(), column.getName()), column);
+			getOrCreate(columnsByName, column.getName()).add(column);
+			getOrCreate(columnsByTable, column.getTable()).add(column);
+		} else if (element instanceof IColumnConstraint) {
+			getOrCreate(constraintsByType, ((IColumnConstraint) element).getConstraintType()).add(element);
+		}
+	}
+
+	public void removeVertex(IStructureElement vertex) {
+		if (!(vertex instanceof ISqlElement))
+			return;
+
+		ISqlElement element = (ISqlElement) vertex;
+
+		remove(elementsByType, element.getClass(), element);
+
+		if (element instanceof SqlTableVertex) {
+			tablesByName.remove(element.getName());
+		} else if (element instanceof SqlColumnVertex) {
+			SqlColumnVertex column = (SqlColumnVertex) element;
+
+			columnsByQualifiedName.remove(getQualifiedName(column.getTable(), column.getName()));
+			remove(columnsByName, column.getName(), column);
+			remove(columnsByTable, column.getTable(), column);
+		} else if (element instanceof IColumnConstraint) {
+			remove(constraintsByType, ((IColumnConstraint) element).getConstraintType(), element);
+		}
+	}
+
+	public void addEdge(IStructureElement source, IStructureElement target, DefaultEdge edge) {
+		if (edge instanceof IForeignKeyRelationEdge) {
+			foreignKeyRelations.add((IForeignKeyRelationEdge) edge);
+		} else if (isPrimaryKeyEdge(source, target, edge)) {
+			String table = ((SqlColumnVertex) source).getTable();
+
+			if (!primaryKeysByTable.containsKey(table))
+				primaryKeysByTable.put(table, (ISqlElement) source);
+		}
+	}
+
+	public void removeEdge(IStructureElement source, IStructureElement target, DefaultEdge edge) {
+		if (edge instanceof IForeignKeyRelationEdge) {
+			foreignKeyRelations.remove(edge);
+		} else if (isPrimaryKeyEdge(source, target, edge)) {
+			String table = ((SqlColumnVertex) source).getTable();
+
+			if (source.equals(primaryKeysByTable.get(table)))
+				primaryKeysByTable.remove(table);
+		}
+	}
+
+	private boolean isPrimaryKeyEdge(IStructureElement source, IStructureElement target, DefaultEdge edge) {
+		return edge instanceof IColumnHasConstraint
+				&& source instanceof SqlColumnVertex
+				&& target instanceof IColumnConstraint
+				&& ((IColumnConstraint) target).getConstraintType().equals(ConstraintType.PRIMARY_KEY);
+	}
+
+	public Set<ISqlElement> getElementsOfType(Class<?> type) {
+		return unmodifiable(elementsByType.get(type));
+	}
+
+	public ISqlElement getTable(String name) {
+		return tablesByName.get(name);
+	}
+
+	public ISqlElement getColumn(String qualifiedName) {
+		return columnsByQualifiedName.get(qualifiedName);
+	}
+
+	public ISqlElement getColumn(String table, String name) {
+		return getColumn(getQualifiedName(table, name));
+	}
+
+	public Set<ISqlElement> getColumnsByName(String name) {
+		return unmodifiable(columnsByName.get(name));
+	}
+
+	public Set<ISqlElement> getColumnsOfTable(String table) {
+		return unmodifiable(columnsByTable.get(table));
+	}
+
+	public Set<ISqlElement> getConstraintsOfType(ConstraintType constraintType) {
+		return unmodifiable(constraintsByType.get(constraintType));
+	}
+
+	public ISqlElement getPrimaryKey(String table) {
+		return primaryKeysByTable.get(table);
+	}
+
+	public Set<IForeignKeyRelationEdge> getForeignKeyRelations() {
+		return Collections.unmodifiableSet(foreignKeyRelations);
+	}
+
+	private static <K> Set<ISqlElement> getOrCreate(Map<K, Set<ISqlElement>> map, K key) {
+		Set<ISqlElement> elements = map.get(key);
+
+		if (elements == null) {
+			elements = new LinkedHashSet<>();
+			map.put(key, elements);
+		}
+
+		return elements;
+	}
+
+	private static <K> void remove(Map<K, Set<ISqlElement>> map, K key, ISqlElement element) {
+		Set<ISqlElement> elements = map.get(key);
+
+		if (elements != null) {
+			elements.remove(element);
+
+			if (elements.isEmpty())
+				map.remove(key);
+		}
+	}
+
+	private static Set<ISqlElement> unmodifiable(Set<ISqlElement> elements) {
+		if (elements == null)
+			return Collections.emptySet();
+
+		return Collections.unmodifiableSet(elements);
+	}
+
+}
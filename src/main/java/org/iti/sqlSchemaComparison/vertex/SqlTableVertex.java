@@ -72,6 +72,11 @@ public class SqlTableVertex implements ISqlElement {
 	}
 
 	public Set<ISqlElement> getColumns(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		SqlSchemaIndex index = IndexedSqlSchema.getIndex(schema);
+
+		if (index != null)
+			return new HashSet<>(index.getColumnsOfTable(getName()));
+
 		Set<ISqlElement> columns = SqlElementFactory.getSqlElementsOfType(SqlColumnVertex.class, schema.vertexSet());
 		Set<ISqlElement> columnsOfTable = new HashSet<>();
 
@@ -21,21 +21,42 @@
 
 package org.iti.sqlSchemaComparison;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.gibello.zql.ParseException;
 import org.iti.sqlSchemaComparison.edge.SqlStatementFrontendTest;
 import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontendTest;
+import org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotFrontend;
+import org.iti.sqlSchemaComparison.frontends.snapshot.SqlSchemaSnapshotStore;
 import org.iti.structureGraph.comparison.StructureGraphComparisonException;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 @RunWith(JUnit4.class)
 public class MainTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Before
 	public void setUp() { }
 
@@ -62,6 +83,177 @@ public class MainTest {
 		Main.main(args);
 	}
 
+	@Test
+	public void parallelDatabaseSchemaComparisonKeepsInputOrder() throws Exception {
+		String[] databases = new String[] {
+			SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.DROPPED_TABLE_DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.MOVE_COLUMN_DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.RENAME_COLUMN_DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.RENAME_TABLE_DATABASE_FILE_PATH
+		};
+
+		String[] sequentialOutput = getOutput(concat(new String[] { "-workers", "1" }, databases)).split("\\R");
+		String[] parallelOutput = getOutput(concat(new String[] { "-workers", "4" }, databases)).split("\\R");
+
+		assertEquals(getComparedDatabases(sequentialOutput), getComparedDatabases(parallelOutput));
+		assertEquals(databases.length - 1, getComparedDatabases(parallelOutput).size());
+
+		Arrays.sort(sequentialOutput);
+		Arrays.sort(parallelOutput);
+
+		assertArrayEquals(sequentialOutput, parallelOutput);
+	}
+
+	private List<String> getComparedDatabases(String[] output) {
+		List<String> comparedDatabases = new ArrayList<>();
+
+		for (String line : output)
+			if (line.contains("] <=> ["))
+				comparedDatabases.add(line);
+
+		return comparedDatabases;
+	}
+
+	private String[] concat(String[] options, String[] arguments) {
+		String[] args = new String[options.length + arguments.length];
+
+		System.arraycopy(options, 0, args, 0, options.length);
+		System.arraycopy(arguments, 0, args, options.length, arguments.length);
+
+		return args;
+	}
+
+	private String getOutput(String[] args) throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		PrintStream out = System.out;
+
+		System.setOut(new PrintStream(output, true, "UTF-8"));
+
+		try {
+			Main.main(args);
+		} finally {
+			System.setOut(out);
+		}
+
+		return output.toString("UTF-8");
+	}
+
+	@Test
+	public void databaseSchemaComparisonAsNdjson() throws Exception {
+		String[] args = new String[] {
+			"-format",
+			"NDJSON",
+			SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH
+		};
+
+		String[] lines = getOutput(args).split("\\R");
+		int summaries = 0;
+
+		for (String line : lines) {
+			assertTrue(line.startsWith("{") && line.endsWith("}"));
+
+			if (line.contains("\"record\":\"summary\""))
+				summaries++;
+		}
+
+		assertEquals(2, summaries);
+		assertTrue(lines[lines.length - 1].contains("\"isomorphic\":true"));
+	}
+
+	@Test
+	public void databaseSchemaComparisonStatistics() throws Exception {
+		String[] databases = new String[] {
+			SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.RENAME_COLUMN_DATABASE_FILE_PATH
+		};
+
+		ByteArrayOutputStream errorOutput = new ByteArrayOutputStream();
+		PrintStream err = System.err;
+		String output;
+
+		System.setErr(new PrintStream(errorOutput, true, "UTF-8"));
+
+		try {
+			output = getOutput(concat(new String[] { "-stats" }, databases));
+		} finally {
+			System.setErr(err);
+		}
+
+		String statistics = errorOutput.toString("UTF-8");
+
+		assertEquals(sortLines(getOutput(databases)), sortLines(output));
+
+		for (SqlSchemaPhase phase : new SqlSchemaPhase[] { SqlSchemaPhase.CONNECTION_OPEN, SqlSchemaPhase.COLUMN_LOAD,
+				SqlSchemaPhase.STRUCTURE_GRAPH_COMPARISON, SqlSchemaPhase.REPORT_RENDERING })
+			assertTrue(statistics.contains(phase.getDescription()));
+	}
+
+	@Test
+	public void databaseSchemaDriftMatrix() throws Exception {
+		String[] args = new String[] {
+			"-matrix",
+			SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.RENAME_TABLE_DATABASE_FILE_PATH
+		};
+
+		String output = getOutput(args);
+
+		assertTrue(output.contains("Schemas: 4 (classes: 3, comparisons: 3)"));
+	}
+
+	@Test
+	public void databaseSchemaSnapshot() throws Exception {
+		String snapshot = new File(folder.getRoot(), "schema" + SqlSchemaSnapshotFrontend.FILE_EXTENSION).getPath();
+
+		Main.main(new String[] { "-snapshot", snapshot, SqliteSchemaFrontendTest.DATABASE_FILE_PATH });
+
+		assertTrue(new File(snapshot).isFile());
+
+		String databaseOutput = getOutput(new String[] {
+			SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH
+		});
+		String snapshotOutput = getOutput(new String[] {
+			snapshot,
+			SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH
+		});
+
+		assertEquals(sortLines(databaseOutput.replace(SqliteSchemaFrontendTest.DATABASE_FILE_PATH, "")),
+				sortLines(snapshotOutput.replace(snapshot, "")));
+	}
+
+	@Test
+	public void databaseSchemaSnapshotStore() throws Exception {
+		String store = new File(folder.getRoot(), "releases" + SqlSchemaSnapshotStore.FILE_EXTENSION).getPath();
+
+		Main.main(new String[] { "-snapshot", store + "#1.0", SqliteSchemaFrontendTest.DATABASE_FILE_PATH });
+		Main.main(new String[] { "-snapshot", store + "#2.0", SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH });
+
+		String databaseOutput = getOutput(new String[] {
+			SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH
+		});
+		String storeOutput = getOutput(new String[] { store + "#1.0", store + "#2.0" });
+
+		assertEquals(sortLines(databaseOutput.replace(SqliteSchemaFrontendTest.DATABASE_FILE_PATH, "")
+						.replace(SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH, "")),
+				sortLines(storeOutput.replace(store + "#1.0", "").replace(store + "#2.0", "")));
+	}
+
+	private List<String> sortLines(String output) {
+		List<String> lines = Arrays.asList(output.split("\\R"));
+
+		Collections.sort(lines);
+
+		return lines;
+	}
+
 	@Test
 	public void statementValidation() throws StructureGraphComparisonException, UnsupportedEncodingException, ParseException {
 		String[] args = new String[] {
@@ -95,6 +287,26 @@ public class MainTest {
 		Main.main(args);
 	}
 
+	@Test
+	public void statementLogValidation() throws StructureGraphComparisonException, IOException, ParseException {
+		File statementLog = folder.newFile("statements.sql");
+
+		Files.write(statementLog.toPath(), (SqlStatementFrontendTest.SINGLE_TABLE_QUERY + "\n"
+				+ SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_COLUMN + "\n"
+				+ SqlStatementExpectationValidatorTest.QUERY_WITH_FOREIGN_TABLE_REFERENCE).getBytes(StandardCharsets.UTF_8));
+
+		String[] args = new String[] {
+			"-statements",
+			statementLog.getPath(),
+			"-workers",
+			"2",
+			SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+			SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH
+		};
+
+		Main.main(args);
+	}
+
 	@After
 	public void tearDown() { }
 }
@@ -0,0 +1,287 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.iti.sqlSchemaComparison.edge.IForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchema;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaGenerator;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaMutation;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaMutation.Kind;
+import org.iti.sqlSchemaComparison.frontends.SqlStatementFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.reachability.SqlColumnReachableChecker;
+import org.iti.sqlSchemaComparison.reachability.SqlForeignKeyReachabilityIndex;
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlSchemaIndex;
+import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Runs each stage of the pipeline on synthetic schemas of doubling size,
+ * fits the exponent k of the running time n^k and fails if a stage grows
+ * clearly faster than n log n. Over the measured range n log n fits an
+ * exponent of about 1.2, an accidentally quadratic code path 1.8 or more.
+ * <p>
+ * The test measures wall-clock time and is therefore skipped unless the
+ * system property {@code scalingTests} is set, e.g. by {@code gradle scalingTest}.
+ */
+@RunWith(JUnit4.class)
+public class PipelineScalingTest {
+
+	private static final int[] TABLE_COUNTS = { 50, 100, 200, 400 };
+
+	private static final double MAXIMAL_EXPONENT = 1.5;
+
+	/**
+	 * A stage is repeated until it ran at least this long, so that timer
+	 * resolution does not distort the small sizes.
+	 */
+	private static final long MINIMAL_DURATION = 50 * 1000 * 1000;
+
+	private static final int ROUNDS = 3;
+
+	private static final int STATEMENT_COUNT = 20;
+
+	private static final int SOURCE_TABLE_COUNT = 10;
+
+	private static final long SEED = 42;
+
+	@ClassRule
+	public static TemporaryFolder folder = new TemporaryFolder();
+
+	private static List<SyntheticSchema> schemas = new ArrayList<>();
+
+	private static List<SyntheticSchema> twins = new ArrayList<>();
+
+	private static List<File> databases = new ArrayList<>();
+
+	private static List<IndexedSqlSchema> schemaGraphs = new ArrayList<>();
+
+	private static List<List<DirectedGraph<IStructureElement, DefaultEdge>>> statements = new ArrayList<>();
+
+	private interface Stage {
+
+		void run(int size) throws Exception;
+	}
+
+	@BeforeClass
+	public static void init() throws Exception {
+		Assume.assumeTrue(Boolean.getBoolean("scalingTests"));
+
+		SyntheticSchemaGenerator generator = new SyntheticSchemaGenerator();
+		SyntheticSchemaMutation mutation = new SyntheticSchemaMutation()
+				.add(Kind.RENAME_COLUMN, 4);
+
+		for (int tableCount : TABLE_COUNTS) {
+			SyntheticSchema schema = generator.setTableCount(tableCount).generate(SEED);
+			File database = folder.newFile("schema" + tableCount + ".sqlite");
+			IndexedSqlSchema schemaGraph = (IndexedSqlSchema) schema.createSqlSchema();
+
+			database.delete();
+			schema.writeSqliteDatabase(database);
+
+			schemas.add(schema);
+			twins.add(generator.mutate(schema, mutation, SEED + 1));
+			databases.add(database);
+			schemaGraphs.add(schemaGraph);
+			statements.add(createStatements(schemaGraph.getIndex()));
+		}
+	}
+
+	/**
+	 * Creates statements that select a column of a table and a column of a
+	 * table referenced by a foreign key, so that the validator has to find
+	 * the join path.
+	 */
+	private static List<DirectedGraph<IStructureElement, DefaultEdge>> createStatements(SqlSchemaIndex index) throws Exception {
+		List<DirectedGraph<IStructureElement, DefaultEdge>> statements = new ArrayList<>();
+
+		for (IForeignKeyRelationEdge foreignKey : index.getForeignKeyRelations()) {
+			SqlColumnVertex referencingColumn = foreignKey.getReferencingColumn();
+			ISqlElement referencedColumn = null;
+
+			for (ISqlElement column : index.getColumnsOfTable(foreignKey.getForeignKeyTable().getName())) {
+				if (index.getColumn(referencingColumn.getTable(), column.getName()) == null)
+					referencedColumn = column;
+			}
+
+			if (referencedColumn == null)
+				continue;
+
+			String statement = String.format("SELECT %s, %s FROM %s;", referencingColumn.getName(),
+					referencedColumn.getName(), referencingColumn.getTable());
+
+			statements.add(new SqlStatementFrontend(statement, null).createSqlSchema());
+
+			if (statements.size() == STATEMENT_COUNT)
+				break;
+		}
+
+		return statements;
+	}
+
+	@Test
+	public void frontendLoadScales() throws Exception {
+		assertScaling("SQLite frontend", new Stage() {
+
+			@Override
+			public void run(int size) {
+				new SqliteSchemaFrontend(databases.get(size).getPath()).createSqlSchema();
+			}
+		});
+	}
+
+	@Test
+	public void comparerScales() throws Exception {
+		assertScaling("SqlSchemaComparer", new Stage() {
+
+			@Override
+			public void run(int size) throws Exception {
+				new SqlSchemaComparer(schemas.get(size).createSqlSchema(), twins.get(size).createSqlSchema());
+			}
+		});
+	}
+
+	@Test
+	public void statementValidationScales() throws Exception {
+		assertScaling("SqlStatementExpectationValidator", new Stage() {
+
+			@Override
+			public void run(int size) {
+				SqlStatementExpectationValidator validator = new SqlStatementExpectationValidator(schemaGraphs.get(size));
+
+				for (DirectedGraph<IStructureElement, DefaultEdge> statement : statements.get(size))
+					validator.computeGraphMatching(statement);
+			}
+		});
+	}
+
+	@Test
+	public void reachabilityScales() throws Exception {
+		assertScaling("reachability", new Stage() {
+
+			@Override
+			public void run(int size) {
+				IndexedSqlSchema schema = schemaGraphs.get(size);
+				SqlForeignKeyReachabilityIndex reachabilityIndex = new SqlForeignKeyReachabilityIndex(schema);
+				int sourceTableCount = 0;
+
+				for (ISqlElement table : schema.getIndex().getElementsOfType(SqlTableVertex.class)) {
+					for (ISqlElement column : schema.getIndex().getElementsOfType(SqlColumnVertex.class))
+						new SqlColumnReachableChecker(reachabilityIndex, table, column);
+
+					if (++sourceTableCount == SOURCE_TABLE_COUNT)
+						break;
+				}
+			}
+		});
+	}
+
+	private void assertScaling(String name, Stage stage) throws Exception {
+		double[] durations = new double[TABLE_COUNTS.length];
+
+		for (int size = 0; size < TABLE_COUNTS.length; size++)
+			stage.run(size);
+
+		for (int size = 0; size < TABLE_COUNTS.length; size++)
+			durations[size] = measure(stage, size);
+
+		double exponent = getExponent(durations);
+		StringBuilder message = new StringBuilder();
+
+		message.append(String.format(Locale.ROOT, "%s grows with n^%.2f:", name, exponent));
+
+		for (int size = 0; size < TABLE_COUNTS.length; size++)
+			message.append(String.format(Locale.ROOT, " %d tables %.2f ms", TABLE_COUNTS[size], durations[size] / 1e6));
+
+		assertTrue(message.toString(), exponent <= MAXIMAL_EXPONENT);
+	}
+
+	/**
+	 * Returns the shortest average duration in nanoseconds of a stage run
+	 * over several rounds.
+	 */
+	private double measure(Stage stage, int size) throws Exception {
+		double duration = Double.MAX_VALUE;
+
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			long elapsed = 0;
+			int runs = 0;
+
+			while (elapsed < MINIMAL_DURATION) {
+				stage.run(size);
+				runs++;
+				elapsed = System.nanoTime() - start;
+			}
+
+			duration = Math.min(duration, (double) elapsed / runs);
+		}
+
+		return duration;
+	}
+
+	/**
+	 * Returns the slope of the least squares fit of log(duration) over
+	 * log(table count).
+	 */
+	private double getExponent(double[] durations) {
+		double meanX = 0;
+		double meanY = 0;
+
+		for (int size = 0; size < TABLE_COUNTS.length; size++) {
+			meanX += Math.log(TABLE_COUNTS[size]) / TABLE_COUNTS.length;
+			meanY += Math.log(durations[size]) / TABLE_COUNTS.length;
+		}
+
+		double covariance = 0;
+		double variance = 0;
+
+		for (int size = 0; size < TABLE_COUNTS.length; size++) {
+			double x = Math.log(TABLE_COUNTS[size]) - meanX;
+
+			covariance += x * (Math.log(durations[size]) - meanY);
+			variance += x * x;
+		}
+
+		return covariance / variance;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.edge.IForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.sqlSchemaComparison.vertex.SqlElementType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlSchemaComparisonResultWriterTest {
+
+	private SqlSchemaComparisonResult result;
+
+	@Before
+	public void setUp() {
+		ISqlElement table = SqlElementFactory.createSqlElement(SqlElementType.Table, "orders");
+		ISqlElement referencedTable = SqlElementFactory.createSqlElement(SqlElementType.Table, "customers");
+		ISqlElement column = new SqlColumnVertex("customer", table.getName());
+		ISqlElement referencedColumn = new SqlColumnVertex("id", referencedTable.getName());
+
+		result = new SqlSchemaComparisonResult();
+		result.addModification(column, SchemaModification.CREATE_COLUMN);
+		result.setAddedForeignKeyRelations(Arrays.<IForeignKeyRelationEdge>asList(
+				new ForeignKeyRelationEdge(column, referencedTable, referencedColumn)));
+	}
+
+	@Test
+	public void textReportIsUnchanged() {
+		assertEquals("Schema Comparison Result\n"
+				+ "------------------------\n"
+				+ "\n"
+				+ "------------------------\n"
+				+ "| COLUMN MODIFICATIONS |\n"
+				+ "------------------------\n"
+				+ "CREATE_COLUMN | customer\n"
+				+ "-----------------------------\n"
+				+ "| CREATED FOREIGN REFERENCES |\n"
+				+ "-----------------------------\n"
+				+ "[Column] orders.customer -> [Column] customers.id", result.toString());
+		assertEquals("Schema Comparison Result\n"
+				+ "------------------------\n"
+				+ "Schemas are isomorphic!", new SqlSchemaComparisonResult().toString());
+	}
+
+	@Test
+	public void resultIsWrittenAsJson() throws IOException {
+		String json = write(OutputFormat.JSON, "a.sqlite", "b\"quoted\".sqlite");
+
+		assertEquals("{\"schema1\":\"a.sqlite\",\"schema2\":\"b\\\"quoted\\\".sqlite\",\"isomorphic\":false,"
+				+ "\"modifications\":[{\"modification\":\"CREATE_COLUMN\",\"table\":\"orders\",\"element\":\"customer\"}],"
+				+ "\"addedForeignKeyRelations\":[{\"referencingTable\":\"orders\",\"referencingColumn\":\"customer\","
+				+ "\"foreignKeyTable\":\"customers\",\"foreignKeyColumn\":\"id\"}],"
+				+ "\"removedForeignKeyRelations\":[]}\n", json);
+	}
+
+	@Test
+	public void resultIsWrittenAsNdjson() throws IOException {
+		String[] lines = write(OutputFormat.NDJSON, "a", "b").split("\n");
+
+		assertEquals(3, lines.length);
+		assertTrue(lines[0].startsWith("{\"schema1\":\"a\",\"schema2\":\"b\",\"record\":\"modification\","));
+		assertTrue(lines[1].contains("\"record\":\"addedForeignKeyRelation\""));
+		assertEquals("{\"schema1\":\"a\",\"schema2\":\"b\",\"record\":\"summary\",\"isomorphic\":false,"
+				+ "\"modifications\":1,\"addedForeignKeyRelations\":1,\"removedForeignKeyRelations\":0}", lines[2]);
+	}
+
+	@Test
+	public void resultIsWrittenAsText() throws IOException {
+		String text = write(OutputFormat.TEXT, "a", "b");
+
+		assertTrue(text.startsWith(String.format("[a] <=> [b]%n%n%s%n", result.toString())));
+	}
+
+	private String write(OutputFormat format, String schema1, String schema2) throws IOException {
+		StringWriter output = new StringWriter();
+		SqlSchemaComparisonResultWriter writer = new SqlSchemaComparisonResultWriter(output, format);
+
+		writer.write(schema1, schema2, result);
+		writer.flush();
+
+		return output.toString();
+	}
+}
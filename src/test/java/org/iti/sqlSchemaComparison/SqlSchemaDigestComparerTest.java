@@ -0,0 +1,138 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.iti.sqlSchemaComparison.edge.ColumnHasConstraint;
+import org.iti.sqlSchemaComparison.edge.ColumnHasType;
+import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.sqlSchemaComparison.vertex.SqlElementType;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnConstraintVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnTypeVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint.ConstraintType;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlSchemaDigestComparerTest {
+
+	private static final int TABLE_COUNT = 6;
+
+	@Test
+	public void identicalSchemasAreNotCompared() throws StructureGraphComparisonException {
+		SqlSchemaDigestComparer comparer = new SqlSchemaDigestComparer(createSchema(TABLE_COUNT, -1), createSchema(TABLE_COUNT, -1));
+
+		assertEquals(comparer.getDigests1().getRootDigest(), comparer.getDigests2().getRootDigest());
+		assertTrue(comparer.getChangedTables().isEmpty());
+		assertTrue(comparer.getComparedTables().isEmpty());
+		assertTrue(comparer.isIsomorphic());
+	}
+
+	@Test
+	public void onlyChangedTablesAndNeighboursAreCompared() throws StructureGraphComparisonException {
+		DirectedGraph<IStructureElement, DefaultEdge> schema1 = createSchema(TABLE_COUNT, -1);
+		DirectedGraph<IStructureElement, DefaultEdge> schema2 = createSchema(TABLE_COUNT, 3);
+		SqlSchemaDigestComparer comparer = new SqlSchemaDigestComparer(schema1, schema2);
+
+		assertNotEquals(comparer.getDigests1().getRootDigest(), comparer.getDigests2().getRootDigest());
+		assertEquals(comparer.getDigests1().getTableDigest("t2"), comparer.getDigests2().getTableDigest("t2"));
+		assertEquals(Collections.singleton("t3"), comparer.getChangedTables());
+		assertEquals(new TreeSet<>(Arrays.asList("t2", "t3", "t4")), comparer.getComparedTables());
+		assertFalse(comparer.isIsomorphic());
+		assertEquals(getModificationTypes(new SqlSchemaComparer(schema1, schema2).comparisonResult),
+				getModificationTypes(comparer.getComparisonResult()));
+	}
+
+	@Test
+	public void addedTableIsDetectedCorrectly() throws StructureGraphComparisonException {
+		SqlSchemaDigestComparer comparer = new SqlSchemaDigestComparer(createSchema(TABLE_COUNT, -1), createSchema(TABLE_COUNT + 1, -1));
+
+		assertEquals(Collections.singleton("t6"), comparer.getChangedTables());
+		assertEquals(new TreeSet<>(Arrays.asList("t5", "t6")), comparer.getComparedTables());
+		assertNotNull(TestHelper.getModificationOfType(comparer.getComparisonResult(), SchemaModification.CREATE_TABLE));
+		assertEquals(1, comparer.getComparisonResult().getAddedForeignKeyRelations().size());
+	}
+
+	private List<SchemaModification> getModificationTypes(SqlSchemaComparisonResult result) {
+		List<SchemaModification> modifications = new ArrayList<>(result.getModifications().values());
+
+		Collections.sort(modifications);
+
+		return modifications;
+	}
+
+	private DirectedGraph<IStructureElement, DefaultEdge> createSchema(int tableCount, int changedTable) {
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new SimpleDirectedGraph<IStructureElement, DefaultEdge>(DefaultEdge.class);
+		ISqlElement previousTable = null;
+		ISqlElement previousId = null;
+
+		for (int i = 0; i < tableCount; i++) {
+			ISqlElement table = SqlElementFactory.createSqlElement(SqlElementType.Table, "t" + i);
+			ISqlElement id = new SqlColumnVertex("id", table.getName());
+			ISqlElement idType = new ColumnTypeVertex("id", i == changedTable ? "TEXT" : "INTEGER");
+			ISqlElement primaryKey = new ColumnConstraintVertex("id", ConstraintType.PRIMARY_KEY);
+
+			schema.addVertex(table);
+			schema.addVertex(id);
+			schema.addVertex(idType);
+			schema.addVertex(primaryKey);
+			schema.addEdge(table, id, new TableHasColumnEdge(table, id));
+			schema.addEdge(id, idType, new ColumnHasType());
+			schema.addEdge(id, primaryKey, new ColumnHasConstraint());
+
+			if (previousTable != null) {
+				ISqlElement reference = new SqlColumnVertex("ref", table.getName());
+
+				schema.addVertex(reference);
+				schema.addEdge(table, reference, new TableHasColumnEdge(table, reference));
+				schema.addEdge(reference, previousId, new ForeignKeyRelationEdge(reference, previousTable, previousId));
+			}
+
+			previousTable = table;
+			previousId = id;
+		}
+
+		return schema;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontendTest;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlSchemaDriftMatrixTest {
+
+	private static final List<String> DATABASES = Arrays.asList(
+		SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+		SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH,
+		SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+		SqliteSchemaFrontendTest.DROPPED_TABLE_DATABASE_FILE_PATH,
+		SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH
+	);
+
+	@Test
+	public void identicalSchemasShareTheirClass() throws StructureGraphComparisonException {
+		SqlSchemaDriftMatrix matrix = new SqlSchemaDriftMatrix(DATABASES, loadSchemas(), 2);
+
+		assertEquals(5, matrix.getSchemaCount());
+		assertEquals(3, matrix.getSchemaClassCount());
+		assertEquals(3, matrix.getComparisonCount());
+		assertEquals(Arrays.asList(0, 2), matrix.getSchemasOfClass(0));
+		assertEquals(Arrays.asList(1, 4), matrix.getSchemasOfClass(1));
+		assertEquals(matrix.getSchemaClass(1), matrix.getSchemaClass(4));
+	}
+
+	@Test
+	public void driftIsComputedForAllPairs() throws StructureGraphComparisonException {
+		SqlSchemaDriftMatrix matrix = new SqlSchemaDriftMatrix(DATABASES, loadSchemas(), 2);
+
+		assertNull(matrix.getComparisonResult(0, 2));
+		assertEquals(0, matrix.getDrift(0, 2));
+		assertEquals(0, matrix.getDrift(1, 4));
+		assertTrue(matrix.getDrift(0, 1) > 0);
+		assertTrue(matrix.getDrift(0, 3) > 0);
+		assertTrue(matrix.getDrift(1, 3) > 0);
+		assertEquals(matrix.getDrift(0, 1), matrix.getDrift(4, 2));
+		assertEquals(matrix.getDrift(1, 3), matrix.getDrift(3, 1));
+	}
+
+	@Test
+	public void comparisonResultIsDirectedFromEarlierToLaterClass() throws StructureGraphComparisonException {
+		SqlSchemaDriftMatrix matrix = new SqlSchemaDriftMatrix(DATABASES, loadSchemas(), 2);
+
+		SqlSchemaComparisonResult result = matrix.getComparisonResult(3, 0);
+
+		assertSame(matrix.getComparisonResult(0, 3), result);
+		assertNotNull(TestHelper.getModificationOfType(result, SchemaModification.DELETE_TABLE));
+		assertNull(TestHelper.getModificationOfType(result, SchemaModification.CREATE_TABLE));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void throwsIllegalArgumentExceptionForMissingSchemaNames() throws StructureGraphComparisonException {
+		new SqlSchemaDriftMatrix(DATABASES.subList(0, 2), loadSchemas(), 2);
+	}
+
+	private List<DirectedGraph<IStructureElement, DefaultEdge>> loadSchemas() {
+		List<DirectedGraph<IStructureElement, DefaultEdge>> schemas = new ArrayList<>();
+
+		for (String database : DATABASES)
+			schemas.add(new SqliteSchemaFrontend(database).createSqlSchema());
+
+		return schemas;
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.iti.sqlSchemaComparison.edge.ColumnHasConstraint;
+import org.iti.sqlSchemaComparison.edge.ColumnHasType;
+import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.sqlSchemaComparison.vertex.SqlElementType;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnConstraintVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnTypeVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint.ConstraintType;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlSchemaFingerprintTest {
+
+	private static final String[] TABLES = { "t1", "t2" };
+
+	@Test
+	public void fingerprintDoesNotDependOnInsertionOrder() {
+		SqlSchemaFingerprint fingerprint1 = SqlSchemaFingerprint.of(createSchema(false, "INT"));
+		SqlSchemaFingerprint fingerprint2 = SqlSchemaFingerprint.of(createSchema(true, "INT"));
+
+		assertEquals(fingerprint1, fingerprint2);
+		assertEquals(fingerprint1.hashCode(), fingerprint2.hashCode());
+		assertEquals(fingerprint1.toString(), fingerprint2.toString());
+	}
+
+	@Test
+	public void changedColumnTypeChangesFingerprint() {
+		assertNotEquals(SqlSchemaFingerprint.of(createSchema(false, "INT")),
+				SqlSchemaFingerprint.of(createSchema(false, "TEXT")));
+	}
+
+	@Test
+	public void fingerprintOfIndexedSchemaFollowsModifications() {
+		IndexedSqlSchema schema = new IndexedSqlSchema(createSchema(false, "INT"));
+		SqlSchemaFingerprint fingerprint = SqlSchemaFingerprint.of(schema);
+
+		assertSame(fingerprint, SqlSchemaFingerprint.of(schema));
+
+		ISqlElement t3 = SqlElementFactory.createSqlElement(SqlElementType.Table, "t3");
+		schema.addVertex(t3);
+
+		SqlSchemaFingerprint modifiedFingerprint = SqlSchemaFingerprint.of(schema);
+
+		assertNotEquals(fingerprint, modifiedFingerprint);
+
+		schema.removeVertex(t3);
+
+		assertEquals(fingerprint, SqlSchemaFingerprint.of(schema));
+	}
+
+	@Test
+	public void comparerShortCircuitsOnEqualFingerprints() throws StructureGraphComparisonException {
+		SqlSchemaComparer comparer = new SqlSchemaComparer(createSchema(false, "INT"), createSchema(true, "INT"));
+
+		assertEquals(comparer.getFingerprint1(), comparer.getFingerprint2());
+		assertTrue(comparer.isIsomorphic());
+		assertTrue(comparer.comparisonResult.getModifications().isEmpty());
+
+		comparer = new SqlSchemaComparer(createSchema(false, "INT"), createSchema(true, "TEXT"));
+
+		assertNotEquals(comparer.getFingerprint1(), comparer.getFingerprint2());
+		assertFalse(comparer.isIsomorphic());
+	}
+
+	private DirectedGraph<IStructureElement, DefaultEdge> createSchema(boolean reversed, String type) {
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new SimpleDirectedGraph<IStructureElement, DefaultEdge>(DefaultEdge.class);
+		ISqlElement[] tables = new ISqlElement[TABLES.length];
+		ISqlElement[] ids = new ISqlElement[TABLES.length];
+
+		for (int i = 0; i < TABLES.length; i++) {
+			int index = reversed ? TABLES.length - 1 - i : i;
+			ISqlElement table = SqlElementFactory.createSqlElement(SqlElementType.Table, TABLES[index]);
+			ISqlElement id = new SqlColumnVertex("id", table.getName());
+			ISqlElement idType = new ColumnTypeVertex("id", type);
+			ISqlElement primaryKey = new ColumnConstraintVertex("id", ConstraintType.PRIMARY_KEY);
+
+			schema.addVertex(table);
+			schema.addVertex(id);
+			schema.addVertex(idType);
+			schema.addVertex(primaryKey);
+			schema.addEdge(table, id, new TableHasColumnEdge(table, id));
+			schema.addEdge(id, idType, new ColumnHasType());
+			schema.addEdge(id, primaryKey, new ColumnHasConstraint());
+
+			tables[index] = table;
+			ids[index] = id;
+		}
+
+		schema.addEdge(ids[0], ids[1], new ForeignKeyRelationEdge(ids[0], tables[1], ids[1]));
+
+		return schema;
+	}
+}
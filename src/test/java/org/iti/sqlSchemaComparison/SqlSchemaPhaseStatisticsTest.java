@@ -0,0 +1,117 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.iti.sqlSchemaComparison.SqlSchemaPhaseStatistics.PhaseStatistics;
+import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontendTest;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlSchemaPhaseStatisticsTest {
+
+	@Test
+	public void frontendReportsLoadingPhases() {
+		SqlSchemaPhaseStatistics statistics = new SqlSchemaPhaseStatistics();
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new SqliteSchemaFrontend(
+				SqliteSchemaFrontendTest.DATABASE_FILE_PATH, false, statistics).createSqlSchema();
+
+		assertEquals(1, statistics.getStatistics(SqlSchemaPhase.CONNECTION_OPEN).getElementCount());
+		assertEquals(8, statistics.getStatistics(SqlSchemaPhase.TABLE_LISTING).getElementCount());
+		assertEquals(SqlElementFactory.getSqlElementsOfType(SqlColumnVertex.class, schema.vertexSet()).size(),
+				statistics.getStatistics(SqlSchemaPhase.COLUMN_LOAD).getElementCount());
+		assertEquals(getForeignKeyCount(schema), statistics.getStatistics(SqlSchemaPhase.FOREIGN_KEY_LOAD).getElementCount());
+		assertNull(statistics.getStatistics(SqlSchemaPhase.STRUCTURE_GRAPH_COMPARISON));
+	}
+
+	@Test
+	public void comparerReportsComparisonPhases() throws Exception {
+		SqlSchemaPhaseStatistics statistics = new SqlSchemaPhaseStatistics();
+		DirectedGraph<IStructureElement, DefaultEdge> schema1 = new SqliteSchemaFrontend(
+				SqliteSchemaFrontendTest.DATABASE_FILE_PATH).createSqlSchema();
+		DirectedGraph<IStructureElement, DefaultEdge> schema2 = new SqliteSchemaFrontend(
+				SqliteSchemaFrontendTest.RENAME_COLUMN_DATABASE_FILE_PATH).createSqlSchema();
+		SqlSchemaComparisonResult result = new SqlSchemaComparer(schema1, schema2, statistics).comparisonResult;
+		long vertexCount = schema1.vertexSet().size() + schema2.vertexSet().size();
+
+		assertEquals(vertexCount, statistics.getStatistics(SqlSchemaPhase.SCHEMA_FINGERPRINT).getElementCount());
+		assertEquals(vertexCount, statistics.getStatistics(SqlSchemaPhase.STRUCTURE_GRAPH_CONSTRUCTION).getElementCount());
+		assertTrue(statistics.getStatistics(SqlSchemaPhase.STRUCTURE_GRAPH_COMPARISON).getElementCount() > 0);
+		assertEquals(1, statistics.getStatistics(SqlSchemaPhase.RENAMED_COLUMN_TYPE_CHECK).getElementCount());
+		assertEquals(result.getAddedForeignKeyRelations().size() + result.getRemovedForeignKeyRelations().size(),
+				statistics.getStatistics(SqlSchemaPhase.FOREIGN_KEY_CHANGE_EXTRACTION).getElementCount());
+
+		long totalNanos = 0;
+
+		for (SqlSchemaPhase phase : SqlSchemaPhase.values()) {
+			PhaseStatistics phaseStatistics = statistics.getStatistics(phase);
+
+			if (phaseStatistics != null) {
+				assertEquals(1, phaseStatistics.getCalls());
+				totalNanos += phaseStatistics.getTotalNanos();
+			}
+		}
+
+		assertEquals(totalNanos, statistics.getTotalNanos());
+	}
+
+	@Test
+	public void isomorphicSchemasOnlyReportFingerprint() throws Exception {
+		SqlSchemaPhaseStatistics statistics = new SqlSchemaPhaseStatistics();
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new SqliteSchemaFrontend(
+				SqliteSchemaFrontendTest.DATABASE_FILE_PATH).createSqlSchema();
+
+		new SqlSchemaComparer(schema, schema, statistics);
+
+		assertNotNull(statistics.getStatistics(SqlSchemaPhase.SCHEMA_FINGERPRINT));
+		assertNull(statistics.getStatistics(SqlSchemaPhase.STRUCTURE_GRAPH_CONSTRUCTION));
+
+		String breakdown = statistics.toString();
+
+		assertTrue(breakdown.contains(SqlSchemaPhase.SCHEMA_FINGERPRINT.getDescription()));
+		assertFalse(breakdown.contains(SqlSchemaPhase.STRUCTURE_GRAPH_CONSTRUCTION.getDescription()));
+	}
+
+	private int getForeignKeyCount(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		int foreignKeys = 0;
+
+		for (DefaultEdge edge : schema.edgeSet())
+			if (edge instanceof ForeignKeyRelationEdge)
+				foreignKeys++;
+
+		return foreignKeys;
+	}
+}
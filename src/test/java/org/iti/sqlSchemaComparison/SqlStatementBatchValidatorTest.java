@@ -0,0 +1,163 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.iti.sqlSchemaComparison.edge.SqlStatementFrontendTest;
+import org.iti.sqlSchemaComparison.frontends.ISqlSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.SqlStatementLogReader;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontendTest;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlStatementBatchValidatorTest {
+
+	private static DirectedGraph<IStructureElement, DefaultEdge> sqliteSchema;
+
+	@BeforeClass
+	public static void init() {
+		ISqlSchemaFrontend sqliteFrontend = new SqliteSchemaFrontend(SqliteSchemaFrontendTest.DATABASE_FILE_PATH);
+
+		sqliteSchema = sqliteFrontend.createSqlSchema();
+	}
+
+	@Test
+	public void statementLogIsValidatedAndAggregated() throws IOException {
+		StringBuilder log = new StringBuilder();
+
+		for (int i = 0; i < 50; i++) {
+			log.append(SqlStatementFrontendTest.SINGLE_TABLE_QUERY).append("\n");
+			log.append(SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_COLUMN).append("\n");
+			log.append(SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_TABLE).append("\n");
+			log.append("SELECT FROM WHERE\n");
+		}
+
+		SqlStatementBatchValidator validator = new SqlStatementBatchValidator(sqliteSchema, null, 4);
+		SqlStatementBatchValidationResult result = validator.validate(new SqlStatementLogReader(new StringReader(log.toString())));
+
+		assertFalse(result.areStatementsValid());
+		assertEquals(200, result.getStatementCount());
+		assertEquals(4, result.getDistinctStatementCount());
+		assertEquals(2, result.getInvalidStatements().size());
+		assertEquals(SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_COLUMN, result.getInvalidStatements().get(0).getStatement());
+		assertEquals(50, result.getInvalidStatements().get(0).getOccurrences());
+		assertEquals(1, result.getInvalidStatements().get(0).getResult().getMissingColumns().size());
+		assertEquals(SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_TABLE, result.getInvalidStatements().get(1).getStatement());
+		assertEquals(1, result.getFailedStatements().size());
+		assertEquals(4, result.getFailedStatements().get(0).getFirstOccurrence());
+	}
+
+	@Test
+	public void statementLogIsStreamedToListener() throws IOException {
+		StringBuilder log = new StringBuilder();
+
+		for (int i = 0; i < 50; i++) {
+			log.append(SqlStatementFrontendTest.SINGLE_TABLE_QUERY).append("\n");
+			log.append(SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_COLUMN).append("\n");
+			log.append(SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_TABLE).append("\n");
+			log.append("SELECT FROM WHERE\n");
+		}
+
+		StringWriter output = new StringWriter();
+		SqlStatementBatchValidator validator = new SqlStatementBatchValidator(sqliteSchema, null, 4);
+
+		validator.validate(new SqlStatementLogReader(new StringReader(log.toString())),
+				new SqlStatementValidationReportWriter(output, OutputFormat.NDJSON));
+
+		String[] lines = output.toString().split("\n");
+
+		assertEquals(4, lines.length);
+		assertEquals("{\"record\":\"summary\",\"statements\":200,\"validatedStatements\":4,"
+				+ "\"invalidStatements\":2,\"failedStatements\":1}", lines[3]);
+	}
+
+	@Test
+	public void statementsWithDifferentLiteralsAreParsedOnce() throws IOException {
+		StringBuilder log = new StringBuilder();
+
+		for (int i = 0; i < 20; i++)
+			log.append("SELECT firstname, fee FROM customers WHERE id = ").append(i).append(";\n");
+
+		SqlStatementBatchValidator validator = new SqlStatementBatchValidator(sqliteSchema, null, 4);
+		SqlStatementBatchValidationResult result = validator.validate(new SqlStatementLogReader(new StringReader(log.toString())));
+
+		assertEquals(20, result.getDistinctStatementCount());
+		assertEquals(20, result.getInvalidStatements().size());
+		assertEquals(1, validator.getStatementCache().getMissCount());
+		assertEquals(19, validator.getStatementCache().getHitCount());
+	}
+
+	@Test
+	public void streamedStatementsAreDeduplicatedWithinWindow() throws IOException {
+		String[] statements = new String[] {
+			SqlStatementFrontendTest.SINGLE_TABLE_QUERY,
+			SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_COLUMN,
+			SqlStatementFrontendTest.SINGLE_TABLE_QUERY,
+			SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_TABLE,
+			SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_COLUMN,
+			SqlStatementFrontendTest.SINGLE_TABLE_QUERY
+		};
+		StringBuilder log = new StringBuilder();
+
+		for (String statement : statements)
+			log.append(statement).append("\n");
+
+		StringWriter output = new StringWriter();
+		SqlStatementBatchValidator validator = new SqlStatementBatchValidator(sqliteSchema, null, 1, 2);
+
+		validator.validate(new SqlStatementLogReader(new StringReader(log.toString())),
+				new SqlStatementValidationReportWriter(output, OutputFormat.NDJSON));
+
+		String[] lines = output.toString().split("\n");
+
+		// the missing column query has left the window when it reappears
+		assertEquals(4, lines.length);
+		assertTrue(lines[2].contains("\"statementNumber\":5,"));
+		assertEquals("{\"record\":\"summary\",\"statements\":6,\"validatedStatements\":5,"
+				+ "\"invalidStatements\":3,\"failedStatements\":0}", lines[3]);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void throwsIllegalArgumentExceptionForNonPositiveDistinctStatementWindow() {
+		new SqlStatementBatchValidator(sqliteSchema, null, 1, 0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void throwsIllegalArgumentExceptionForNonPositiveWorkerCount() {
+		new SqlStatementBatchValidator(sqliteSchema, null, 0);
+	}
+
+}
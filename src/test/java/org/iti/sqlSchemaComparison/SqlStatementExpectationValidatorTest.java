@@ -32,6 +32,10 @@ import static org.junit.Assert.assertSame;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.gibello.zql.ParseException;
 import org.gibello.zql.ZFromItem;
@@ -221,6 +225,42 @@ public class SqlStatementExpectationValidatorTest {
 		assertTrue(result.isStatementValid());
 	}
 
+	@Test
+	public void validatorCanBeSharedBetweenThreads() throws Exception {
+		final String[] queries = new String[] {
+			QUERY_WITH_MISSING_COLUMN,
+			QUERY_WITH_TWO_MISSING_TABLES,
+			QUERY_WITH_FOREIGN_TABLE_REFERENCE,
+			QUERY_WITH_TABLE_PREFIXED_COLUMNS_AND_MISSING_COLUMN
+		};
+		final SqlStatementExpectationValidator validator = new SqlStatementExpectationValidator(sqliteSchema);
+		List<String> expectedResults = new ArrayList<>();
+		List<Future<String>> results = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		for (String query : queries)
+			expectedResults.add(validator.computeGraphMatching(new SqlStatementFrontend(query, null).createSqlSchema()).toString());
+
+		try {
+			for (int i = 0; i < 100; i++) {
+				final String query = queries[i % queries.length];
+
+				results.add(executor.submit(new Callable<String>() {
+
+					@Override
+					public String call() throws Exception {
+						return validator.computeGraphMatching(new SqlStatementFrontend(query, null).createSqlSchema()).toString();
+					}
+				}));
+			}
+
+			for (int i = 0; i < results.size(); i++)
+				assertEquals(expectedResults.get(i % queries.length), results.get(i).get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@After
 	public void tearDown() { }
 }
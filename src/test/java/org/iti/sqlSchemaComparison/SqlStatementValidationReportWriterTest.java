@@ -0,0 +1,143 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.sqlSchemaComparison.vertex.SqlElementType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlStatementValidationReportWriterTest {
+
+	private static final String STATEMENT = "SELECT name, account FROM customers, \"missing\";";
+
+	private SqlStatementExpectationValidationResult result;
+
+	@Before
+	public void setUp() {
+		ISqlElement customers = SqlElementFactory.createSqlElement(SqlElementType.Table, "customers");
+		ISqlElement accounts = SqlElementFactory.createSqlElement(SqlElementType.Table, "accounts");
+		ISqlElement missing = SqlElementFactory.createSqlElement(SqlElementType.Table, "missing");
+		ISqlElement account = new SqlColumnVertex("account", "");
+		List<List<ISqlElement>> paths = new ArrayList<>();
+		Map<ISqlElement, List<List<ISqlElement>>> reachableColumns = new HashMap<>();
+
+		paths.add(Arrays.<ISqlElement>asList(customers, new SqlColumnVertex("account_id", "customers"),
+				new SqlColumnVertex("id", "accounts"), accounts));
+		reachableColumns.put(account, paths);
+
+		result = new SqlStatementExpectationValidationResult(Arrays.asList(missing),
+				new ArrayList<ISqlElement>(), reachableColumns);
+	}
+
+	@Test
+	public void findingsAreWrittenAsCsv() throws IOException {
+		StringWriter output = new StringWriter();
+		SqlStatementValidationReportWriter writer = new SqlStatementValidationReportWriter(output, OutputFormat.CSV);
+
+		writer.statementValidated(STATEMENT, 3, result);
+		writer.statementFailed("SELECT FROM WHERE;", 4, "Encountered \"FROM\", expected one of: a, b");
+		writer.validationFinished(4, 2, 1, 1);
+
+		assertEquals("statement_number,statement,finding,element,detail\n"
+				+ "3,\"SELECT name, account FROM customers, \"\"missing\"\";\",MISSING_TABLE,missing,\n"
+				+ "3,\"SELECT name, account FROM customers, \"\"missing\"\";\",MISSING_BUT_REACHABLE_COLUMN,account,"
+				+ "customers -> customers.account_id -> accounts.id -> accounts\n"
+				+ "4,SELECT FROM WHERE;,ERROR,,\"Encountered \"\"FROM\"\", expected one of: a, b\"\n", output.toString());
+	}
+
+	@Test
+	public void findingsAreWrittenAsJsonDocument() throws IOException {
+		StringWriter output = new StringWriter();
+		SqlStatementValidationReportWriter writer = new SqlStatementValidationReportWriter(output, OutputFormat.JSON);
+
+		writer.statementValidated(STATEMENT, 3, result);
+		writer.statementFailed("SELECT FROM WHERE;", 4, "Encountered \"FROM\"");
+		writer.validationFinished(4, 2, 1, 1);
+
+		assertEquals("{\"statements\":[{\"record\":\"statement\",\"statementNumber\":3,"
+				+ "\"statement\":\"SELECT name, account FROM customers, \\\"missing\\\";\","
+				+ "\"missingTables\":[\"missing\"],\"missingColumns\":[],"
+				+ "\"missingButReachableColumns\":[{\"column\":\"account\","
+				+ "\"path\":[\"customers\",\"customers.account_id\",\"accounts.id\",\"accounts\"]}]},"
+				+ "{\"record\":\"error\",\"statementNumber\":4,\"statement\":\"SELECT FROM WHERE;\","
+				+ "\"error\":\"Encountered \\\"FROM\\\"\"}],"
+				+ "\"summary\":{\"statements\":4,\"validatedStatements\":2,\"invalidStatements\":1,\"failedStatements\":1}}\n",
+				output.toString());
+	}
+
+	@Test
+	public void emptyJsonDocumentIsWritten() throws IOException {
+		StringWriter output = new StringWriter();
+		SqlStatementValidationReportWriter writer = new SqlStatementValidationReportWriter(output, OutputFormat.JSON);
+
+		writer.validationFinished(1, 1, 0, 0);
+
+		assertEquals("{\"statements\":[],\"summary\":{\"statements\":1,\"validatedStatements\":1,"
+				+ "\"invalidStatements\":0,\"failedStatements\":0}}\n", output.toString());
+	}
+
+	@Test
+	public void findingsAreWrittenAsNdjson() throws IOException {
+		StringWriter output = new StringWriter();
+		SqlStatementValidationReportWriter writer = new SqlStatementValidationReportWriter(output, OutputFormat.NDJSON);
+
+		writer.statementValidated(STATEMENT, 3, result);
+
+		assertEquals("{\"record\":\"statement\",\"statementNumber\":3,"
+				+ "\"statement\":\"SELECT name, account FROM customers, \\\"missing\\\";\","
+				+ "\"missingTables\":[\"missing\"],\"missingColumns\":[],"
+				+ "\"missingButReachableColumns\":[{\"column\":\"account\","
+				+ "\"path\":[\"customers\",\"customers.account_id\",\"accounts.id\",\"accounts\"]}]}\n", output.toString());
+	}
+
+	@Test
+	public void validStatementsAreNotWritten() throws IOException {
+		StringWriter output = new StringWriter();
+		SqlStatementValidationReportWriter writer = new SqlStatementValidationReportWriter(output, OutputFormat.TEXT);
+
+		writer.statementValidated(STATEMENT, 1, new SqlStatementExpectationValidationResult(null, null, null));
+		writer.validationFinished(1, 1, 0, 0);
+
+		assertTrue(output.toString().startsWith("Statement Log Validation Result\n"));
+		assertTrue(output.toString().endsWith("\nAll statements are valid!\n"));
+		assertFalse(output.toString().contains(STATEMENT));
+	}
+}
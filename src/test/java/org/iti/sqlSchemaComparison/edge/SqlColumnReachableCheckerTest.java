@@ -22,10 +22,12 @@
 package org.iti.sqlSchemaComparison.edge;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.iti.sqlSchemaComparison.reachability.ISqlElementReachabilityChecker;
 import org.iti.sqlSchemaComparison.reachability.SqlColumnReachableChecker;
+import org.iti.sqlSchemaComparison.reachability.SqlForeignKeyReachabilityIndex;
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
 import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
 import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
@@ -138,6 +140,24 @@ public class SqlColumnReachableCheckerTest {
 		assertTrue(checker.getPath().contains(c1));
 	}
 
+	@Test
+	public void unreachableColumnDetectedCorrectly() {
+		ISqlElementReachabilityChecker checker = new SqlColumnReachableChecker(schema1, t1, c2);
+
+		assertFalse(checker.isReachable());
+		assertTrue(checker.getPath().isEmpty());
+	}
+
+	@Test
+	public void reachabilityIndexIsReusedForSeveralChecks() {
+		SqlForeignKeyReachabilityIndex index = new SqlForeignKeyReachabilityIndex(schema3);
+
+		assertEquals(8, new SqlColumnReachableChecker(index, t1, c1).getPath().size());
+		assertEquals(4, new SqlColumnReachableChecker(index, t2, c4).getPath().size());
+		assertEquals(7, new SqlColumnReachableChecker(index, t3, c3).getPath().size());
+		assertEquals(index.getPath(t1, c1), new SqlColumnReachableChecker(index, t1, c1).getPath());
+	}
+
 	@After
 	public void tearDown() {
 
@@ -0,0 +1,394 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.fixtures;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.iti.sqlSchemaComparison.edge.ColumnHasConstraint;
+import org.iti.sqlSchemaComparison.edge.ColumnHasType;
+import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.sqlSchemaComparison.vertex.SqlElementType;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnConstraintVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnTypeVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint.ConstraintType;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+
+/**
+ * A schema created by a {@link SyntheticSchemaGenerator}. The schema can be
+ * emitted as schema graph, SQLite database, H2 database and JPA entity
+ * sources. Apart from the primary key columns ({@code id}), all columns
+ * have schema-wide unique names, so that renamed and moved columns can be
+ * told apart by the comparison.
+ */
+public class SyntheticSchema {
+
+	public enum ColumnType {
+		VARCHAR("VARCHAR(255)", "String", "'n/a'"),
+		INTEGER("INTEGER", "int", "0"),
+		REAL("REAL", "double", "0.0"),
+		DATE("DATE", "java.util.Date", "'2000-01-01'"),
+		BLOB("BLOB", "byte[]", null);
+
+		private final String sqlType;
+
+		private final String javaType;
+
+		private final String defaultValue;
+
+		private ColumnType(String sqlType, String javaType, String defaultValue) {
+			this.sqlType = sqlType;
+			this.javaType = javaType;
+			this.defaultValue = defaultValue;
+		}
+
+		public String getSqlType() {
+			return sqlType;
+		}
+
+		public String getJavaType() {
+			return javaType;
+		}
+
+		public String getDefaultValue() {
+			return defaultValue;
+		}
+	}
+
+	static final String PRIMARY_KEY = "id";
+
+	static class Column {
+
+		String name;
+
+		ColumnType type;
+
+		boolean notNull = false;
+
+		String defaultValue = null;
+
+		Table referencedTable = null;
+
+		Column(String name, ColumnType type) {
+			this.name = name;
+			this.type = type;
+		}
+
+		Column copy() {
+			Column copy = new Column(name, type);
+
+			copy.notNull = notNull;
+			copy.defaultValue = defaultValue;
+
+			return copy;
+		}
+	}
+
+	static class Table {
+
+		String name;
+
+		boolean primaryKey;
+
+		final List<Column> columns = new ArrayList<>();
+
+		Table(String name, boolean primaryKey) {
+			this.name = name;
+			this.primaryKey = primaryKey;
+		}
+
+		String getClassName() {
+			return "T" + name.replace("_", "");
+		}
+	}
+
+	final List<Table> tables = new ArrayList<>();
+
+	int nameCount = 0;
+
+	int tableCount = 0;
+
+	SyntheticSchema() { }
+
+	String nextName(String prefix) {
+		return prefix + ++nameCount;
+	}
+
+	String nextTableName() {
+		return String.format("t_%05d", ++tableCount);
+	}
+
+	SyntheticSchema copy() {
+		SyntheticSchema copy = new SyntheticSchema();
+		Map<Table, Table> copies = new HashMap<>();
+
+		copy.nameCount = nameCount;
+		copy.tableCount = tableCount;
+
+		for (Table table : tables) {
+			Table tableCopy = new Table(table.name, table.primaryKey);
+
+			copies.put(table, tableCopy);
+			copy.tables.add(tableCopy);
+		}
+
+		for (Table table : tables) {
+			for (Column column : table.columns) {
+				Column columnCopy = column.copy();
+
+				columnCopy.referencedTable = copies.get(column.referencedTable);
+				copies.get(table).columns.add(columnCopy);
+			}
+		}
+
+		return copy;
+	}
+
+	public int getTableCount() {
+		return tables.size();
+	}
+
+	public int getColumnCount() {
+		int columnCount = 0;
+
+		for (Table table : tables)
+			columnCount += table.columns.size() + (table.primaryKey ? 1 : 0);
+
+		return columnCount;
+	}
+
+	/**
+	 * Creates the schema graph as the SQLite frontend reads it from the
+	 * database written by {@link #writeSqliteDatabase(File)}.
+	 */
+	public DirectedGraph<IStructureElement, DefaultEdge> createSqlSchema() {
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new IndexedSqlSchema();
+		Map<Table, ISqlElement> tableVertices = new HashMap<>();
+		Map<Table, ISqlElement> primaryKeys = new HashMap<>();
+
+		for (Table table : tables) {
+			ISqlElement tableVertex = SqlElementFactory.createSqlElement(SqlElementType.Table, table.name);
+
+			schema.addVertex(tableVertex);
+			tableVertices.put(table, tableVertex);
+
+			if (table.primaryKey) {
+				SqlColumnVertex primaryKey = createColumn(schema, tableVertex, new Column(PRIMARY_KEY, ColumnType.INTEGER));
+
+				addConstraint(schema, primaryKey, new ColumnConstraintVertex(PRIMARY_KEY, ConstraintType.PRIMARY_KEY));
+				primaryKeys.put(table, primaryKey);
+			}
+		}
+
+		for (Table table : tables) {
+			for (Column column : table.columns) {
+				SqlColumnVertex columnVertex = createColumn(schema, tableVertices.get(table), column);
+
+				if (column.referencedTable != null) {
+					ISqlElement primaryKey = primaryKeys.get(column.referencedTable);
+
+					schema.addEdge(columnVertex, primaryKey,
+							new ForeignKeyRelationEdge(columnVertex, tableVertices.get(column.referencedTable), primaryKey));
+				}
+			}
+		}
+
+		return schema;
+	}
+
+	private static SqlColumnVertex createColumn(DirectedGraph<IStructureElement, DefaultEdge> schema, ISqlElement table,
+			Column column) {
+		SqlColumnVertex columnVertex = new SqlColumnVertex(column.name, table.getName());
+		ISqlElement columnType = new ColumnTypeVertex(column.name, column.type.getSqlType());
+
+		schema.addVertex(columnVertex);
+		schema.addEdge(table, columnVertex, new TableHasColumnEdge(table, columnVertex));
+		schema.addVertex(columnType);
+		schema.addEdge(columnVertex, columnType, new ColumnHasType());
+
+		if (column.notNull) {
+			addConstraint(schema, columnVertex, new ColumnConstraintVertex(column.name, ConstraintType.NOT_NULL));
+			columnVertex.setMandatory(true);
+		}
+
+		if (column.defaultValue != null) {
+			addConstraint(schema, columnVertex, new ColumnConstraintVertex(column.name, ConstraintType.DEFAULT, column.defaultValue));
+			columnVertex.setMandatory(false);
+		}
+
+		return columnVertex;
+	}
+
+	private static void addConstraint(DirectedGraph<IStructureElement, DefaultEdge> schema, ISqlElement column,
+			ColumnConstraintVertex constraint) {
+		schema.addVertex(constraint);
+		schema.addEdge(column, constraint, new ColumnHasConstraint());
+	}
+
+	public List<String> getCreateTableStatements() {
+		List<String> statements = new ArrayList<>();
+
+		for (Table table : tables)
+			statements.add(getCreateTableStatement(table));
+
+		return statements;
+	}
+
+	private static String getCreateTableStatement(Table table) {
+		StringBuilder statement = new StringBuilder();
+		String separator = "";
+
+		statement.append("CREATE TABLE ").append(table.name).append(" (");
+
+		if (table.primaryKey) {
+			statement.append(PRIMARY_KEY).append(" INTEGER PRIMARY KEY");
+			separator = ", ";
+		}
+
+		for (Column column : table.columns) {
+			statement.append(separator).append(column.name).append(' ').append(column.type.getSqlType());
+			separator = ", ";
+
+			if (column.notNull)
+				statement.append(" NOT NULL");
+
+			if (column.defaultValue != null)
+				statement.append(" DEFAULT ").append(column.defaultValue);
+
+			if (column.referencedTable != null)
+				statement.append(" REFERENCES ").append(column.referencedTable.name).append("(").append(PRIMARY_KEY).append(")");
+		}
+
+		return statement.append(")").toString();
+	}
+
+	public void writeSqliteDatabase(File file) throws SQLException {
+		writeDatabase("jdbc:sqlite:" + file.getPath());
+	}
+
+	/**
+	 * Writes an H2 database; the passed path has no file extension, as
+	 * expected by the H2 frontend.
+	 */
+	public void writeH2Database(File file) throws SQLException {
+		writeDatabase("jdbc:h2:" + file.getAbsolutePath());
+	}
+
+	private void writeDatabase(String url) throws SQLException {
+		Connection connection = DriverManager.getConnection(url);
+
+		try {
+			connection.setAutoCommit(false);
+
+			Statement stm = connection.createStatement();
+
+			try {
+				for (String statement : getCreateTableStatements())
+					stm.executeUpdate(statement);
+			} finally {
+				stm.close();
+			}
+
+			connection.commit();
+		} finally {
+			connection.close();
+		}
+	}
+
+	/**
+	 * Writes one JPA entity per table into the package {@code fixture} below
+	 * the passed directory.
+	 */
+	public void writeJpaSources(File directory) throws IOException {
+		File packageDirectory = new File(directory, "fixture");
+
+		if (!packageDirectory.mkdirs() && !packageDirectory.isDirectory())
+			throw new IOException("Could not create " + packageDirectory);
+
+		for (Table table : tables) {
+			File source = new File(packageDirectory, table.getClassName() + ".java");
+
+			Files.write(source.toPath(), getEntitySource(table).getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private static String getEntitySource(Table table) {
+		StringBuilder source = new StringBuilder();
+
+		source.append("package fixture;\n\n");
+		source.append("import javax.persistence.Entity;\n");
+		source.append("import javax.persistence.Id;\n");
+		source.append("import javax.persistence.ManyToOne;\n");
+		source.append("import javax.persistence.Table;\n\n");
+		source.append("@Entity\n");
+		source.append("@Table(name=\"").append(table.name).append("\")\n");
+		source.append("public class ").append(table.getClassName()).append(" {\n");
+
+		if (table.primaryKey)
+			source.append("\n\t@Id\n\tpublic int getId() { return 0; }\n");
+
+		for (Column column : table.columns) {
+			String getter = "get" + Character.toUpperCase(column.name.charAt(0)) + column.name.substring(1);
+
+			if (column.referencedTable != null) {
+				source.append("\n\t@ManyToOne\n");
+				source.append("\tpublic ").append(column.referencedTable.getClassName()).append(' ').append(getter)
+					.append("() { return null; }\n");
+			} else {
+				source.append("\n\tpublic ").append(column.type.getJavaType()).append(' ').append(getter)
+					.append("() { return ").append(column.type == ColumnType.INTEGER || column.type == ColumnType.REAL ? "0" : "null")
+					.append("; }\n");
+			}
+		}
+
+		return source.append("}\n").toString();
+	}
+
+	public static void delete(File file) {
+		File[] children = file.listFiles();
+
+		if (children != null)
+			for (File child : children)
+				delete(child);
+
+		file.delete();
+	}
+
+}
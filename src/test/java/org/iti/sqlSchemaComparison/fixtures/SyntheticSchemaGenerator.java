@@ -0,0 +1,434 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.fixtures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchema.Column;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchema.ColumnType;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchema.Table;
+
+/**
+ * Generates seeded synthetic schemas for scaling tests and benchmarks. The
+ * same parameters and seed always produce the same schema.
+ * {@link #mutate(SyntheticSchema, SyntheticSchemaMutation, long)} derives a
+ * "refactored" twin of a schema.
+ */
+public class SyntheticSchemaGenerator {
+
+	public enum ForeignKeyShape {
+		/** No foreign keys. */
+		NONE,
+		/** Every table references its predecessor. */
+		CHAIN,
+		/** Every table references the first table. */
+		STAR,
+		/** Every table references a random predecessor. */
+		RANDOM
+	}
+
+	private int tableCount = 10;
+
+	private int minimumColumnCount = 2;
+
+	private int maximumColumnCount = 8;
+
+	private Map<ColumnType, Integer> typeWeights = new EnumMap<>(ColumnType.class);
+
+	private double primaryKeyRatio = 1.0;
+
+	private double notNullRatio = 0.2;
+
+	private double defaultRatio = 0.1;
+
+	private ForeignKeyShape foreignKeyShape = ForeignKeyShape.RANDOM;
+
+	private double foreignKeyDensity = 0.5;
+
+	public SyntheticSchemaGenerator() {
+		typeWeights.put(ColumnType.VARCHAR, 5);
+		typeWeights.put(ColumnType.INTEGER, 4);
+		typeWeights.put(ColumnType.REAL, 1);
+		typeWeights.put(ColumnType.DATE, 1);
+		typeWeights.put(ColumnType.BLOB, 1);
+	}
+
+	public SyntheticSchemaGenerator setTableCount(int tableCount) {
+		if (tableCount < 0)
+			throw new IllegalArgumentException("Number of tables must not be negative!");
+
+		this.tableCount = tableCount;
+
+		return this;
+	}
+
+	/**
+	 * Sets the range of the number of columns per table, excluding the
+	 * primary key and foreign key columns.
+	 */
+	public SyntheticSchemaGenerator setColumnCount(int minimumColumnCount, int maximumColumnCount) {
+		if (minimumColumnCount < 1 || maximumColumnCount < minimumColumnCount)
+			throw new IllegalArgumentException("Invalid range of columns per table!");
+
+		this.minimumColumnCount = minimumColumnCount;
+		this.maximumColumnCount = maximumColumnCount;
+
+		return this;
+	}
+
+	public SyntheticSchemaGenerator setTypeWeight(ColumnType type, int weight) {
+		if (weight < 0)
+			throw new IllegalArgumentException("Type weights must not be negative!");
+
+		typeWeights.put(type, weight);
+
+		if (getTotalTypeWeight() == 0)
+			throw new IllegalArgumentException("At least one type weight must be positive!");
+
+		return this;
+	}
+
+	public SyntheticSchemaGenerator setPrimaryKeyRatio(double primaryKeyRatio) {
+		this.primaryKeyRatio = checkRatio(primaryKeyRatio);
+
+		return this;
+	}
+
+	public SyntheticSchemaGenerator setNotNullRatio(double notNullRatio) {
+		this.notNullRatio = checkRatio(notNullRatio);
+
+		return this;
+	}
+
+	public SyntheticSchemaGenerator setDefaultRatio(double defaultRatio) {
+		this.defaultRatio = checkRatio(defaultRatio);
+
+		return this;
+	}
+
+	/**
+	 * Sets the shape of the foreign key graph and the ratio of tables that
+	 * reference another table. Only tables with a primary key are referenced.
+	 */
+	public SyntheticSchemaGenerator setForeignKeys(ForeignKeyShape foreignKeyShape, double foreignKeyDensity) {
+		this.foreignKeyShape = foreignKeyShape;
+		this.foreignKeyDensity = checkRatio(foreignKeyDensity);
+
+		return this;
+	}
+
+	private static double checkRatio(double ratio) {
+		if (ratio < 0 || ratio > 1)
+			throw new IllegalArgumentException("Ratios must be between 0 and 1!");
+
+		return ratio;
+	}
+
+	public SyntheticSchema generate(long seed) {
+		SyntheticSchema schema = new SyntheticSchema();
+		Random random = new Random(seed);
+
+		for (int i = 0; i < tableCount; i++)
+			addTable(schema, random, foreignKeyShape);
+
+		return schema;
+	}
+
+	private void addTable(SyntheticSchema schema, Random random, ForeignKeyShape shape) {
+		Table table = new Table(schema.nextTableName(), random.nextDouble() < primaryKeyRatio);
+		int columnCount = minimumColumnCount + random.nextInt(maximumColumnCount - minimumColumnCount + 1);
+
+		for (int c = 0; c < columnCount; c++)
+			table.columns.add(createColumn(schema, random));
+
+		Table referencedTable = getReferencedTable(schema, random, shape);
+
+		if (referencedTable != null) {
+			Column column = new Column(schema.nextName("ref"), ColumnType.INTEGER);
+
+			column.referencedTable = referencedTable;
+			table.columns.add(column);
+		}
+
+		schema.tables.add(table);
+	}
+
+	private Table getReferencedTable(SyntheticSchema schema, Random random, ForeignKeyShape shape) {
+		if (shape == ForeignKeyShape.NONE || schema.tables.isEmpty() || random.nextDouble() >= foreignKeyDensity)
+			return null;
+
+		Table referencedTable;
+
+		switch (shape) {
+		case CHAIN:
+			referencedTable = schema.tables.get(schema.tables.size() - 1);
+			break;
+
+		case STAR:
+			referencedTable = schema.tables.get(0);
+			break;
+
+		default:
+			referencedTable = schema.tables.get(random.nextInt(schema.tables.size()));
+			break;
+		}
+
+		return referencedTable.primaryKey ? referencedTable : null;
+	}
+
+	private Column createColumn(SyntheticSchema schema, Random random) {
+		Column column = new Column(schema.nextName("c"), getColumnType(random));
+
+		column.notNull = random.nextDouble() < notNullRatio;
+
+		if (column.type.getDefaultValue() != null && random.nextDouble() < defaultRatio)
+			column.defaultValue = column.type.getDefaultValue();
+
+		return column;
+	}
+
+	private ColumnType getColumnType(Random random) {
+		int weight = random.nextInt(getTotalTypeWeight());
+
+		for (Map.Entry<ColumnType, Integer> entry : typeWeights.entrySet()) {
+			weight -= entry.getValue();
+
+			if (weight < 0)
+				return entry.getKey();
+		}
+
+		throw new IllegalStateException();
+	}
+
+	private int getTotalTypeWeight() {
+		int totalWeight = 0;
+
+		for (int weight : typeWeights.values())
+			totalWeight += weight;
+
+		return totalWeight;
+	}
+
+	/**
+	 * Returns a copy of the schema with the modifications of the mutation
+	 * script applied. Each existing table is modified at most once, as the
+	 * comparison cannot tell several renamed or moved columns of one table
+	 * apart; steps are skipped once no suitable table is left. Dropped tables
+	 * also drop the foreign keys that reference them.
+	 */
+	public SyntheticSchema mutate(SyntheticSchema schema, SyntheticSchemaMutation mutation, long seed) {
+		SyntheticSchema twin = schema.copy();
+		Random random = new Random(seed);
+		List<Table> shuffledTables = new ArrayList<>(twin.tables);
+
+		Collections.shuffle(shuffledTables, random);
+
+		LinkedList<Table> unmodifiedTables = new LinkedList<>(shuffledTables);
+
+		for (SyntheticSchemaMutation.Step step : mutation.getSteps()) {
+			for (int i = 0; i < step.getCount(); i++)
+				apply(twin, step.getKind(), unmodifiedTables, random);
+		}
+
+		return twin;
+	}
+
+	private void apply(SyntheticSchema schema, SyntheticSchemaMutation.Kind kind, LinkedList<Table> unmodifiedTables, Random random) {
+		Table table;
+		Column column;
+
+		switch (kind) {
+		case ADD_TABLE:
+			addTable(schema, random, foreignKeyShape == ForeignKeyShape.NONE ? ForeignKeyShape.NONE : ForeignKeyShape.RANDOM);
+			break;
+
+		case DROP_TABLE:
+			table = unmodifiedTables.poll();
+
+			if (table != null) {
+				schema.tables.remove(table);
+
+				for (Table other : schema.tables)
+					for (Column c : other.columns)
+						if (c.referencedTable == table)
+							c.referencedTable = null;
+			}
+			break;
+
+		case RENAME_TABLE:
+			table = unmodifiedTables.poll();
+
+			if (table != null)
+				table.name = schema.nextName("t_r");
+			break;
+
+		case ADD_COLUMN:
+			table = unmodifiedTables.poll();
+
+			if (table != null)
+				table.columns.add(createColumn(schema, random));
+			break;
+
+		case DROP_COLUMN:
+			table = pollTable(unmodifiedTables, ANY_COLUMN, true);
+
+			if (table != null)
+				table.columns.remove(random.nextInt(table.columns.size()));
+			break;
+
+		case RENAME_COLUMN:
+			table = pollTable(unmodifiedTables, ANY_COLUMN, false);
+
+			if (table != null)
+				table.columns.get(random.nextInt(table.columns.size())).name = schema.nextName("r");
+			break;
+
+		case MOVE_COLUMN:
+			table = pollTable(unmodifiedTables, ANY_COLUMN, true);
+			Table target = unmodifiedTables.poll();
+
+			if (table != null && target != null)
+				target.columns.add(table.columns.remove(random.nextInt(table.columns.size())));
+			break;
+
+		case CHANGE_COLUMN_TYPE:
+			table = pollTable(unmodifiedTables, COLUMN_WITHOUT_REFERENCE, false);
+
+			if (table != null) {
+				column = getColumn(table, COLUMN_WITHOUT_REFERENCE, random);
+				column.type = ColumnType.values()[(column.type.ordinal() + 1) % ColumnType.values().length];
+
+				if (column.defaultValue != null)
+					column.defaultValue = column.type.getDefaultValue();
+			}
+			break;
+
+		case ADD_FOREIGN_KEY:
+			table = pollTable(unmodifiedTables, INTEGER_COLUMN_WITHOUT_REFERENCE, false);
+
+			if (table != null) {
+				List<Table> referencedTables = new ArrayList<>();
+
+				for (Table other : schema.tables)
+					if (other != table && other.primaryKey)
+						referencedTables.add(other);
+
+				if (!referencedTables.isEmpty())
+					getColumn(table, INTEGER_COLUMN_WITHOUT_REFERENCE, random).referencedTable =
+						referencedTables.get(random.nextInt(referencedTables.size()));
+			}
+			break;
+
+		case DROP_FOREIGN_KEY:
+			table = pollTable(unmodifiedTables, COLUMN_WITH_REFERENCE, false);
+
+			if (table != null)
+				getColumn(table, COLUMN_WITH_REFERENCE, random).referencedTable = null;
+			break;
+
+		default:
+			break;
+		}
+	}
+
+	private interface ColumnFilter {
+
+		boolean accept(Column column);
+	}
+
+	private static final ColumnFilter ANY_COLUMN = new ColumnFilter() {
+
+		@Override
+		public boolean accept(Column column) {
+			return true;
+		}
+	};
+
+	private static final ColumnFilter COLUMN_WITHOUT_REFERENCE = new ColumnFilter() {
+
+		@Override
+		public boolean accept(Column column) {
+			return column.referencedTable == null;
+		}
+	};
+
+	private static final ColumnFilter INTEGER_COLUMN_WITHOUT_REFERENCE = new ColumnFilter() {
+
+		@Override
+		public boolean accept(Column column) {
+			return column.referencedTable == null && column.type == ColumnType.INTEGER && column.defaultValue == null;
+		}
+	};
+
+	private static final ColumnFilter COLUMN_WITH_REFERENCE = new ColumnFilter() {
+
+		@Override
+		public boolean accept(Column column) {
+			return column.referencedTable != null;
+		}
+	};
+
+	/**
+	 * Removes and returns the next unmodified table with a column accepted
+	 * by the filter. Tables whose last column would be removed are skipped
+	 * if a column is removed.
+	 */
+	private static Table pollTable(LinkedList<Table> unmodifiedTables, ColumnFilter filter, boolean removeColumn) {
+		Iterator<Table> iterator = unmodifiedTables.iterator();
+
+		while (iterator.hasNext()) {
+			Table table = iterator.next();
+
+			if (removeColumn && table.columns.size() + (table.primaryKey ? 1 : 0) < 2)
+				continue;
+
+			for (Column column : table.columns) {
+				if (filter.accept(column)) {
+					iterator.remove();
+
+					return table;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	private static Column getColumn(Table table, ColumnFilter filter, Random random) {
+		List<Column> columns = new ArrayList<>();
+
+		for (Column column : table.columns)
+			if (filter.accept(column))
+				columns.add(column);
+
+		return columns.get(random.nextInt(columns.size()));
+	}
+
+}
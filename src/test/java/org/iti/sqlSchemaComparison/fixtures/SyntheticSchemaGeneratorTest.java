@@ -0,0 +1,153 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.fixtures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.iti.sqlSchemaComparison.SchemaModification;
+import org.iti.sqlSchemaComparison.SqlSchemaComparer;
+import org.iti.sqlSchemaComparison.SqlSchemaFingerprint;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchema.Table;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaGenerator.ForeignKeyShape;
+import org.iti.sqlSchemaComparison.fixtures.SyntheticSchemaMutation.Kind;
+import org.iti.sqlSchemaComparison.frontends.database.H2SchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.technologies.JPASchemaFrontend;
+import org.iti.sqlSchemaComparison.vertex.ISqlElement;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SyntheticSchemaGeneratorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private SyntheticSchemaGenerator generator = new SyntheticSchemaGenerator()
+			.setTableCount(40)
+			.setPrimaryKeyRatio(0.9)
+			.setNotNullRatio(0.3)
+			.setDefaultRatio(0.3)
+			.setForeignKeys(ForeignKeyShape.RANDOM, 0.6);
+
+	@Test
+	public void schemasDependOnSeedOnly() {
+		SqlSchemaFingerprint fingerprint = SqlSchemaFingerprint.of(generator.generate(1).createSqlSchema());
+
+		assertEquals(fingerprint, SqlSchemaFingerprint.of(generator.generate(1).createSqlSchema()));
+		assertFalse(fingerprint.equals(SqlSchemaFingerprint.of(generator.generate(2).createSqlSchema())));
+	}
+
+	@Test
+	public void sqliteDatabaseMatchesSchemaGraph() throws SQLException {
+		SyntheticSchema schema = generator.generate(3);
+		File database = new File(folder.getRoot(), "schema.sqlite");
+
+		schema.writeSqliteDatabase(database);
+
+		assertEquals(SqlSchemaFingerprint.of(schema.createSqlSchema()),
+				SqlSchemaFingerprint.of(new SqliteSchemaFrontend(database.getPath()).createSqlSchema()));
+	}
+
+	@Test
+	public void h2DatabaseAndJpaSourcesContainAllTables() throws SQLException, IOException {
+		SyntheticSchema schema = generator.generate(4);
+		File database = new File(folder.getRoot(), "schema");
+		File sources = folder.newFolder("jpa");
+
+		schema.writeH2Database(database);
+		schema.writeJpaSources(sources);
+
+		assertEquals(schema.getTableCount(), getTableCount(new H2SchemaFrontend(database.getAbsolutePath()).createSqlSchema()));
+		assertEquals(schema.getTableCount(), getTableCount(new JPASchemaFrontend(sources.getPath()).createSqlSchema()));
+	}
+
+	@Test
+	public void mutationScriptCreatesRefactoredTwin() throws StructureGraphComparisonException {
+		SyntheticSchema schema = generator.generate(5);
+
+		assertModifications(schema, new SyntheticSchemaMutation().add(Kind.RENAME_COLUMN, 3), SchemaModification.RENAME_COLUMN, 3);
+		assertModifications(schema, new SyntheticSchemaMutation().add(Kind.MOVE_COLUMN, 2), SchemaModification.MOVE_COLUMN, 2);
+		assertModifications(schema, new SyntheticSchemaMutation().add(Kind.RENAME_TABLE, 1), SchemaModification.RENAME_TABLE, 1);
+		assertModifications(schema, new SyntheticSchemaMutation().add(Kind.CHANGE_COLUMN_TYPE, 4), SchemaModification.CHANGE_COLUMN_TYPE, 4);
+
+		SqlSchemaComparer comparer = new SqlSchemaComparer(schema.createSqlSchema(),
+				generator.mutate(schema, new SyntheticSchemaMutation().add(Kind.DROP_FOREIGN_KEY, 2), 7).createSqlSchema());
+
+		assertEquals(2, comparer.comparisonResult.getRemovedForeignKeyRelations().size());
+		assertEquals(0, comparer.comparisonResult.getModifications().size());
+	}
+
+	@Test
+	public void addedTablesDoNotReuseNamesOfDroppedTables() {
+		SyntheticSchema schema = generator.generate(6);
+		SyntheticSchema twin = generator.mutate(schema, new SyntheticSchemaMutation()
+				.add(Kind.DROP_TABLE, 2).add(Kind.ADD_TABLE, 2), 7);
+		Set<String> tableNames = new HashSet<>();
+
+		for (Table table : twin.tables)
+			assertTrue(table.name, tableNames.add(table.name));
+
+		assertEquals(schema.getTableCount(), twin.getTableCount());
+		assertEquals(twin.getTableCount(), getTableCount(twin.createSqlSchema()));
+	}
+
+	private void assertModifications(SyntheticSchema schema, SyntheticSchemaMutation mutation,
+			SchemaModification expectedModification, int expectedCount) throws StructureGraphComparisonException {
+		SyntheticSchema twin = generator.mutate(schema, mutation, 7);
+		SqlSchemaComparer comparer = new SqlSchemaComparer(schema.createSqlSchema(), twin.createSqlSchema());
+		int count = 0;
+
+		for (Entry<ISqlElement, SchemaModification> modification : comparer.comparisonResult.getModifications().entrySet()) {
+			assertNotNull(modification.getKey());
+
+			if (modification.getValue() == expectedModification)
+				count++;
+		}
+
+		assertEquals(expectedCount, count);
+	}
+
+	private static int getTableCount(DirectedGraph<IStructureElement, DefaultEdge> schema) {
+		return SqlElementFactory.getSqlElementsOfType(SqlTableVertex.class, schema.vertexSet()).size();
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.fixtures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A script of schema modifications that turns a {@link SyntheticSchema}
+ * into its "refactored" twin, e.g.
+ * {@code new SyntheticSchemaMutation().add(Kind.RENAME_COLUMN, 3).add(Kind.ADD_TABLE, 1)}.
+ */
+public class SyntheticSchemaMutation {
+
+	public enum Kind {
+		ADD_TABLE,
+		DROP_TABLE,
+		RENAME_TABLE,
+		ADD_COLUMN,
+		DROP_COLUMN,
+		RENAME_COLUMN,
+		MOVE_COLUMN,
+		CHANGE_COLUMN_TYPE,
+		ADD_FOREIGN_KEY,
+		DROP_FOREIGN_KEY
+	}
+
+	public static class Step {
+
+		private final Kind kind;
+
+		private final int count;
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public Step(Kind kind, int count) {
+			this.kind = kind;
+			this.count = count;
+		}
+	}
+
+	private final List<Step> steps = new ArrayList<>();
+
+	public SyntheticSchemaMutation add(Kind kind, int count) {
+		if (count < 0)
+			throw new IllegalArgumentException("Number of modifications must not be negative!");
+
+		steps.add(new Step(kind, count));
+
+		return this;
+	}
+
+	public List<Step> getSteps() {
+		return Collections.unmodifiableList(steps);
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.iti.sqlSchemaComparison.frontends.database.H2SchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.H2SchemaFrontendTest;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontendTest;
+import org.iti.sqlSchemaComparison.vertex.IndexedSqlSchema;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.sqlSchemaComparison.vertex.SqlElementType;
+import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlSchemaGraphCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void unchangedFilesAreReadOnce() {
+		SqlSchemaGraphCache cache = new SqlSchemaGraphCache();
+
+		DirectedGraph<IStructureElement, DefaultEdge> first = createSqliteSchema(SqliteSchemaFrontendTest.DATABASE_FILE_PATH, cache);
+		DirectedGraph<IStructureElement, DefaultEdge> second = createSqliteSchema(SqliteSchemaFrontendTest.DATABASE_FILE_PATH, cache);
+		DirectedGraph<IStructureElement, DefaultEdge> h2First = createH2Schema(cache);
+		DirectedGraph<IStructureElement, DefaultEdge> h2Second = createH2Schema(cache);
+
+		assertSame(first, second);
+		assertSame(h2First, h2Second);
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(2, cache.size());
+		assertTrue(cache.getEstimatedMemory() > 0);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void cachedSchemasAreFrozen() {
+		DirectedGraph<IStructureElement, DefaultEdge> schema = createSqliteSchema(SqliteSchemaFrontendTest.DATABASE_FILE_PATH,
+				new SqlSchemaGraphCache());
+
+		assertTrue(((IndexedSqlSchema) schema).isFrozen());
+
+		((IndexedSqlSchema) ((IndexedSqlSchema) schema).clone()).addVertex(SqlElementFactory.createSqlElement(SqlElementType.Table, "t1"));
+		schema.addVertex(SqlElementFactory.createSqlElement(SqlElementType.Table, "t1"));
+	}
+
+	@Test
+	public void changedFilesAreReadAgain() throws IOException, SQLException {
+		SqlSchemaGraphCache cache = new SqlSchemaGraphCache();
+		File database = copyDatabase(SqliteSchemaFrontendTest.DATABASE_FILE_PATH);
+		long lastModified = database.lastModified();
+
+		DirectedGraph<IStructureElement, DefaultEdge> first = createSqliteSchema(database.getPath(), cache);
+
+		Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.getPath());
+
+		try {
+			Statement stm = connection.createStatement();
+
+			stm.executeUpdate("CREATE TABLE added(id integer primary key);");
+			stm.close();
+		} finally {
+			connection.close();
+		}
+
+		database.setLastModified(lastModified);
+
+		DirectedGraph<IStructureElement, DefaultEdge> second = createSqliteSchema(database.getPath(), cache);
+
+		assertNotSame(first, second);
+		assertNull(SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, "added", first.vertexSet()));
+		assertNotNull(SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, "added", second.vertexSet()));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void schemasAreEvictedByCountAndMemory() throws IOException {
+		File database1 = copyDatabase(SqliteSchemaFrontendTest.DATABASE_FILE_PATH);
+		File database2 = copyDatabase(SqliteSchemaFrontendTest.DROPPED_TABLE_DATABASE_FILE_PATH);
+
+		SqlSchemaGraphCache countLimited = new SqlSchemaGraphCache(1, SqlSchemaGraphCache.DEFAULT_MAXIMUM_MEMORY);
+		SqlSchemaGraphCache memoryLimited = new SqlSchemaGraphCache(SqlSchemaGraphCache.DEFAULT_MAXIMUM_SIZE, 1);
+
+		for (SqlSchemaGraphCache cache : new SqlSchemaGraphCache[] { countLimited, memoryLimited }) {
+			DirectedGraph<IStructureElement, DefaultEdge> first = createSqliteSchema(database1.getPath(), cache);
+			DirectedGraph<IStructureElement, DefaultEdge> second = createSqliteSchema(database2.getPath(), cache);
+
+			assertEquals(1, cache.size());
+			assertSame(second, createSqliteSchema(database2.getPath(), cache));
+			assertNotSame(first, createSqliteSchema(database1.getPath(), cache));
+			assertEquals(SqlSchemaGraphCache.estimateMemory(first), cache.getEstimatedMemory());
+		}
+	}
+
+	private File copyDatabase(String filePath) throws IOException {
+		File copy = new File(folder.getRoot(), new File(filePath).getName());
+
+		Files.copy(new File(filePath).toPath(), copy.toPath());
+
+		return copy;
+	}
+
+	private static DirectedGraph<IStructureElement, DefaultEdge> createSqliteSchema(String filePath, SqlSchemaGraphCache cache) {
+		return new CachingSqlSchemaFrontend(new SqliteSchemaFrontend(filePath), filePath, cache).createSqlSchema();
+	}
+
+	private static DirectedGraph<IStructureElement, DefaultEdge> createH2Schema(SqlSchemaGraphCache cache) {
+		return new CachingSqlSchemaFrontend(new H2SchemaFrontend(H2SchemaFrontendTest.DATABASE_FILE_PATH),
+				H2SchemaFrontendTest.DATABASE_FILE_PATH, cache).createSqlSchema();
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.frontends;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlStatementLogReaderTest {
+
+	@Test
+	public void statementsAreSplitAtLineBreaksAndSemicolons() throws IOException {
+		SqlStatementLogReader reader = new SqlStatementLogReader(new StringReader(
+				"SELECT id FROM a\n\r\nSELECT id FROM b; SELECT id FROM c;\n  \nSELECT id FROM d"));
+
+		assertEquals("SELECT id FROM a;", reader.readStatement());
+		assertEquals("SELECT id FROM b;", reader.readStatement());
+		assertEquals("SELECT id FROM c;", reader.readStatement());
+		assertEquals("SELECT id FROM d;", reader.readStatement());
+		assertNull(reader.readStatement());
+
+		reader.close();
+	}
+
+	@Test
+	public void whitespaceIsCollapsedOutsideOfLiterals() throws IOException {
+		SqlStatementLogReader reader = new SqlStatementLogReader(new StringReader(
+				"  SELECT \t id,  name FROM a WHERE name = 'x;  y\nz' ;"));
+
+		assertEquals("SELECT id, name FROM a WHERE name = 'x;  y\nz';", reader.readStatement());
+		assertNull(reader.readStatement());
+
+		reader.close();
+	}
+
+}
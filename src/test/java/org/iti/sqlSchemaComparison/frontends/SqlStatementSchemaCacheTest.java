@@ -0,0 +1,138 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.frontends;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.gibello.zql.ParseException;
+import org.iti.sqlSchemaComparison.frontends.ISqlQueryFrontend.QueryType;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlStatementSchemaCacheTest {
+
+	@Test
+	public void literalsAreRemovedFromStatements() {
+		assertEquals("SELECT name FROM t1 WHERE id = ? AND name = ?;",
+				SqlStatementSchemaCache.normalize(" SELECT  name FROM t1\nWHERE id = 42 AND name = 'it''s; 7';"));
+		assertEquals(SqlStatementSchemaCache.normalize("SELECT c_1 FROM t2 WHERE id = 1.5;"),
+				SqlStatementSchemaCache.normalize("SELECT c_1 FROM t2 WHERE id = 7;"));
+	}
+
+	@Test
+	public void statementsWithDifferentLiteralsShareTheirSchema() throws UnsupportedEncodingException, ParseException {
+		SqlStatementSchemaCache cache = new SqlStatementSchemaCache(null);
+
+		ISqlQueryFrontend first = cache.getFrontend("SELECT firstname FROM customers WHERE id = 1;");
+		ISqlQueryFrontend second = cache.getFrontend("SELECT firstname FROM customers WHERE id = 2;");
+		ISqlQueryFrontend third = cache.getFrontend("SELECT surname FROM customers WHERE id = 2;");
+
+		assertSame(first.createSqlSchema(), second.createSqlSchema());
+		assertNotSame(first.createSqlSchema(), third.createSqlSchema());
+		assertEquals(QueryType.DQL, second.getQueryType());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void leastRecentlyUsedStatementIsEvicted() throws UnsupportedEncodingException, ParseException {
+		SqlStatementSchemaCache cache = new SqlStatementSchemaCache(null, 2);
+
+		cache.getFrontend("SELECT a FROM t;");
+		cache.getFrontend("SELECT b FROM t;");
+		cache.getFrontend("SELECT a FROM t;");
+		cache.getFrontend("SELECT c FROM t;");
+		cache.getFrontend("SELECT a FROM t;");
+		cache.getFrontend("SELECT b FROM t;");
+
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(4, cache.getMissCount());
+	}
+
+	@Test
+	public void concurrentMissesParseOnce() throws Exception {
+		final SqlStatementSchemaCache cache = new SqlStatementSchemaCache(null);
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<ISqlQueryFrontend>> frontends = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < 8; i++) {
+				final int id = i;
+
+				frontends.add(executor.submit(new Callable<ISqlQueryFrontend>() {
+
+					@Override
+					public ISqlQueryFrontend call() throws Exception {
+						start.await();
+
+						return cache.getFrontend("SELECT firstname FROM customers WHERE id = " + id + ";");
+					}
+				}));
+			}
+
+			start.countDown();
+
+			for (Future<ISqlQueryFrontend> frontend : frontends)
+				assertSame(frontends.get(0).get().createSqlSchema(), frontend.get().createSqlSchema());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, cache.getMissCount());
+		assertEquals(7, cache.getHitCount());
+	}
+
+	@Test
+	public void unparsableStatementsAreNotCached() throws UnsupportedEncodingException {
+		SqlStatementSchemaCache cache = new SqlStatementSchemaCache(null);
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				cache.getFrontend("SELECT FROM WHERE;");
+			} catch (ParseException e) { }
+		}
+
+		assertEquals(0, cache.size());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void throwsIllegalArgumentExceptionForNonPositiveSize() {
+		new SqlStatementSchemaCache(null, 0);
+	}
+
+}
@@ -24,6 +24,7 @@ package org.iti.sqlSchemaComparison.frontends.database;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.nio.file.InvalidPathException;
 import java.util.ArrayList;
@@ -33,6 +34,8 @@ import java.util.Set;
 import org.iti.sqlSchemaComparison.SchemaModification;
 import org.iti.sqlSchemaComparison.SqlSchemaComparer;
 import org.iti.sqlSchemaComparison.SqlSchemaComparisonResult;
+import org.iti.sqlSchemaComparison.SqlSchemaPhase;
+import org.iti.sqlSchemaComparison.SqlSchemaPhaseStatistics;
 import org.iti.sqlSchemaComparison.TestHelper;
 import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
 import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
@@ -277,6 +280,27 @@ public class SqliteSchemaFrontendTest {
 		}
 	}
 
+	@Test
+	public void bulkIntrospectionMatchesPerTableIntrospection() throws StructureGraphComparisonException {
+		SqlSchemaPhaseStatistics bulkStatistics = new SqlSchemaPhaseStatistics();
+		SqlSchemaPhaseStatistics perTableStatistics = new SqlSchemaPhaseStatistics();
+		ISqlSchemaFrontend frontend1 = new SqliteSchemaFrontend(DATABASE_FILE_PATH, true, bulkStatistics);
+		ISqlSchemaFrontend frontend2 = new SqliteSchemaFrontend(DATABASE_FILE_PATH, false, perTableStatistics);
+		DirectedGraph<IStructureElement, DefaultEdge> schema1 = frontend1.createSqlSchema();
+		DirectedGraph<IStructureElement, DefaultEdge> schema2 = frontend2.createSqlSchema();
+		SqlSchemaComparer comparer = new SqlSchemaComparer(schema1, schema2);
+
+		// the bulk introspection lists the tables together with their columns
+		assertNull(bulkStatistics.getStatistics(SqlSchemaPhase.TABLE_LISTING));
+		assertEquals(1, bulkStatistics.getStatistics(SqlSchemaPhase.COLUMN_LOAD).getCalls());
+		assertEquals(31, bulkStatistics.getStatistics(SqlSchemaPhase.COLUMN_LOAD).getElementCount());
+		assertNotNull(perTableStatistics.getStatistics(SqlSchemaPhase.TABLE_LISTING));
+
+		assertEquals(schema2.vertexSet().size(), schema1.vertexSet().size());
+		assertEquals(schema2.edgeSet().size(), schema1.edgeSet().size());
+		assertTrue(comparer.isIsomorphic());
+	}
+
 	@Test(expected=InvalidPathException.class)
 	public void throwsInvalidFilePathExceptionForEmptyString() {
 		ISqlSchemaFrontend frontend = new SqliteSchemaFrontend("");
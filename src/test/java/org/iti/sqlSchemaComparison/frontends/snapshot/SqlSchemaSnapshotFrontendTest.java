@@ -0,0 +1,151 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends.snapshot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.iti.sqlSchemaComparison.SqlSchemaComparer;
+import org.iti.sqlSchemaComparison.SqlSchemaFingerprint;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontendTest;
+import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
+import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlSchemaSnapshotFrontendTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void snapshotRoundTripKeepsSchema() throws IOException, StructureGraphComparisonException {
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new SqliteSchemaFrontend(SqliteSchemaFrontendTest.DATABASE_FILE_PATH).createSqlSchema();
+		File snapshot = new File(folder.getRoot(), "hrm" + SqlSchemaSnapshotFrontend.FILE_EXTENSION);
+
+		new SqlSchemaSnapshotWriter(schema).write(snapshot.getPath());
+
+		DirectedGraph<IStructureElement, DefaultEdge> snapshotSchema = new SqlSchemaSnapshotFrontend(snapshot.getPath()).createSqlSchema();
+
+		assertEquals(schema.vertexSet().size(), snapshotSchema.vertexSet().size());
+		assertEquals(schema.edgeSet().size(), snapshotSchema.edgeSet().size());
+		assertEquals(SqlSchemaFingerprint.of(schema), SqlSchemaFingerprint.of(snapshotSchema));
+		assertTrue(new SqlSchemaComparer(schema, snapshotSchema).isIsomorphic());
+	}
+
+	@Test
+	public void snapshotKeepsMandatoryColumns() throws IOException {
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new SqliteSchemaFrontend(SqliteSchemaFrontendTest.DATABASE_FILE_PATH).createSqlSchema();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		new SqlSchemaSnapshotWriter(schema).write(out);
+
+		DirectedGraph<IStructureElement, DefaultEdge> snapshotSchema = SqlSchemaSnapshotFrontend.read(new ByteArrayInputStream(out.toByteArray()));
+
+		for (IStructureElement vertex : schema.vertexSet()) {
+			if (vertex instanceof SqlColumnVertex) {
+				SqlColumnVertex column = (SqlColumnVertex) vertex;
+				SqlColumnVertex snapshotColumn = (SqlColumnVertex) SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class,
+						column.getTable() + "." + column.getName(), snapshotSchema.vertexSet());
+
+				assertEquals(column.isMandatory(), snapshotColumn.isMandatory());
+			}
+		}
+	}
+
+	@Test
+	public void snapshotsAreDeterministic() throws IOException {
+		ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+		ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+
+		new SqlSchemaSnapshotWriter(new SqliteSchemaFrontend(SqliteSchemaFrontendTest.DATABASE_FILE_PATH).createSqlSchema()).write(out1);
+		new SqlSchemaSnapshotWriter(new SqliteSchemaFrontend(SqliteSchemaFrontendTest.DATABASE_FILE_PATH).createSqlSchema()).write(out2);
+
+		assertArrayEquals(out1.toByteArray(), out2.toByteArray());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void throwsIllegalArgumentExceptionForInvalidSnapshot() throws IOException {
+		File snapshot = folder.newFile("invalid" + SqlSchemaSnapshotFrontend.FILE_EXTENSION);
+
+		Files.write(snapshot.toPath(), "CREATE TABLE t (id INTEGER);".getBytes(StandardCharsets.UTF_8));
+
+		new SqlSchemaSnapshotFrontend(snapshot.getPath()).createSqlSchema();
+	}
+
+	@Test(expected=IOException.class)
+	public void throwsIOExceptionForNegativeCount() throws IOException {
+		SqlSchemaSnapshotFrontend.read(new ByteArrayInputStream(createSnapshotHeader(0xFF, 0xFF, 0xFF, 0xFF, 0x0F)));
+	}
+
+	@Test(expected=IOException.class)
+	public void throwsIOExceptionForLengthExceedingSnapshot() throws IOException {
+		SqlSchemaSnapshotFrontend.read(new ByteArrayInputStream(createSnapshotHeader(0x01, 0xFF, 0xFF, 0xFF, 0xFF, 0x07)));
+	}
+
+	@Test
+	public void corruptSnapshotIsReported() throws IOException {
+		File snapshot = folder.newFile("corrupt" + SqlSchemaSnapshotFrontend.FILE_EXTENSION);
+
+		Files.write(snapshot.toPath(), createSnapshotHeader(0xFF, 0xFF, 0xFF, 0xFF, 0x07));
+
+		assertNull(new SqlSchemaSnapshotFrontend(snapshot.getPath()).createSqlSchema());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void throwsIllegalArgumentExceptionForMissingSnapshot() {
+		new SqlSchemaSnapshotFrontend(new File(folder.getRoot(), "missing" + SqlSchemaSnapshotFrontend.FILE_EXTENSION).getPath()).createSqlSchema();
+	}
+
+	private byte[] createSnapshotHeader(int... body) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeInt(SqlSchemaSnapshotFormat.MAGIC);
+		SqlSchemaSnapshotFormat.writeVarInt(out, SqlSchemaSnapshotFormat.VERSION);
+
+		for (int b : body)
+			out.writeByte(b);
+
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.frontends.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.iti.sqlSchemaComparison.SqlSchemaFingerprint;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontendTest;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlSchemaSnapshotStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private DirectedGraph<IStructureElement, DefaultEdge> schema1 = new SqliteSchemaFrontend(SqliteSchemaFrontendTest.DATABASE_FILE_PATH).createSqlSchema();
+	private DirectedGraph<IStructureElement, DefaultEdge> schema2 = new SqliteSchemaFrontend(SqliteSchemaFrontendTest.DROPPED_TABLE_DATABASE_FILE_PATH).createSqlSchema();
+
+	@Test
+	public void storedVersionsAreLoadedCorrectly() throws IOException {
+		String storeFilePath = getStoreFilePath();
+		SqlSchemaSnapshotStore store = new SqlSchemaSnapshotStore(storeFilePath, true);
+
+		try {
+			store.append("1.0", schema1);
+			store.append("2.0", schema2);
+		} finally {
+			store.close();
+		}
+
+		store = new SqlSchemaSnapshotStore(storeFilePath, false);
+
+		try {
+			assertEquals(Arrays.asList("1.0", "2.0"), store.getVersions());
+			assertEquals(SqlSchemaFingerprint.of(schema2), SqlSchemaFingerprint.of(store.load("2.0")));
+			assertEquals(SqlSchemaFingerprint.of(schema1), SqlSchemaFingerprint.of(store.load("1.0")));
+		} finally {
+			store.close();
+		}
+
+		DirectedGraph<IStructureElement, DefaultEdge> schema = new SqlSchemaSnapshotStoreFrontend(storeFilePath + "#1.0").createSqlSchema();
+
+		assertEquals(SqlSchemaFingerprint.of(schema1), SqlSchemaFingerprint.of(schema));
+	}
+
+	@Test
+	public void partiallyWrittenRecordIsIgnoredAndOverwritten() throws IOException {
+		String storeFilePath = getStoreFilePath();
+		SqlSchemaSnapshotStore store = new SqlSchemaSnapshotStore(storeFilePath, true);
+
+		try {
+			store.append("1.0", schema1);
+			store.append("2.0", schema2);
+		} finally {
+			store.close();
+		}
+
+		RandomAccessFile file = new RandomAccessFile(storeFilePath, "rw");
+
+		try {
+			file.setLength(file.length() - 10);
+		} finally {
+			file.close();
+		}
+
+		store = new SqlSchemaSnapshotStore(storeFilePath, true);
+
+		try {
+			assertEquals(Arrays.asList("1.0"), store.getVersions());
+			assertFalse(store.contains("2.0"));
+
+			store.append("3.0", schema2);
+		} finally {
+			store.close();
+		}
+
+		store = new SqlSchemaSnapshotStore(storeFilePath, false);
+
+		try {
+			assertEquals(Arrays.asList("1.0", "3.0"), store.getVersions());
+			assertTrue(store.contains("3.0"));
+			assertEquals(SqlSchemaFingerprint.of(schema2), SqlSchemaFingerprint.of(store.load("3.0")));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void malformedRecordPreventsAppending() throws IOException {
+		String storeFilePath = getStoreFilePath();
+		SqlSchemaSnapshotStore store = new SqlSchemaSnapshotStore(storeFilePath, true);
+
+		try {
+			store.append("1.0", schema1);
+			store.append("2.0", schema2);
+			store.append("3.0", schema1);
+			store.append("4.0", schema2);
+		} finally {
+			store.close();
+		}
+
+		RandomAccessFile file = new RandomAccessFile(storeFilePath, "rw");
+		long length = file.length();
+
+		try {
+			file.seek(8 + 8);
+
+			long secondRecordPosition = 8 + 12 + 3 + file.readInt();
+
+			file.seek(secondRecordPosition);
+
+			byte magic = file.readByte();
+
+			file.seek(secondRecordPosition);
+			file.writeByte(magic ^ 0x01);
+		} finally {
+			file.close();
+		}
+
+		try {
+			new SqlSchemaSnapshotStore(storeFilePath, true).close();
+			fail("Store with malformed record has been opened for writing!");
+		} catch (IOException e) {
+			assertEquals(length, new File(storeFilePath).length());
+		}
+
+		store = new SqlSchemaSnapshotStore(storeFilePath, false);
+
+		try {
+			assertEquals(Arrays.asList("1.0"), store.getVersions());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void throwsIllegalArgumentExceptionForDuplicateVersion() throws IOException {
+		SqlSchemaSnapshotStore store = new SqlSchemaSnapshotStore(getStoreFilePath(), true);
+
+		try {
+			store.append("1.0", schema1);
+			store.append("1.0", schema2);
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void throwsIllegalArgumentExceptionForUnknownVersion() throws IOException {
+		SqlSchemaSnapshotStore store = new SqlSchemaSnapshotStore(getStoreFilePath(), true);
+
+		try {
+			store.load("1.0");
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void storeReferencesAreParsedCorrectly() {
+		assertTrue(SqlSchemaSnapshotStoreFrontend.isStoreReference("releases.sqlstore#2.1#rc1"));
+		assertFalse(SqlSchemaSnapshotStoreFrontend.isStoreReference("hrm.sqlite"));
+		assertEquals("releases.sqlstore", SqlSchemaSnapshotStoreFrontend.getStoreFilePath("releases.sqlstore#2.1#rc1"));
+		assertEquals("2.1#rc1", SqlSchemaSnapshotStoreFrontend.getVersion("releases.sqlstore#2.1#rc1"));
+	}
+
+	private String getStoreFilePath() {
+		return new File(folder.getRoot(), "releases" + SqlSchemaSnapshotStore.FILE_EXTENSION).getPath();
+	}
+}
@@ -23,28 +23,46 @@ package org.iti.sqlSchemaComparison.frontends.technologies;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.iti.sqlSchemaComparison.SqlSchemaComparer;
 import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
 import org.iti.sqlSchemaComparison.frontends.ISqlSchemaFrontend;
 import org.iti.sqlSchemaComparison.vertex.ISqlElement;
 import org.iti.sqlSchemaComparison.vertex.SqlColumnVertex;
 import org.iti.sqlSchemaComparison.vertex.SqlElementFactory;
 import org.iti.sqlSchemaComparison.vertex.SqlTableVertex;
+import org.iti.structureGraph.comparison.StructureGraphComparisonException;
 import org.iti.structureGraph.nodes.IStructureElement;
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import japa.parser.ast.body.ClassOrInterfaceDeclaration;
+import japa.parser.ast.body.MethodDeclaration;
+
 @RunWith(JUnit4.class)
 public class JPASchemaFrontendTest {
 
 	private static final String JPA_FILE_PATH = "jpa//Department.java";
 	private static final String JPA_FOLDER = "jpa";
 
+	@Rule
+	public TemporaryFolder sourceTree = new TemporaryFolder();
+
 	@Before
 	public void setUp() { }
 
@@ -72,6 +90,105 @@ public class JPASchemaFrontendTest {
 		assertEquals(2, getForeignKeyCount(schema));
 	}
 
+	@Test
+	public void parallelParsingMatchesSequentialParsing() throws StructureGraphComparisonException {
+		ISqlSchemaFrontend sequentialFrontend = new JPASchemaFrontend(JPA_FOLDER, 1);
+		ISqlSchemaFrontend parallelFrontend = new JPASchemaFrontend(JPA_FOLDER, 4);
+		DirectedGraph<IStructureElement, DefaultEdge> sequentialSchema = sequentialFrontend.createSqlSchema();
+		DirectedGraph<IStructureElement, DefaultEdge> parallelSchema = parallelFrontend.createSqlSchema();
+
+		assertNotNull(parallelSchema);
+		assertEquals(sequentialSchema.vertexSet().size(), parallelSchema.vertexSet().size());
+		assertEquals(getForeignKeyCount(sequentialSchema), getForeignKeyCount(parallelSchema));
+		assertTrue(new SqlSchemaComparer(sequentialSchema, parallelSchema).isIsomorphic());
+	}
+
+	@Test
+	public void nestedDirectoryProcessing() throws IOException {
+		File model = sourceTree.newFolder("org", "example", "model");
+		File util = sourceTree.newFolder("org", "example", "util");
+
+		copy("Department.java", sourceTree.getRoot());
+		copy("Employee.java", model);
+		copy("Manager.java", model);
+		Files.write(new File(util, "Strings.java").toPath(), "public class Strings { public String getValue() { return null; } }".getBytes());
+
+		ISqlSchemaFrontend frontend = new JPASchemaFrontend(sourceTree.getRoot().getPath());
+		DirectedGraph<IStructureElement, DefaultEdge> schema = frontend.createSqlSchema();
+
+		assertNotNull(schema);
+		assertEquals(3, SqlElementFactory.getSqlElementsOfType(SqlTableVertex.class, schema.vertexSet()).size());
+		assertEquals(10, SqlElementFactory.getSqlElementsOfType(SqlColumnVertex.class, schema.vertexSet()).size());
+		assertEquals(2, getForeignKeyCount(schema));
+	}
+
+	@Test
+	public void cachedFactsAreReusedForUnchangedFiles() throws IOException, StructureGraphComparisonException {
+		File sources = sourceTree.newFolder("sources");
+		String cacheFile = new File(sourceTree.getRoot(), "jpa.cache").getPath();
+
+		copy("Department.java", sources);
+		copy("Employee.java", sources);
+		copy("Manager.java", sources);
+
+		JPASchemaFrontend frontend = new JPASchemaFrontend(sources.getPath(), 2, cacheFile);
+		DirectedGraph<IStructureElement, DefaultEdge> parsedSchema = frontend.createSqlSchema();
+
+		assertEquals(0, frontend.getFactsCache().getHitCount());
+		assertEquals(3, frontend.getFactsCache().getMissCount());
+
+		frontend = new JPASchemaFrontend(sources.getPath(), 2, cacheFile);
+		DirectedGraph<IStructureElement, DefaultEdge> cachedSchema = frontend.createSqlSchema();
+
+		assertEquals(3, frontend.getFactsCache().getHitCount());
+		assertEquals(0, frontend.getFactsCache().getMissCount());
+		assertEquals(parsedSchema.vertexSet().size(), cachedSchema.vertexSet().size());
+		assertEquals(getForeignKeyCount(parsedSchema), getForeignKeyCount(cachedSchema));
+		assertTrue(new SqlSchemaComparer(parsedSchema, cachedSchema).isIsomorphic());
+
+		Files.write(new File(sources, "Manager.java").toPath(), "// changed".getBytes(), StandardOpenOption.APPEND);
+		Files.delete(new File(sources, "Department.java").toPath());
+
+		cachedSchema = frontend.createSqlSchema();
+
+		assertEquals(1, frontend.getFactsCache().getHitCount());
+		assertEquals(1, frontend.getFactsCache().getMissCount());
+		assertEquals(2, frontend.getFactsCache().size());
+		assertEquals(2, SqlElementFactory.getSqlElementsOfType(SqlTableVertex.class, cachedSchema.vertexSet()).size());
+	}
+
+	@Test
+	public void cachedFactsHaveNoSourceElements() throws IOException {
+		File sources = sourceTree.newFolder("sources");
+		String cacheFile = new File(sourceTree.getRoot(), "jpa.cache").getPath();
+
+		copy("Department.java", sources);
+
+		DirectedGraph<IStructureElement, DefaultEdge> parsedSchema = new JPASchemaFrontend(sources.getPath(), cacheFile).createSqlSchema();
+		DirectedGraph<IStructureElement, DefaultEdge> cachedSchema = new JPASchemaFrontend(sources.getPath(), cacheFile).createSqlSchema();
+
+		ISqlElement parsedTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, "departments", parsedSchema.vertexSet());
+		ISqlElement cachedTable = SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, "departments", cachedSchema.vertexSet());
+
+		assertTrue(parsedTable.getSourceElement() instanceof ClassOrInterfaceDeclaration);
+		assertNull(cachedTable.getSourceElement());
+
+		for (ISqlElement column : SqlElementFactory.getSqlElementsOfType(SqlColumnVertex.class, parsedSchema.vertexSet()))
+			assertTrue(column.getSourceElement() instanceof MethodDeclaration);
+
+		for (ISqlElement column : SqlElementFactory.getSqlElementsOfType(SqlColumnVertex.class, cachedSchema.vertexSet()))
+			assertNull(column.getSourceElement());
+	}
+
+	private void copy(String fileName, File directory) throws IOException {
+		Files.copy(new File(JPA_FOLDER, fileName).toPath(), new File(directory, fileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void throwsIllegalArgumentExceptionForNonPositiveWorkerCount() {
+		new JPASchemaFrontend(JPA_FOLDER, 0);
+	}
+
 	private int getForeignKeyCount(DirectedGraph<IStructureElement, DefaultEdge> schema) {
 		int foreignKeyEdges = 0;
 
@@ -0,0 +1,194 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontendTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SqlSchemaComparisonServerTest {
+
+	private static final String REFACTORED_DATABASES = "src//test//java//databases//refactored";
+
+	private SqlSchemaComparisonServer server;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new SqlSchemaComparisonServer(0, 2);
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.close();
+	}
+
+	@Test
+	public void schemasAreComparedAndKeptWarm() throws IOException {
+		String path = "/compare?schema1=" + encode(SqliteSchemaFrontendTest.DATABASE_FILE_PATH)
+				+ "&schema2=" + encode(SqliteSchemaFrontendTest.DROPPED_COLUMN_DATABASE_FILE_PATH);
+
+		String first = request("GET", path, null, 200);
+		String second = request("GET", path, null, 200);
+
+		assertEquals(first, second);
+		assertTrue(first.contains("] <=> ["));
+		assertTrue(request("GET", path + "&format=json", null, 200).startsWith("{"));
+		assertTrue(request("GET", "/status", null, 200).contains("\"schemas\":2,\"comparisons\":1"));
+	}
+
+	@Test
+	public void statementsAreValidated() throws IOException {
+		String path = "/validate?schema=" + encode(SqliteSchemaFrontendTest.DATABASE_FILE_PATH);
+
+		String valid = request("GET", path + "&statement=" + encode("SELECT firstname, surname FROM customers"), null, 200);
+		String invalid = request("POST", path + "&format=ndjson", "SELECT unknown FROM unknownTable;", 200);
+
+		assertTrue(valid.contains("Statement is valid!"));
+		assertTrue(invalid.contains("\"record\":\"statement\""));
+		assertTrue(invalid.contains("\"record\":\"summary\""));
+		assertTrue(request("GET", "/status", null, 200).contains("\"statements\":2"));
+
+		request("POST", "/clear", "", 200);
+
+		assertTrue(request("GET", "/status", null, 200).contains("\"schemas\":0,\"comparisons\":0,\"statements\":0"));
+	}
+
+	@Test
+	public void invalidRequestsAreRejected() throws IOException {
+		request("GET", "/compare?schema1=" + encode(SqliteSchemaFrontendTest.DATABASE_FILE_PATH), null, 400);
+		request("GET", "/compare?schema1=missing.sqlite&schema2=missing.sqlite", null, 400);
+		request("GET", "/validate?schema=" + encode(SqliteSchemaFrontendTest.DATABASE_FILE_PATH)
+				+ "&statement=SELECT&format=xml", null, 400);
+		request("GET", "/clear", null, 405);
+		request("POST", "/clear", "", 200);
+	}
+
+	@Test
+	public void referencesOutsideOfRootAreRejected() throws IOException {
+		SqlSchemaComparisonServer rootedServer = new SqlSchemaComparisonServer(0, 1, REFACTORED_DATABASES);
+
+		rootedServer.start();
+
+		try {
+			request(rootedServer, "GET", "/compare?schema1=hrm_DropColumn.sqlite&schema2=hrm_DropTable.sqlite", null, 200);
+			request(rootedServer, "GET", "/compare?schema1=" + encode("../hrm.sqlite")
+					+ "&schema2=hrm_DropTable.sqlite", null, 403);
+			request(rootedServer, "GET", "/validate?schema="
+					+ encode(new File(SqliteSchemaFrontendTest.DATABASE_FILE_PATH).getAbsolutePath())
+					+ "&statement=" + encode("SELECT firstname FROM customers"), null, 403);
+		} finally {
+			rootedServer.close();
+		}
+	}
+
+	@Test
+	public void foreignHostsAreRejected() throws IOException {
+		assertTrue(rawRequest("localhost:" + server.getPort()).startsWith("HTTP/1.1 200"));
+		assertTrue(rawRequest("attacker.example:" + server.getPort()).startsWith("HTTP/1.1 403"));
+	}
+
+	private String rawRequest(String host) throws IOException {
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+
+		try {
+			OutputStream out = socket.getOutputStream();
+
+			out.write(("GET /status HTTP/1.1\r\nHost: " + host + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+			out.flush();
+
+			return read(socket.getInputStream());
+		} finally {
+			socket.close();
+		}
+	}
+
+	private String request(String method, String path, String body, int expectedStatus) throws IOException {
+		return request(server, method, path, body, expectedStatus);
+	}
+
+	private static String request(SqlSchemaComparisonServer server, String method, String path, String body,
+			int expectedStatus) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+
+		try {
+			connection.setRequestMethod(method);
+
+			if (body != null) {
+				connection.setDoOutput(true);
+
+				OutputStream out = connection.getOutputStream();
+
+				try {
+					out.write(body.getBytes(StandardCharsets.UTF_8));
+				} finally {
+					out.close();
+				}
+			}
+
+			assertEquals(expectedStatus, connection.getResponseCode());
+
+			return read(expectedStatus < 400 ? connection.getInputStream() : connection.getErrorStream());
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	private static String read(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int count;
+
+		try {
+			while ((count = in.read(buffer)) >= 0)
+				out.write(buffer, 0, count);
+		} finally {
+			in.close();
+		}
+
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static String encode(String value) throws IOException {
+		return URLEncoder.encode(value, "UTF-8");
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package org.iti.sqlSchemaComparison.vertex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.iti.sqlSchemaComparison.edge.ColumnHasConstraint;
+import org.iti.sqlSchemaComparison.edge.ForeignKeyRelationEdge;
+import org.iti.sqlSchemaComparison.edge.TableHasColumnEdge;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.ColumnConstraintVertex;
+import org.iti.sqlSchemaComparison.vertex.sqlColumn.IColumnConstraint.ConstraintType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class IndexedSqlSchemaTest {
+
+	private IndexedSqlSchema schema;
+
+	private ISqlElement t1 = SqlElementFactory.createSqlElement(SqlElementType.Table, "t1");
+	private ISqlElement t2 = SqlElementFactory.createSqlElement(SqlElementType.Table, "t2");
+
+	private ISqlElement c1 = new SqlColumnVertex("id", t1.getName());
+	private ISqlElement c2 = new SqlColumnVertex("ref", t1.getName());
+	private ISqlElement c3 = new SqlColumnVertex("id", t2.getName());
+
+	private ISqlElement pk1 = new ColumnConstraintVertex("id", ConstraintType.PRIMARY_KEY);
+	private ISqlElement pk2 = new ColumnConstraintVertex("id", ConstraintType.PRIMARY_KEY);
+
+	@Before
+	public void setUp() {
+		schema = new IndexedSqlSchema();
+
+		schema.addVertex(t1);
+		schema.addVertex(t2);
+		schema.addVertex(c1);
+		schema.addVertex(c2);
+		schema.addVertex(c3);
+		schema.addVertex(pk1);
+		schema.addVertex(pk2);
+
+		schema.addEdge(t1, c1, new TableHasColumnEdge(t1, c1));
+		schema.addEdge(t1, c2, new TableHasColumnEdge(t1, c2));
+		schema.addEdge(t2, c3, new TableHasColumnEdge(t2, c3));
+		schema.addEdge(c1, pk1, new ColumnHasConstraint());
+		schema.addEdge(c3, pk2, new ColumnHasConstraint());
+		schema.addEdge(c2, c3, new ForeignKeyRelationEdge(c2, t2, c3));
+	}
+
+	@Test
+	public void lookupsAreAnsweredFromIndex() {
+		assertSame(t1, SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, "t1", schema.vertexSet()));
+		assertSame(c3, SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, "t2.id", schema.vertexSet()));
+		assertNull(SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, "t2.ref", schema.vertexSet()));
+		assertEquals(2, SqlElementFactory.getSqlElementsOfType(SqlTableVertex.class, schema.vertexSet()).size());
+		assertEquals(2, SqlElementFactory.getMatchingSqlColumns("id", schema.vertexSet(), false).size());
+		assertEquals(1, SqlElementFactory.getMatchingSqlColumns("t1.ref", schema.vertexSet(), true).size());
+		assertEquals(2, ((SqlTableVertex) t1).getColumns(schema).size());
+		assertSame(c3, SqlElementFactory.getPrimaryKey(t2, schema));
+		assertEquals(2, schema.getIndex().getConstraintsOfType(ConstraintType.PRIMARY_KEY).size());
+		assertEquals(1, schema.getIndex().getForeignKeyRelations().size());
+	}
+
+	@Test
+	public void indexFollowsRemovals() {
+		schema.removeVertex(c3);
+
+		assertNull(SqlElementFactory.getMatchingSqlElement(SqlColumnVertex.class, "t2.id", schema.vertexSet()));
+		assertNull(SqlElementFactory.getPrimaryKey(t2, schema));
+		assertTrue(schema.getIndex().getForeignKeyRelations().isEmpty());
+		assertEquals(1, SqlElementFactory.getMatchingSqlColumns("id", schema.vertexSet(), false).size());
+	}
+
+	@Test
+	public void clonedSchemaHasOwnIndex() {
+		IndexedSqlSchema clone = (IndexedSqlSchema) schema.clone();
+
+		clone.removeVertex(t2);
+
+		assertNull(SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, "t2", clone.vertexSet()));
+		assertSame(t2, SqlElementFactory.getMatchingSqlElement(SqlTableVertex.class, "t2", schema.vertexSet()));
+	}
+}
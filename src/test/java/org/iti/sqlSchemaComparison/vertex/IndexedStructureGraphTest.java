@@ -0,0 +1,112 @@
+/*
+ *  Copyright 1999 Hagen Schink <hagen.schink@gmail.com>
+ *
+ *  This file is part of sql-schema-comparer.
+ *
+ *  sql-schema-comparer is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  sql-schema-comparer is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with sql-schema-comparer.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+
+package org.iti.sqlSchemaComparison.vertex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.iti.sqlSchemaComparison.SqlStatementExpectationValidatorTest;
+import org.iti.sqlSchemaComparison.frontends.SqlStatementFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontend;
+import org.iti.sqlSchemaComparison.frontends.database.SqliteSchemaFrontendTest;
+import org.iti.structureGraph.StructureGraph;
+import org.iti.structureGraph.comparison.StatementStructureGraphComparer;
+import org.iti.structureGraph.comparison.StructureGraphComparer;
+import org.iti.structureGraph.comparison.result.StructureGraphComparisonResult;
+import org.iti.structureGraph.comparison.result.Type;
+import org.iti.structureGraph.nodes.IStructureElement;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class IndexedStructureGraphTest {
+
+	private static DirectedGraph<IStructureElement, DefaultEdge> schema;
+
+	@BeforeClass
+	public static void init() {
+		schema = new SqliteSchemaFrontend(SqliteSchemaFrontendTest.DATABASE_FILE_PATH).createSqlSchema();
+	}
+
+	@Test
+	public void identifiersAndPathsMatchStructureGraph() {
+		StructureGraph expected = new StructureGraph(schema);
+		IndexedStructureGraph graph = new IndexedStructureGraph(schema);
+
+		assertEquals(expected.getIdentifiers(), graph.getIdentifiers());
+		assertEquals(expected.getPathes(), graph.getPathes());
+
+		for (IStructureElement element : schema.vertexSet()) {
+			assertSame(expected.getParent(element), graph.getParent(element));
+			assertEquals(expected.getIdentifier(element), graph.getIdentifier(element));
+			assertEquals(expected.getPath(element), graph.getPath(element));
+			assertEquals(expected.getPath(element, false), graph.getPath(element, false));
+			assertEquals(expected.getStructureElements(expected.getPath(element), true),
+					graph.getStructureElements(graph.getPath(element), true));
+		}
+	}
+
+	@Test
+	public void differenceViewsDoNotChangeComparison() throws Exception {
+		String[] databases = { SqliteSchemaFrontendTest.RENAME_COLUMN_DATABASE_FILE_PATH,
+				SqliteSchemaFrontendTest.MOVE_COLUMN_DATABASE_FILE_PATH,
+				SqliteSchemaFrontendTest.REPLACE_LOB_WITH_TABLE_DATABASE_FILE_PATH };
+
+		for (String database : databases) {
+			DirectedGraph<IStructureElement, DefaultEdge> refactoredSchema = new SqliteSchemaFrontend(database).createSqlSchema();
+			IndexedStructureGraph graph1 = new IndexedStructureGraph(schema);
+			IndexedStructureGraph graph2 = new IndexedStructureGraph(refactoredSchema);
+
+			assertSameResult(new StructureGraphComparer().compare(new StructureGraph(schema), new StructureGraph(refactoredSchema)),
+					new StructureGraphComparer().compare(graph1.getDifferenceView(graph2), graph2.getDifferenceView(graph1)));
+		}
+	}
+
+	@Test
+	public void statementComparisonMatchesStatementStructureGraphComparer() throws Exception {
+		String[] statements = { SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_COLUMN,
+				SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_TABLE,
+				SqlStatementExpectationValidatorTest.QUERY_WITH_FOREIGN_TABLE_REFERENCE,
+				SqlStatementExpectationValidatorTest.QUERY_WITH_MISSING_NOTNULL_COLUMN };
+
+		for (String statement : statements) {
+			DirectedGraph<IStructureElement, DefaultEdge> statementSchema = new SqlStatementFrontend(statement, null).createSqlSchema();
+
+			for (boolean isQuery : new boolean[] { true, false }) {
+				assertSameResult(new StatementStructureGraphComparer().compare(new StructureGraph(statementSchema), new StructureGraph(schema), isQuery),
+						new IndexedStatementStructureGraphComparer().compare(new IndexedStructureGraph(statementSchema), new IndexedStructureGraph(schema), isQuery));
+			}
+		}
+	}
+
+	private void assertSameResult(StructureGraphComparisonResult expected, StructureGraphComparisonResult result) {
+		assertEquals(expected.getModifications().keySet(), result.getModifications().keySet());
+
+		for (Type type : Type.values())
+			assertEquals(expected.getElementsByModification(type), result.getElementsByModification(type));
+	}
+}